@@ -14,11 +14,11 @@ public abstract class TemplateAuto implements Runnable {
     }
 
     public Translation2d here() {
-        return RobotTracker.getInstance().getPoseMeters().getTranslation();
+        return RobotTracker.getInstance().getPoseSnapshot().getTranslation();
     }
 
     public Rotation2d dir() {
-        return RobotTracker.getInstance().getPoseMeters().getRotation();
+        return RobotTracker.getInstance().getPoseSnapshot().getRotation();
     }
 
     synchronized public boolean isFinished() {
@@ -1,9 +1,7 @@
 package frc.auton.guiauto;
 
 import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.Timer;
 import frc.auton.TemplateAuto;
 import frc.auton.guiauto.serialization.AbstractAutonomousStep;
 import frc.auton.guiauto.serialization.Autonomous;
@@ -12,6 +10,7 @@ import frc.auton.guiauto.serialization.command.CommandExecutionFailedException;
 import frc.auton.guiauto.serialization.command.SendableScript;
 import frc.subsystem.Drive;
 import frc.subsystem.RobotTracker;
+import frc.utility.Clock;
 import frc.utility.Serializer;
 
 import java.io.File;
@@ -61,8 +60,7 @@ public abstract class AbstractGuiAuto extends TemplateAuto {
         for (AbstractAutonomousStep autonomousStep : autonomous.getAutonomousSteps()) {
             if (autonomousStep instanceof TrajectoryAutonomousStep) {
                 TrajectoryAutonomousStep trajectoryAutonomousStep = (TrajectoryAutonomousStep) autonomousStep;
-                Trajectory.State initialState = trajectoryAutonomousStep.getTrajectory().getStates().get(0);
-                initialPose = new Pose2d(initialState.poseMeters.getTranslation(),
+                initialPose = new Pose2d(trajectoryAutonomousStep.getTrajectory().getInitialPose().getTranslation(),
                         trajectoryAutonomousStep.getRotations().get(0).rotation);
                 break;
             }
@@ -71,6 +69,16 @@ public abstract class AbstractGuiAuto extends TemplateAuto {
 
     @Override
     public void run() {
+        Clock clock = Clock.getInstance();
+        clock.registerCurrentThread();
+        try {
+            runSteps(clock);
+        } finally {
+            clock.unregisterCurrentThread();
+        }
+    }
+
+    private void runSteps(Clock clock) {
         Thread.currentThread().setUncaughtExceptionHandler((t, e) -> {
             DriverStation.reportError("Uncaught exception in auto thread: " + e.getMessage(), e.getStackTrace());
             Drive.getInstance().stopMovement();
@@ -79,7 +87,7 @@ public abstract class AbstractGuiAuto extends TemplateAuto {
             }
         });
 
-        System.out.println("Started Running: " + Timer.getFPGATimestamp());
+        System.out.println("Started Running: " + clock.getTimestamp());
         //Set our initial pose in our robot tracker
         if (initialPose != null) {
             RobotTracker.getInstance().resetPosition(initialPose);
@@ -90,16 +98,16 @@ public abstract class AbstractGuiAuto extends TemplateAuto {
         List<SendableScript> scriptsToExecuteByPercent = new ArrayList<>();
 
         for (AbstractAutonomousStep autonomousStep : autonomous.getAutonomousSteps()) {
-            System.out.println("doing a step: " + Timer.getFPGATimestamp());
+            System.out.println("doing a step: " + clock.getTimestamp());
             if (Thread.interrupted()) {
-                System.out.println("Auto was interrupted " + Timer.getFPGATimestamp());
+                System.out.println("Auto was interrupted " + clock.getTimestamp());
                 return;
             }
 
             try {
                 autonomousStep.execute(scriptsToExecuteByTime, scriptsToExecuteByPercent);
             } catch (InterruptedException e) {
-                System.out.println("Auto was interrupted " + Timer.getFPGATimestamp());
+                System.out.println("Auto was interrupted " + clock.getTimestamp());
                 e.printStackTrace();
                 return;
             } catch (CommandExecutionFailedException e) {
@@ -107,7 +115,7 @@ public abstract class AbstractGuiAuto extends TemplateAuto {
             }
         }
 
-        System.out.println("finished: " + Timer.getFPGATimestamp());
+        System.out.println("finished: " + clock.getTimestamp());
         Drive.getInstance().stopMovement();
 
         synchronized (this) {
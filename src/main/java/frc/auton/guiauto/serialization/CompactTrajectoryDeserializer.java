@@ -0,0 +1,189 @@
+package frc.auton.guiauto.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import edu.wpi.first.math.trajectory.Trajectory;
+import frc.utility.CompactTrajectory;
+import frc.utility.DoubleParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads the {@code states} of a trajectory from the GUI's JSON (a list of serialized {@link Trajectory.State}s) straight into a
+ * {@link CompactTrajectory}.
+ * <p>
+ * Binding the states with Jackson creates a State and its Pose2d, Translation2d and Rotation2d (which computes a sin and a cos)
+ * for every state, and a path has thousands of them. This walks the tokens instead and parses each number straight from Jackson's
+ * buffer (with {@link DoubleParser}) into a column, so the only objects created are the columns. Fields that a State doesn't have
+ * are skipped and missing fields are 0, the same as when binding a State.
+ * <pre>
+ * {"time": 0.0, "velocity": 0.0, "acceleration": 0.0, "curvature": 0.0,
+ *  "pose": {"translation": {"x": 0.0, "y": 0.0}, "rotation": {"radians": 0.0}}}
+ * </pre>
+ */
+public class CompactTrajectoryDeserializer extends StdDeserializer<CompactTrajectory> {
+    private static final int INITIAL_CAPACITY = 256;
+
+    public CompactTrajectoryDeserializer() {
+        super(CompactTrajectory.class);
+    }
+
+    /**
+     * The columns as they're being filled. Grown by doubling and trimmed at the end.
+     */
+    private static final class Columns {
+        int size = 0;
+        double[] times = new double[INITIAL_CAPACITY];
+        double[] xs = new double[INITIAL_CAPACITY];
+        double[] ys = new double[INITIAL_CAPACITY];
+        double[] headings = new double[INITIAL_CAPACITY];
+        double[] velocities = new double[INITIAL_CAPACITY];
+        double[] accelerations = new double[INITIAL_CAPACITY];
+        double[] curvatures = new double[INITIAL_CAPACITY];
+
+        /**
+         * Adds a state with every value 0
+         */
+        void addState() {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                headings = Arrays.copyOf(headings, capacity);
+                velocities = Arrays.copyOf(velocities, capacity);
+                accelerations = Arrays.copyOf(accelerations, capacity);
+                curvatures = Arrays.copyOf(curvatures, capacity);
+            }
+            size++;
+        }
+
+        @NotNull CompactTrajectory toTrajectory() {
+            return new CompactTrajectory(Arrays.copyOf(times, size), Arrays.copyOf(xs, size), Arrays.copyOf(ys, size),
+                    Arrays.copyOf(headings, size), Arrays.copyOf(velocities, size), Arrays.copyOf(accelerations, size),
+                    Arrays.copyOf(curvatures, size));
+        }
+    }
+
+    @Override
+    public CompactTrajectory deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        expect(p, ctxt, JsonToken.START_ARRAY, "Expected the states of a trajectory");
+        Columns columns = new Columns();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            expect(p, ctxt, JsonToken.START_OBJECT, "Expected a trajectory state");
+            columns.addState();
+            readState(p, ctxt, columns, columns.size - 1);
+        }
+        if (columns.size == 0) {
+            return ctxt.reportInputMismatch(this, "A trajectory needs at least one state");
+        }
+        return columns.toTrajectory();
+    }
+
+    /**
+     * Jackson doesn't call {@link #deserialize(JsonParser, DeserializationContext)} for {@code "states": null}
+     */
+    @Override
+    public CompactTrajectory getNullValue(DeserializationContext ctxt) throws JsonMappingException {
+        return ctxt.reportInputMismatch(this, "A trajectory needs states, not null");
+    }
+
+    private static void readState(JsonParser p, DeserializationContext ctxt, Columns columns, int index) throws IOException {
+        String fieldName;
+        // Field names are interned by the parser, so switching on them doesn't create strings
+        while ((fieldName = p.nextFieldName()) != null) {
+            p.nextToken();
+            switch (fieldName) {
+                case "time":
+                    columns.times[index] = readDouble(p, ctxt);
+                    break;
+                case "velocity":
+                    columns.velocities[index] = readDouble(p, ctxt);
+                    break;
+                case "acceleration":
+                    columns.accelerations[index] = readDouble(p, ctxt);
+                    break;
+                case "curvature":
+                    columns.curvatures[index] = readDouble(p, ctxt);
+                    break;
+                case "pose":
+                    readPose(p, ctxt, columns, index);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+    }
+
+    private static void readPose(JsonParser p, DeserializationContext ctxt, Columns columns, int index) throws IOException {
+        expect(p, ctxt, JsonToken.START_OBJECT, "Expected the pose of a trajectory state");
+        String fieldName;
+        while ((fieldName = p.nextFieldName()) != null) {
+            p.nextToken();
+            if (fieldName.equals("translation")) {
+                expect(p, ctxt, JsonToken.START_OBJECT, "Expected the translation of a pose");
+                while ((fieldName = p.nextFieldName()) != null) {
+                    p.nextToken();
+                    if (fieldName.equals("x")) {
+                        columns.xs[index] = readDouble(p, ctxt);
+                    } else if (fieldName.equals("y")) {
+                        columns.ys[index] = readDouble(p, ctxt);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else if (fieldName.equals("rotation")) {
+                columns.headings[index] = readRotation(p, ctxt);
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Reads a serialized Rotation2d. The parser must be at its start.
+     *
+     * @return The angle (in radians)
+     */
+    static double readRotation(JsonParser p, DeserializationContext ctxt) throws IOException {
+        expect(p, ctxt, JsonToken.START_OBJECT, "Expected a rotation");
+        double radians = 0;
+        String fieldName;
+        while ((fieldName = p.nextFieldName()) != null) {
+            p.nextToken();
+            if (fieldName.equals("radians")) {
+                radians = readDouble(p, ctxt);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return radians;
+    }
+
+    static double readDouble(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return 0; // Same as binding null to a double
+        }
+        if (token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_NUMBER_INT) {
+            ctxt.reportWrongTokenException(double.class, JsonToken.VALUE_NUMBER_FLOAT, "Expected a number for %s",
+                    p.getCurrentName());
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            // Jackson would make a String and call Double.parseDouble, which makes a lot of garbage for 17 digit numbers
+            return DoubleParser.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        return p.getDoubleValue();
+    }
+
+    static void expect(JsonParser p, DeserializationContext ctxt, JsonToken expected, String message) throws IOException {
+        if (p.currentToken() != expected) {
+            ctxt.reportWrongTokenException(CompactTrajectory.class, expected, message);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package frc.auton.guiauto.serialization;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@code rotations} of a trajectory from the GUI's JSON by walking the tokens, like
+ * {@link CompactTrajectoryDeserializer}. Only the {@link TimedRotation}s themselves are created.
+ * <pre>
+ * {"time": 0.0, "rotation": {"radians": 0.0}}
+ * </pre>
+ */
+public class TimedRotationListDeserializer extends StdDeserializer<List<TimedRotation>> {
+    public TimedRotationListDeserializer() {
+        super(List.class);
+    }
+
+    @Override
+    public List<TimedRotation> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        CompactTrajectoryDeserializer.expect(p, ctxt, JsonToken.START_ARRAY, "Expected the rotations of a trajectory");
+        List<TimedRotation> rotations = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            CompactTrajectoryDeserializer.expect(p, ctxt, JsonToken.START_OBJECT, "Expected a timed rotation");
+            double time = 0;
+            double radians = 0;
+            String fieldName;
+            while ((fieldName = p.nextFieldName()) != null) {
+                p.nextToken();
+                if (fieldName.equals("time")) {
+                    time = CompactTrajectoryDeserializer.readDouble(p, ctxt);
+                } else if (fieldName.equals("rotation")) {
+                    radians = CompactTrajectoryDeserializer.readRotation(p, ctxt);
+                } else {
+                    p.skipChildren();
+                }
+            }
+            rotations.add(new TimedRotation(time, new Rotation2d(radians)));
+        }
+        return rotations;
+    }
+}
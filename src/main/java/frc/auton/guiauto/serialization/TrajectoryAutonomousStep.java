@@ -3,11 +3,13 @@ package frc.auton.guiauto.serialization;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import edu.wpi.first.math.trajectory.Trajectory;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import edu.wpi.first.math.trajectory.Trajectory.State;
 import frc.auton.guiauto.serialization.command.CommandExecutionFailedException;
 import frc.auton.guiauto.serialization.command.SendableScript;
 import frc.subsystem.Drive;
+import frc.utility.Clock;
+import frc.utility.CompactTrajectory;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
@@ -15,17 +17,25 @@ import java.util.List;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class TrajectoryAutonomousStep extends AbstractAutonomousStep {
-    private final @NotNull Trajectory trajectory;
+    private final @NotNull CompactTrajectory trajectory;
     private final List<TimedRotation> rotations;
 
+    /**
+     * The states are read straight into the trajectory without creating {@link State}s (see
+     * {@link CompactTrajectoryDeserializer}), which is most of the time and garbage of loading an auto.
+     */
     @JsonCreator
-    public TrajectoryAutonomousStep(@JsonProperty(required = true, value = "states") List<State> states,
-                                    @JsonProperty(required = true, value = "rotations") List<TimedRotation> rotations) {
-        this.trajectory = new Trajectory(states);
+    public TrajectoryAutonomousStep(@JsonProperty(required = true, value = "states")
+                                    @JsonDeserialize(using = CompactTrajectoryDeserializer.class)
+                                    @NotNull CompactTrajectory trajectory,
+                                    @JsonProperty(required = true, value = "rotations")
+                                    @JsonDeserialize(using = TimedRotationListDeserializer.class)
+                                    List<TimedRotation> rotations) {
+        this.trajectory = trajectory;
         this.rotations = rotations;
     }
 
-    public @NotNull Trajectory getTrajectory() {
+    public @NotNull CompactTrajectory getTrajectory() {
         return trajectory;
     }
 
@@ -69,7 +79,7 @@ public class TrajectoryAutonomousStep extends AbstractAutonomousStep {
                 scriptsToExecuteByPercent.get(0).execute();
                 scriptsToExecuteByPercent.remove(0);
             }
-            Thread.sleep(10); // Throws an exception to exit if Interrupted
+            Clock.getInstance().sleep(10); // Throws an exception to exit if Interrupted
         }
         Drive.getInstance().stopMovement();
 
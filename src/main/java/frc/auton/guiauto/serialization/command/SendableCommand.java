@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.wpi.first.wpilibj.DriverStation;
+import frc.utility.Clock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -174,7 +175,7 @@ public class SendableCommand {
                         System.out.println(objArgs[0]);
                         break;
                     case "sleep":
-                        Thread.sleep((long) objArgs[0]);
+                        Clock.getInstance().sleep((long) objArgs[0]);
                         break;
                 }
             }
@@ -14,6 +14,13 @@ public final class Constants {
     //Drive Constants
     public static final int DRIVE_PERIOD = 20;
 
+    /**
+     * Run the odometry on its own thread from the drive encoder positions instead of from the module velocities in RobotTracker's
+     * 20 ms update
+     */
+    public static final boolean HIGH_RATE_ODOMETRY = true;
+    public static final int HIGH_RATE_ODOMETRY_PERIOD = 5; // ms (200 Hz, the fastest the navX updates)
+
     //    public static final int DRIVE_LEFT_FRONT_ID = 10;
     //    public static final int DRIVE_LEFT_BACK_ID = 11;
     //    public static final int DRIVE_RIGHT_FRONT_ID = 12;
@@ -34,6 +41,12 @@ public final class Constants {
     public static final int DRIVE_RIGHT_FRONT_SWERVE_ID = 14;
     public static final int DRIVE_RIGHT_BACK_SWERVE_ID = 16;
 
+    // Added to the angle of each module's absolute encoder (in degrees). Tune with ./gradlew odometrySweep
+    public static final double DRIVE_LEFT_FRONT_ENCODER_OFFSET = 0;
+    public static final double DRIVE_LEFT_BACK_ENCODER_OFFSET = 0;
+    public static final double DRIVE_RIGHT_FRONT_ENCODER_OFFSET = 0;
+    public static final double DRIVE_RIGHT_BACK_ENCODER_OFFSET = -72;
+
     public static final double SWERVE_INCHES_PER_ROTATION = Math.PI;
     public static final double SWERVE_METER_PER_ROTATION = Units.inchesToMeters(SWERVE_INCHES_PER_ROTATION);
     public static final double SWERVE_DRIVE_P = 0.08;
@@ -41,6 +54,10 @@ public final class Constants {
     public static final double SWERVE_DRIVE_I = 0.00;
     public static final double SWERVE_DRIVE_F = 0.00;
 
+    // Commands that change by less than these won't be sent to the Spark MAXes
+    public static final double SWERVE_STEER_REFERENCE_TOLERANCE = 0.25; // degrees
+    public static final double SWERVE_DRIVE_VOLTAGE_TOLERANCE = 0.02; // volts
+
     /**
      * Feed forward constants for the drivetrain.
      * <p>
@@ -7,7 +7,6 @@ package frc.robot;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.networktables.*;
 import edu.wpi.first.wpilibj.TimedRobot;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.auton.TemplateAuto;
@@ -17,13 +16,19 @@ import frc.auton.guiauto.serialization.reflection.ClassInformationSender;
 import frc.subsystem.BlinkinLED;
 import frc.subsystem.Drive;
 import frc.subsystem.RobotTracker;
+import frc.utility.Clock;
 import frc.utility.Controller;
 import frc.utility.ControllerDriveInputs;
 import frc.utility.Limelight;
 import frc.utility.OrangeUtility;
+import frc.utility.controllers.StatusFrameManager;
+import frc.utility.controllers.StatusFrameManager.RobotMode;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
@@ -68,12 +73,18 @@ public class Robot extends TimedRobot {
     private final Drive drive = Drive.getInstance();
     private final BlinkinLED blinkinLED = BlinkinLED.getInstance();
     private final Limelight limelight = Limelight.getInstance();
+    private final StatusFrameManager statusFrameManager = StatusFrameManager.getInstance();
 
     //Inputs
     private final Controller xbox = new Controller(0);
     private final Controller stick = new Controller(1);
     private final Controller buttonPanel = new Controller(2);
 
+    //Recorded so that the robot can be replayed
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int driverStationLogId = dataLogger.register(LogSchemas.INPUT_DRIVER_STATION);
+    private final double[] driverStationLogValues = new double[LogSchemas.INPUT_DRIVER_STATION.getFieldCount()];
+
 
     //Control loop states
     boolean limelightTakeSnapshots;
@@ -134,13 +145,16 @@ public class Robot extends TimedRobot {
     public void robotPeriodic() {
         if (isEnabled()) {
             //Get data from the robot tracker and upload it to the robot tracker (Units must be in meters)
-            xPos.setDouble(robotTracker.getPoseMeters().getX());
-            yPos.setDouble(robotTracker.getPoseMeters().getY());
+            Pose2d pose = robotTracker.getPoseMeters();
+            xPos.setDouble(pose.getX());
+            yPos.setDouble(pose.getY());
         }
 
         //Listen changes in the network auto
         if (autoPath.getString(null) != null && !autoPath.getString(null).equals(lastAutoPath)) {
             lastAutoPath = autoPath.getString(null);
+            dataLogger.writeBlob(Clock.getInstance().getTimestamp(), LogSchemas.INPUT_AUTO_PATH_CHANNEL,
+                    lastAutoPath.getBytes(StandardCharsets.UTF_8));
             deserializerExecutor.execute(() -> { //Start deserializing on another thread
                 System.out.println("start parsing autonomous");
                 //Set networktable entries for the gui notifications
@@ -162,6 +176,12 @@ public class Robot extends TimedRobot {
             limelight.takeSnapshots(limelightTakeSnapshots);
             System.out.println("limelight taking snapshots " + limelightTakeSnapshots);
         }
+
+        // Once per loop, after everything else so that the inputs that were read in this loop are recorded before it
+        driverStationLogValues[LogSchemas.INPUT_DS_ENABLED] = isEnabled() ? 1 : 0;
+        driverStationLogValues[LogSchemas.INPUT_DS_AUTONOMOUS] = isAutonomous() ? 1 : 0;
+        driverStationLogValues[LogSchemas.INPUT_DS_TEST] = isTest() ? 1 : 0;
+        dataLogger.write(driverStationLogId, Clock.getInstance().getTimestamp(), driverStationLogValues);
     }
 
     /**
@@ -174,6 +194,8 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void autonomousInit() {
+        dataLogger.startNewFileIfFull();
+        statusFrameManager.setMode(RobotMode.AUTONOMOUS);
         enabled.setBoolean(true);
         drive.configBrake();
 
@@ -199,6 +221,7 @@ public class Robot extends TimedRobot {
 
         //We then create a new thread to run the auto and run it
         autoThread = new Thread(selectedAuto);
+        Clock.getInstance().registerThread(autoThread);
         autoThread.start();
     }
 
@@ -214,6 +237,8 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void teleopInit() {
+        dataLogger.startNewFileIfFull();
+        statusFrameManager.setMode(RobotMode.TELEOP);
         killAuto();
         enabled.setBoolean(true);
         startSubsystems();
@@ -248,6 +273,7 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void disabledInit() {
+        statusFrameManager.setMode(RobotMode.DISABLED);
         killAuto();
         enabled.setBoolean(false);
     }
@@ -264,6 +290,7 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void testInit() {
+        statusFrameManager.setMode(RobotMode.TEST);
         startSubsystems();
     }
 
@@ -284,15 +311,15 @@ public class Robot extends TimedRobot {
         if (selectedAuto != null) {
             assert autoThread != null;
             autoThread.interrupt();
-            double nextStackTracePrint = Timer.getFPGATimestamp() + 1;
+            double nextStackTracePrint = Clock.getInstance().getTimestamp() + 1;
             while (!(selectedAuto.isFinished() || autoThread.getState() == Thread.State.TERMINATED)) {
-                if (Timer.getFPGATimestamp() > nextStackTracePrint) {
+                if (Clock.getInstance().getTimestamp() > nextStackTracePrint) {
                     Exception throwable = new Exception(
                             "Waiting for auto to die. selectedAuto.isFinished() = " + selectedAuto.isFinished() +
                                     " autoThread.getState() = " + autoThread.getState());
                     throwable.setStackTrace(autoThread.getStackTrace());
                     throwable.printStackTrace();
-                    nextStackTracePrint = Timer.getFPGATimestamp() + 5;
+                    nextStackTracePrint = Clock.getInstance().getTimestamp() + 5;
                 }
 
 
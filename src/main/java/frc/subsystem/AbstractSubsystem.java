@@ -1,28 +1,95 @@
 package frc.subsystem;
 
-import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.utility.LoopTimeHistogram;
+import frc.utility.Clock;
+import frc.utility.Telemetry;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for all subsystems. Subsystems that have a period are run by the shared {@link SubsystemExecutor}.
+ */
 @SuppressWarnings("unused")
-public abstract class AbstractSubsystem implements Runnable {
+public abstract class AbstractSubsystem {
+    /**
+     * The maximum amount of cycles we'll run back to back with {@link OverrunPolicy#CATCH_UP} before we give up and realign to
+     * the current time
+     */
+    private static final int MAX_CATCH_UP_CYCLES = 5;
+
     private final int period;
+    private final long periodNanos;
     private final int loggingInterval;
     private int logInterval;
-    private ThreadSignal signal = ThreadSignal.PAUSED;
+    private volatile ThreadSignal signal = ThreadSignal.PAUSED;
+    private volatile OverrunPolicy overrunPolicy = OverrunPolicy.SKIP;
+    private volatile long overrunCount = 0;
+    private volatile long lastUpdateTimeNanos = 0;
+    private volatile long lastLogDataTimeNanos = 0;
+    private volatile double cycleTimestamp = 0;
+    private volatile double cycleDt = 0;
+    private long lastCycleStartNanos;
+    private final int cycleTimeHandle;
+    private final LoopTimeHistogram updateTimeHistogram = new LoopTimeHistogram();
+    private final LoopTimeHistogram logDataTimeHistogram = new LoopTimeHistogram();
+    private final LoopTimeStatsEntries updateTimeStatsEntries;
+    private final LoopTimeStatsEntries logDataTimeStatsEntries;
+    private final NetworkTableEntry overrunCountEntry;
     public String subsystemName;
 
+    /**
+     * Only accessed by the executor thread. Is true if the executor has seen this subsystem alive and computed its deadline
+     */
+    boolean scheduled = false;
+
+    /**
+     * Only accessed by the executor thread. The {@link Clock#nanoTime()} that the next cycle should start at
+     */
+    long nextDeadline;
+
+    /**
+     * Only accessed by the executor thread. How many cycles in a row have thrown
+     */
+    int consecutiveFailures = 0;
+
     public enum ThreadSignal {
         ALIVE, PAUSED, DEAD
     }
 
     /**
-     * @param period The period when calling update
+     * What to do when an update takes longer than the period and we miss one or more deadlines
+     */
+    public enum OverrunPolicy {
+        /**
+         * Run the missed cycles back to back (without sleeping) until we're back on schedule
+         */
+        CATCH_UP,
+        /**
+         * Drop the missed cycles and wait for the next deadline that is still in the future
+         */
+        SKIP
+    }
+
+    /**
+     * @param period          The period when calling update (in ms). Use -1 if the subsystem doesn't need to be updated
+     * @param loggingInterval How many updates there are between each call to {@link #logData()}
      */
     public AbstractSubsystem(int period, int loggingInterval) {
         this.period = period;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
         this.subsystemName = this.getClass().getSimpleName();
         this.loggingInterval = loggingInterval;
+        this.cycleTimeHandle = Telemetry.getInstance().registerNumber(subsystemName + " Cycle Time");
+
+        NetworkTable loopTimeTable = NetworkTableInstance.getDefault().getTable("LoopTimes").getSubTable(subsystemName);
+        this.updateTimeStatsEntries = new LoopTimeStatsEntries(loopTimeTable.getSubTable("update"));
+        this.logDataTimeStatsEntries = new LoopTimeStatsEntries(loopTimeTable.getSubTable("logData"));
+        this.overrunCountEntry = loopTimeTable.getEntry("overruns");
         if (period != -1) {
-            new Thread(this).start();
+            SubsystemExecutor.getInstance().register(this);
         }
     }
 
@@ -40,42 +107,188 @@ public abstract class AbstractSubsystem implements Runnable {
 
     public void kill() {
         signal = ThreadSignal.DEAD;
+        SubsystemExecutor.getInstance().wakeUp();
     }
 
     public void start() {
-        signal = ThreadSignal.ALIVE;
+        if (signal != ThreadSignal.DEAD) {
+            signal = ThreadSignal.ALIVE;
+            SubsystemExecutor.getInstance().wakeUp();
+        }
+    }
+
+    public ThreadSignal getSignal() {
+        return signal;
+    }
+
+    /**
+     * @param overrunPolicy What the executor should do when {@link #update()} misses its deadline
+     */
+    public void setOverrunPolicy(OverrunPolicy overrunPolicy) {
+        this.overrunPolicy = overrunPolicy;
+    }
+
+    public OverrunPolicy getOverrunPolicy() {
+        return overrunPolicy;
+    }
+
+    /**
+     * @return The number of cycles that finished after their deadline since the subsystem was created
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * @return How long the last call to {@link #update()} took in nanoseconds
+     */
+    public long getLastUpdateTimeNanos() {
+        return lastUpdateTimeNanos;
+    }
+
+    /**
+     * @return How long the last call to {@link #logData()} took in nanoseconds
+     */
+    public long getLastLogDataTimeNanos() {
+        return lastLogDataTimeNanos;
     }
 
     /**
-     * This function will be called repeatedly when the thread is alive. The period will be whatever you defined when creating the
-     * object
+     * @return Histogram of how long each call to {@link #update()} took
+     */
+    public LoopTimeHistogram getUpdateTimeHistogram() {
+        return updateTimeHistogram;
+    }
+
+    /**
+     * @return Histogram of how long each call to {@link #logData()} took
+     */
+    public LoopTimeHistogram getLogDataTimeHistogram() {
+        return logDataTimeHistogram;
+    }
+
+    /**
+     * @return The time (in seconds, in the {@link Clock#getTimestamp()} timebase) that the current
+     * cycle started at. Use this in {@link #update()} instead of reading the clock so that everything in one cycle sees the same
+     * time.
+     */
+    public double getCycleTimestamp() {
+        return cycleTimestamp;
+    }
+
+    /**
+     * @return The time (in seconds) between the start of the previous cycle and the start of the current cycle. This is the period
+     * on the first cycle after the subsystem is started.
+     */
+    public double getCycleDt() {
+        return cycleDt;
+    }
+
+    /**
+     * This function will be called repeatedly when the subsystem is alive. The period will be whatever you defined when creating
+     * the object
      */
     public void update() {
 
     }
 
-    @Override
-    @SuppressWarnings("BusyWait")
-    public void run() {
-        while (signal != ThreadSignal.DEAD) {
-            double startTime = Timer.getFPGATimestamp();
-            if (signal == ThreadSignal.ALIVE) {
-                update();
-                logInterval++;
-                if (logInterval >= loggingInterval) {
-                    logData();
-                    logInterval = 1;
-                }
+    /**
+     * Runs one cycle of the subsystem and computes the deadline of the next one. Deadlines are absolute (start time + n * period)
+     * so the loop won't drift when an update takes a variable amount of time. The deadline is computed even if the update
+     * throws, so a failing subsystem still waits for its next cycle.
+     *
+     * @param clock      The clock that the executor is using
+     * @param startTime  The {@link Clock#nanoTime()} that the executor started this cycle at
+     * @param firstCycle If this is the first cycle since the subsystem was started
+     */
+    void runCycle(Clock clock, long startTime, boolean firstCycle) {
+        cycleDt = firstCycle ? periodNanos * 1.0e-9 : (startTime - lastCycleStartNanos) * 1.0e-9;
+        cycleTimestamp = clock.toTimestamp(startTime);
+        lastCycleStartNanos = startTime;
+
+        try {
+            // Loop times are always measured in real time, even with a virtual clock
+            long updateStartTime = System.nanoTime();
+            update();
+            long updateEndTime = System.nanoTime();
+            lastUpdateTimeNanos = updateEndTime - updateStartTime;
+            updateTimeHistogram.record(lastUpdateTimeNanos);
+
+            logInterval++;
+            if (logInterval >= loggingInterval) {
+                logInterval = 1;
+                logData();
+                lastLogDataTimeNanos = System.nanoTime() - updateEndTime;
+                logDataTimeHistogram.record(lastLogDataTimeNanos);
+                Telemetry.getInstance().putNumber(cycleTimeHandle, (lastUpdateTimeNanos + lastLogDataTimeNanos) / 1.0e6);
             }
-            double executionTimeMS = (Timer.getFPGATimestamp() - startTime) * 1000;
-            try {
-                if (period - executionTimeMS > 0) {
-                    Thread.sleep((long) (period - executionTimeMS));
-                }
-            } catch (Exception e) {
-                System.out.println("Thread sleep failing " + subsystemName + " message: " + e.getMessage());
+        } finally {
+            scheduleNextCycle(clock);
+        }
+    }
+
+    private void scheduleNextCycle(Clock clock) {
+        nextDeadline += periodNanos;
+        long now = clock.nanoTime();
+        if (now - nextDeadline > 0) {
+            overrunCount++;
+            long missedCycles = (now - nextDeadline) / periodNanos + 1;
+            if (overrunPolicy == OverrunPolicy.SKIP || missedCycles > MAX_CATCH_UP_CYCLES) {
+                // Realign to the next deadline that's still in the future
+                nextDeadline += missedCycles * periodNanos;
             }
+            // CATCH_UP: The deadline has already passed so the executor will run us again right away
+        }
+    }
+
+    /**
+     * Only called by the executor thread. Delays the next cycle after {@link #update()} or {@link #logData()} threw, so that a
+     * subsystem that keeps failing doesn't take the executor's time away from the others.
+     *
+     * @param delayNanos How long from now the next cycle should be at the earliest
+     */
+    void delayNextCycle(Clock clock, long delayNanos) {
+        long earliestDeadline = clock.nanoTime() + delayNanos;
+        if (earliestDeadline - nextDeadline > 0) {
+            nextDeadline = earliestDeadline;
+        }
+    }
+
+    long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Publishes the loop time percentiles to NetworkTables under LoopTimes/[subsystem name]. This is called on a slow cadence by
+     * the {@link SubsystemExecutor} from its own thread.
+     */
+    void publishLoopTimeStats() {
+        updateTimeStatsEntries.publish(updateTimeHistogram);
+        logDataTimeStatsEntries.publish(logDataTimeHistogram);
+        overrunCountEntry.setDouble(overrunCount);
+    }
+
+    private static final class LoopTimeStatsEntries {
+        private final NetworkTableEntry p50;
+        private final NetworkTableEntry p99;
+        private final NetworkTableEntry p999;
+        private final NetworkTableEntry max;
+        private final NetworkTableEntry count;
+
+        LoopTimeStatsEntries(NetworkTable table) {
+            p50 = table.getEntry("p50");
+            p99 = table.getEntry("p99");
+            p999 = table.getEntry("p99.9");
+            max = table.getEntry("max");
+            count = table.getEntry("count");
+        }
 
+        void publish(LoopTimeHistogram histogram) {
+            p50.setDouble(histogram.getPercentileMs(0.5));
+            p99.setDouble(histogram.getPercentileMs(0.99));
+            p999.setDouble(histogram.getPercentileMs(0.999));
+            max.setDouble(histogram.getMaxMs());
+            count.setDouble(histogram.getCount());
         }
     }
-}
\ No newline at end of file
+}
@@ -2,35 +2,35 @@
 
 package frc.subsystem;
 
-import com.kauailabs.navx.frc.AHRS;
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.SparkMaxAnalogSensor;
-import com.revrobotics.SparkMaxPIDController;
-import edu.wpi.first.math.controller.HolonomicDriveController;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.trajectory.Trajectory;
-import edu.wpi.first.math.trajectory.TrapezoidProfile;
-import edu.wpi.first.wpilibj.DigitalInput;
-import edu.wpi.first.wpilibj.DutyCycle;
-import edu.wpi.first.wpilibj.SPI;
-import edu.wpi.first.wpilibj.Timer;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.RobotBase;
 import frc.robot.Constants;
+import frc.subsystem.io.DriveIOFactory;
+import frc.subsystem.io.GyroIO;
+import frc.subsystem.io.NavXGyroIO;
+import frc.subsystem.io.SimGyroIO;
+import frc.subsystem.io.SimSwerveModuleIO;
+import frc.subsystem.io.SparkMaxSwerveModuleIO;
+import frc.subsystem.io.SwerveModuleIO;
+import frc.utility.Clock;
+import frc.utility.CompactTrajectory;
 import frc.utility.ControllerDriveInputs;
-import frc.utility.controllers.LazyCANSparkMax;
+import frc.utility.LatestValueMailbox;
+import frc.utility.SwerveKinematics;
+import frc.utility.SwervePathFollower;
+import frc.utility.Telemetry;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 public final class Drive extends AbstractSubsystem {
@@ -45,117 +45,103 @@ public final class Drive extends AbstractSubsystem {
         return instance;
     }
 
-    private final AHRS gyroSensor;
     private final PIDController turnPID;
-    private DriveState driveState;
-    private Rotation2d wantedHeading = new Rotation2d();
-    boolean rotateAuto = false;
+    /**
+     * What the drive is currently doing. Changed with compare and set so that readers and writers never block each other.
+     */
+    private final AtomicReference<DriveCommand> command = new AtomicReference<>(
+            new DriveCommand(DriveState.TELEOP, null, 0, 0, new Rotation2d(), new Rotation2d()));
+    volatile boolean rotateAuto = false;
 
-    private boolean isAiming = false;
+    private volatile boolean isAiming = false;
 
-    private double turnTarget = 0;
+    private volatile double turnTarget = 0;
 
     private final SwerveDriveKinematics swerveKinematics = new SwerveDriveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
             Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
-    /**
-     * Motors that turn the wheels around
-     */
-    private final LazyCANSparkMax[] swerveMotors = new LazyCANSparkMax[4];
 
     /**
-     * Motors that are driving the robot around and causing it to move
+     * Allocation free kinematics. Only use this from the drive loop.
      */
-    private final LazyCANSparkMax[] swerveDriveMotors = new LazyCANSparkMax[4];
-
-    /**
-     * Encoders for the motors that turn the wheel (NOT ABSOLUTE)
-     */
-    private final RelativeEncoder[] swerveEncoders = new RelativeEncoder[4];
+    private final SwerveKinematics fastSwerveKinematics = new SwerveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
 
     /**
-     * Absolute Encoders for the motors that turn the wheel
+     * Chassis speeds (vx, vy, omega) computed from the sensors in the drive loop
      */
-    private final DutyCycle[] swerveEncodersDIO = new DutyCycle[4];
-
+    private final double[] measuredChassisSpeeds = new double[3];
+    private final SwerveModuleIO[] modules = new SwerveModuleIO[4];
+    private final GyroIO gyro;
+
+    // Telemetry handles. These are registered once so that the control loop doesn't need to build any strings.
+    private final Telemetry telemetry = Telemetry.getInstance();
+    private final int gyroPidInHandle = telemetry.registerNumber("gyro pid in");
+    private final int pidDeltaSpeedHandle = telemetry.registerNumber("pid Delta Speed");
+    private final int wantedHeadingHandle = telemetry.registerNumber("wanted heading");
+    private final int turnPidErrorHandle = telemetry.registerNumber("turn pid error");
+    private final int driveCommandXVelocityHandle = telemetry.registerNumber("Drive Command X Velocity");
+    private final int driveCommandYVelocityHandle = telemetry.registerNumber("Drive Command Y Velocity");
+    private final int driveCommandRotationHandle = telemetry.registerNumber("Drive Command Rotation");
+    private final int[] speedModifierHandles = telemetry.registerNumbers("Swerve Motor ", " Speed Modifier", 4);
+    private final int[] targetPositionHandles = telemetry.registerNumbers("Swerve Motor ", " Target Position", 4);
+    private final int[] errorHandles = telemetry.registerNumbers("Swerve Motor ", " Error", 4);
+    private final int[] outVoltsHandles = telemetry.registerNumbers("Out Volts ", "", 4);
+    private final int turnErrorHandle = telemetry.registerNumber("Turn Error");
+    private final int turnActualSpeedHandle = telemetry.registerNumber("Turn Actual Speed");
+    private final int turnPidCommandHandle = telemetry.registerNumber("Turn PID Command");
+    private final int turnSpeedCommandHandle = telemetry.registerNumber("Turn Speed Command");
+    private final int turnMinSpeedHandle = telemetry.registerNumber("Turn Min Speed");
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int driveLogId = dataLogger.register(LogSchemas.DRIVE);
+    private final int turnLogId = dataLogger.register(LogSchemas.DRIVE_TURN);
     /**
-     * PID Controllers for the swerve Drive
+     * Only accessed by the drive loop. Filled during the cycle and written to the log at the end of it
      */
-    private final SparkMaxPIDController[] swervePID = new SparkMaxPIDController[4];
+    private final double[] driveLogValues = new double[LogSchemas.DRIVE.getFieldCount()];
+    private final double[] turnLogValues = new double[LogSchemas.DRIVE_TURN.getFieldCount()];
+    private final int inputLogId = dataLogger.register(LogSchemas.INPUT_DRIVE);
+    private final double[] inputLogValues = new double[LogSchemas.INPUT_DRIVE.getFieldCount()];
+
+    private final int[] relativePositionHandles = telemetry.registerNumbers("Swerve Motor ", " Relative Position", 4);
+    private final int[] absolutePositionHandles = telemetry.registerNumbers("Swerve Motor ", " Absolute Position", 4);
+    private final int[] driveVelocityHandles = telemetry.registerNumbers("Drive Motor ", " Velocity", 4);
+    private final int[] driveCurrentHandles = telemetry.registerNumbers("Drive Motor ", " Current", 4);
+    private final int[] swerveCurrentHandles = telemetry.registerNumbers("Swerve Motor ", " Current", 4);
+    private final int[] swerveFramesSentHandles = telemetry.registerNumbers("Swerve Motor ", " Frames Sent", 4);
+    private final int[] swerveFramesSuppressedHandles = telemetry.registerNumbers("Swerve Motor ", " Frames Suppressed", 4);
+    private final int[] driveFramesSentHandles = telemetry.registerNumbers("Drive Motor ", " Frames Sent", 4);
+    private final int[] driveFramesSuppressedHandles = telemetry.registerNumbers("Drive Motor ", " Frames Suppressed", 4);
+    private final int computedXVelocityHandle = telemetry.registerNumber("Computed Robot X Velocity");
+    private final int computedYVelocityHandle = telemetry.registerNumber("Computed Robot Y Velocity");
+    private final int computedRotationHandle = telemetry.registerNumber("Computed Robot Rotation");
 
 
     private Drive() {
         super(Constants.DRIVE_PERIOD);
-        gyroSensor = new AHRS(SPI.Port.kMXP);
-
-        final LazyCANSparkMax leftFrontSpark, leftBackSpark, rightFrontSpark, rightBackSpark;
-        final DutyCycle leftFrontSparkPwmEncoder, leftBackSparkPwmEncoder, rightFrontSparkPwmEncoder, rightBackSparkPwmEncoder;
-        final LazyCANSparkMax leftFrontSparkSwerve, leftBackSparkSwerve, rightFrontSparkSwerve, rightBackSparkSwerve;
-        // Swerve Drive Motors
-        leftFrontSpark = new LazyCANSparkMax(Constants.DRIVE_LEFT_FRONT_ID, MotorType.kBrushless);
-        leftBackSpark = new LazyCANSparkMax(Constants.DRIVE_LEFT_BACK_ID, MotorType.kBrushless);
-        rightFrontSpark = new LazyCANSparkMax(Constants.DRIVE_RIGHT_FRONT_ID, MotorType.kBrushless);
-        rightBackSpark = new LazyCANSparkMax(Constants.DRIVE_RIGHT_BACK_ID, MotorType.kBrushless);
-
-        leftFrontSpark.setInverted(false);
-        rightFrontSpark.setInverted(false);
-        leftBackSpark.setInverted(false);
-        rightBackSpark.setInverted(false);
-
-        leftFrontSparkSwerve = new LazyCANSparkMax(Constants.DRIVE_LEFT_FRONT_SWERVE_ID, MotorType.kBrushless);
-        leftBackSparkSwerve = new LazyCANSparkMax(Constants.DRIVE_LEFT_BACK_SWERVE_ID, MotorType.kBrushless);
-        rightFrontSparkSwerve = new LazyCANSparkMax(Constants.DRIVE_RIGHT_FRONT_SWERVE_ID, MotorType.kBrushless);
-        rightBackSparkSwerve = new LazyCANSparkMax(Constants.DRIVE_RIGHT_BACK_SWERVE_ID, MotorType.kBrushless);
-
-        leftFrontSparkPwmEncoder = new DutyCycle(new DigitalInput(1));
-        leftBackSparkPwmEncoder = new DutyCycle(new DigitalInput(3));
-        rightFrontSparkPwmEncoder = new DutyCycle(new DigitalInput(0));
-        rightBackSparkPwmEncoder = new DutyCycle(new DigitalInput(2));
-
-        swerveMotors[0] = leftFrontSparkSwerve;
-        swerveMotors[1] = leftBackSparkSwerve;
-        swerveMotors[2] = rightFrontSparkSwerve;
-        swerveMotors[3] = rightBackSparkSwerve;
-
-        swerveDriveMotors[0] = leftFrontSpark;
-        swerveDriveMotors[1] = leftBackSpark;
-        swerveDriveMotors[2] = rightFrontSpark;
-        swerveDriveMotors[3] = rightBackSpark;
-
-        swerveEncodersDIO[0] = leftFrontSparkPwmEncoder;
-        swerveEncodersDIO[1] = leftBackSparkPwmEncoder;
-        swerveEncodersDIO[2] = rightFrontSparkPwmEncoder;
-        swerveEncodersDIO[3] = rightBackSparkPwmEncoder;
-
-        for (int i = 0; i < 4; i++) {
-            swerveEncoders[i] = swerveMotors[i].getEncoder();
-            swerveEncoders[i].setPositionConversionFactor(8.1503);// 8.1466);
-            swerveDriveMotors[i].getEncoder().setPositionConversionFactor(1);
-            swerveDriveMotors[i].getEncoder().setVelocityConversionFactor(1);
-
-            swerveMotors[i].getAnalog(SparkMaxAnalogSensor.Mode.kAbsolute).setPositionConversionFactor(360 / 3.3);//105.88);
-
-            swervePID[i] = swerveMotors[i].getPIDController();
-            swervePID[i].setP(Constants.SWERVE_DRIVE_P);
-            swervePID[i].setD(Constants.SWERVE_DRIVE_D);
-            swervePID[i].setI(Constants.SWERVE_DRIVE_I);
-            swervePID[i].setFF(Constants.SWERVE_DRIVE_F);
-
-
-            //Get data faster from the sparks
-            swerveMotors[i].setPeriodicFramePeriod(PeriodicFrame.kStatus2, 50);
-            swerveDriveMotors[i].setPeriodicFramePeriod(PeriodicFrame.kStatus2, 100);
-
-            swerveMotors[i].setSmartCurrentLimit(15);
-            swerveDriveMotors[i].setSmartCurrentLimit(30);
-
-            swerveDriveMotors[i].setIdleMode(IdleMode.kBrake);
-            swerveMotors[i].setIdleMode(IdleMode.kBrake);
-            swerveDriveMotors[i].burnFlash();
-            swerveMotors[i].burnFlash();
+        DriveIOFactory ioFactory = DriveIOFactory.getInstance();
+        if (ioFactory != null) {
+            System.arraycopy(ioFactory.createModules(), 0, modules, 0, 4);
+            gyro = ioFactory.createGyro(modules);
+        } else if (RobotBase.isReal()) {
+            modules[0] = new SparkMaxSwerveModuleIO(Constants.DRIVE_LEFT_FRONT_ID, Constants.DRIVE_LEFT_FRONT_SWERVE_ID, 1,
+                    Constants.DRIVE_LEFT_FRONT_ENCODER_OFFSET);
+            modules[1] = new SparkMaxSwerveModuleIO(Constants.DRIVE_LEFT_BACK_ID, Constants.DRIVE_LEFT_BACK_SWERVE_ID, 3,
+                    Constants.DRIVE_LEFT_BACK_ENCODER_OFFSET);
+            modules[2] = new SparkMaxSwerveModuleIO(Constants.DRIVE_RIGHT_FRONT_ID, Constants.DRIVE_RIGHT_FRONT_SWERVE_ID, 0,
+                    Constants.DRIVE_RIGHT_FRONT_ENCODER_OFFSET);
+            modules[3] = new SparkMaxSwerveModuleIO(Constants.DRIVE_RIGHT_BACK_ID, Constants.DRIVE_RIGHT_BACK_SWERVE_ID, 2,
+                    Constants.DRIVE_RIGHT_BACK_ENCODER_OFFSET);
+            gyro = Constants.HIGH_RATE_ODOMETRY ? new NavXGyroIO(1000 / Constants.HIGH_RATE_ODOMETRY_PERIOD) : new NavXGyroIO();
+        } else {
+            for (int i = 0; i < 4; i++) {
+                modules[i] = new SimSwerveModuleIO(i);
+            }
+            gyro = new SimGyroIO(modules, Constants.SWERVE_LEFT_FRONT_LOCATION, Constants.SWERVE_LEFT_BACK_LOCATION,
+                    Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
         }
 
         configMotors();
-        driveState = DriveState.TELEOP;
+        sensorSnapshot = readSensors(Clock.getInstance().getTimestamp());
 
         turnPID = new PIDController(0.02, 0.01, 0.00, 0.02); //P=1.0 OR 0.8
         turnPID.disableContinuousInput();
@@ -167,8 +153,12 @@ public final class Drive extends AbstractSubsystem {
         return swerveKinematics;
     }
 
-    public synchronized void setDriveState(DriveState driveState) {
-        this.driveState = driveState;
+    public void setDriveState(DriveState driveState) {
+        command.updateAndGet(c -> c.withDriveState(driveState));
+    }
+
+    public DriveState getDriveState() {
+        return command.get().driveState;
     }
 
     public void configBrake() {
@@ -183,19 +173,69 @@ public final class Drive extends AbstractSubsystem {
 
     }
 
-    synchronized public void setTeleop() {
-        driveState = DriveState.TELEOP;
+    public void setTeleop() {
+        setDriveState(DriveState.TELEOP);
     }
 
-    synchronized public SwerveModuleState[] getSwerveModuleStates() {
-        SwerveModuleState[] swerveModuleState = new SwerveModuleState[4];
+    private volatile @NotNull DriveSensorSnapshot sensorSnapshot;
+
+    /**
+     * Reads every drive sensor once. This should only be called once per cycle (at the start of {@link #update()}).
+     */
+    private @NotNull DriveSensorSnapshot readSensors(double timestamp) {
+        for (SwerveModuleIO module : modules) {
+            module.periodic(timestamp);
+        }
+        gyro.periodic(timestamp);
+
+        double[] driveVelocities = new double[4];
+        double[] steerAngles = new double[4];
+        double[] steerRelativePositions = new double[4];
+        double[] driveCurrents = new double[4];
+        double[] steerCurrents = new double[4];
         for (int i = 0; i < 4; i++) {
-            SwerveModuleState moduleState = new SwerveModuleState(
-                    (swerveDriveMotors[i].getEncoder().getVelocity() / 60d) * Constants.SWERVE_METER_PER_ROTATION,
-                    Rotation2d.fromDegrees(getAbsolutePosition(i)));
-            swerveModuleState[i] = moduleState;
+            driveVelocities[i] = modules[i].getDriveVelocity();
+            steerAngles[i] = modules[i].getSteerAngle();
+            steerRelativePositions[i] = modules[i].getSteerRelativePosition();
+            driveCurrents[i] = modules[i].getDriveCurrent();
+            steerCurrents[i] = modules[i].getSteerCurrent();
+
+            // Recorded so that the drive can be replayed
+            inputLogValues[LogSchemas.INPUT_DRIVE_VELOCITY + i] = driveVelocities[i];
+            inputLogValues[LogSchemas.INPUT_DRIVE_POSITION + i] = modules[i].getDrivePosition();
+            inputLogValues[LogSchemas.INPUT_DRIVE_CURRENT + i] = driveCurrents[i];
+            inputLogValues[LogSchemas.INPUT_STEER_ANGLE + i] = steerAngles[i];
+            inputLogValues[LogSchemas.INPUT_STEER_RELATIVE_POSITION + i] = steerRelativePositions[i];
+            inputLogValues[LogSchemas.INPUT_STEER_CURRENT + i] = steerCurrents[i];
         }
-        return swerveModuleState;
+        double gyroAngle = gyro.getAngle();
+        inputLogValues[LogSchemas.INPUT_DRIVE_GYRO_ANGLE] = gyroAngle;
+        dataLogger.write(inputLogId, timestamp, inputLogValues);
+
+        return new DriveSensorSnapshot(timestamp, driveVelocities, steerAngles, steerRelativePositions,
+                driveCurrents, steerCurrents, gyroAngle);
+    }
+
+    /**
+     * Only the sensor getters of the modules may be used outside the drive loop
+     */
+    SwerveModuleIO @NotNull [] getModuleIOs() {
+        return modules;
+    }
+
+    @NotNull GyroIO getGyroIO() {
+        return gyro;
+    }
+
+    /**
+     * @return The sensor readings from the start of the latest drive cycle
+     */
+    public @NotNull DriveSensorSnapshot getSensorSnapshot() {
+        return sensorSnapshot;
+    }
+
+    public SwerveModuleState[] getSwerveModuleStates() {
+        return sensorSnapshot.getSwerveModuleStates();
     }
 
     /**
@@ -204,21 +244,29 @@ public final class Drive extends AbstractSubsystem {
      * @return The current state of the robot as chassis speeds
      */
     public ChassisSpeeds getRobotState() {
-        return swerveKinematics.toChassisSpeeds(getSwerveModuleStates());
+        return swerveKinematics.toChassisSpeeds(sensorSnapshot.getSwerveModuleStates());
+    }
+
+    /**
+     * Computes the chassis speeds from the sensor snapshot without allocating. The result is written to
+     * {@link #measuredChassisSpeeds}
+     */
+    private void updateMeasuredChassisSpeeds(@NotNull DriveSensorSnapshot snapshot) {
+        fastSwerveKinematics.toChassisSpeeds(snapshot.getDriveVelocities(), snapshot.getSteerAngles(), measuredChassisSpeeds);
     }
 
     public void calibrateGyro() {
-        gyroSensor.calibrate();
+        gyro.calibrate();
     }
 
 
     public void startHold() {
         //TODO
-        driveState = DriveState.HOLD;
+        setDriveState(DriveState.HOLD);
     }
 
     public void endHold() {
-        driveState = DriveState.TELEOP;
+        setDriveState(DriveState.TELEOP);
     }
 
 
@@ -227,44 +275,119 @@ public final class Drive extends AbstractSubsystem {
 
     }
 
-    public void swerveDrive(ControllerDriveInputs inputs) {
-        synchronized (this) {
-            driveState = DriveState.TELEOP;
+    /**
+     * A request to drive the robot that is sent from another thread (ex. teleop or auto) to the drive loop.
+     */
+    private static final class DriveRequest {
+        enum Type {
+            ROBOT_RELATIVE, FIELD_RELATIVE, STOP
         }
 
-        ChassisSpeeds chassisSpeeds = new ChassisSpeeds(Constants.DRIVE_HIGH_SPEED_M * inputs.getX(),
-                Constants.DRIVE_HIGH_SPEED_M * inputs.getY(),
-                inputs.getRotation() * 2);
-        swerveDrive(chassisSpeeds);
+        final @NotNull Type type;
+        final double x, y, rotation;
+        final double timestamp;
+
+        DriveRequest(@NotNull Type type, double x, double y, double rotation) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.rotation = rotation;
+            this.timestamp = Clock.getInstance().getTimestamp();
+        }
     }
 
+    /**
+     * If we don't get a new teleop request for this long (in seconds) we stop the robot
+     */
+    private static final double DRIVE_REQUEST_TIMEOUT = 0.1;
+
+    /**
+     * Drive requests from other threads. Only the drive loop actuates the motors.
+     */
+    private final LatestValueMailbox<DriveRequest> driveRequestMailbox = new LatestValueMailbox<>();
+
+    /**
+     * Only accessed by the drive loop. The last teleop request that was received
+     */
+    private @Nullable DriveRequest lastDriveRequest;
+
+    /**
+     * Drives the robot relative to itself. The request will be applied by the drive loop on its next cycle.
+     */
+    public void swerveDrive(ControllerDriveInputs inputs) {
+        driveRequestMailbox.post(new DriveRequest(DriveRequest.Type.ROBOT_RELATIVE, inputs.getX(), inputs.getY(),
+                inputs.getRotation()));
+    }
+
+    /**
+     * Drives the robot relative to the field. The request will be applied by the drive loop on its next cycle.
+     */
     public void swerveDriveFieldRelative(ControllerDriveInputs inputs) {
-        synchronized (this) {
-            driveState = DriveState.TELEOP;
+        driveRequestMailbox.post(new DriveRequest(DriveRequest.Type.FIELD_RELATIVE, inputs.getX(), inputs.getY(),
+                inputs.getRotation()));
+    }
+
+    /**
+     * Takes the latest request from the mailbox and applies it. Should only be called from the drive loop.
+     */
+    private void processDriveRequests() {
+        DriveRequest request = driveRequestMailbox.take();
+        if (request != null) {
+            if (request.type == DriveRequest.Type.STOP) {
+                lastDriveRequest = null;
+                swerveDrive(0, 0, 0);
+                return;
+            }
+
+            setDriveState(DriveState.TELEOP);
+            lastDriveRequest = request;
+        } else if (lastDriveRequest == null || getDriveState() != DriveState.TELEOP) {
+            return;
+        } else if (sensorSnapshot.getTimestamp() - lastDriveRequest.timestamp > DRIVE_REQUEST_TIMEOUT) {
+            // We stopped getting requests (ex. the teleop thread is stuck). Stop the robot.
+            lastDriveRequest = null;
+            swerveDrive(0, 0, 0);
+            return;
+        }
+
+        switch (lastDriveRequest.type) {
+            case ROBOT_RELATIVE:
+                swerveDrive(Constants.DRIVE_HIGH_SPEED_M * lastDriveRequest.x,
+                        Constants.DRIVE_HIGH_SPEED_M * lastDriveRequest.y,
+                        lastDriveRequest.rotation * 2);
+                break;
+            case FIELD_RELATIVE:
+                applyFieldRelative(lastDriveRequest.x, lastDriveRequest.y, lastDriveRequest.rotation);
+                break;
         }
+    }
+
+    private void applyFieldRelative(double x, double y, double rotation) {
         double turnSpeed = 0;
-        if (Math.abs(inputs.getRotation()) < 0.01) {
+        if (Math.abs(rotation) < 0.01) {
             double error = turnTarget + getAngle();
             turnPID.setSetpoint(0);
             if (Math.abs(error) > 2) turnSpeed = turnPID.calculate(error);
 
-            SmartDashboard.putNumber("gyro pid in", getGyroAngle().getDegrees() % 360);
-            SmartDashboard.putNumber("pid Delta Speed", turnSpeed);
-            SmartDashboard.putNumber("wanted heading", wantedHeading.getDegrees());
-            SmartDashboard.putNumber("turn pid error", error);
+            telemetry.putNumber(gyroPidInHandle, getGyroAngle().getDegrees() % 360);
+            telemetry.putNumber(pidDeltaSpeedHandle, turnSpeed);
+            telemetry.putNumber(wantedHeadingHandle, command.get().wantedHeading.getDegrees());
+            telemetry.putNumber(turnPidErrorHandle, error);
             turnSpeed = 0;
         } else {
-            turnSpeed = inputs.getRotation() * 6;
+            turnSpeed = rotation * 6;
             turnTarget = getAngle();
         }
 
 
-        ChassisSpeeds chassisSpeeds = ChassisSpeeds.fromFieldRelativeSpeeds(Constants.DRIVE_HIGH_SPEED_M * inputs.getX(),
-                Constants.DRIVE_HIGH_SPEED_M * inputs.getY(),
-                turnSpeed,
-                Rotation2d.fromDegrees(getAngle()));
+        // Same as ChassisSpeeds.fromFieldRelativeSpeeds() without the allocations
+        double robotAngle = Math.toRadians(getAngle());
+        double cos = Math.cos(robotAngle);
+        double sin = Math.sin(robotAngle);
+        double vx = Constants.DRIVE_HIGH_SPEED_M * x;
+        double vy = Constants.DRIVE_HIGH_SPEED_M * y;
 
-        swerveDrive(chassisSpeeds);
+        swerveDrive(vx * cos + vy * sin, -vx * sin + vy * cos, turnSpeed);
     }
 
     double doubleMod(double x, double y) {
@@ -272,38 +395,66 @@ public final class Drive extends AbstractSubsystem {
         return (x - Math.floor(x / y) * y);
     }
 
-    private void swerveDrive(ChassisSpeeds chassisSpeeds) {
-        SmartDashboard.putNumber("Drive Command X Velocity", chassisSpeeds.vxMetersPerSecond);
-        SmartDashboard.putNumber("Drive Command Y Velocity", chassisSpeeds.vyMetersPerSecond);
-        SmartDashboard.putNumber("Drive Command Rotation", chassisSpeeds.omegaRadiansPerSecond);
+    /**
+     * The chassis speeds to drive at this cycle. Only accessed by the drive loop.
+     */
+    private final double[] wantedChassisSpeeds = new double[3];
+    private boolean hasWantedChassisSpeeds = false;
 
-        SwerveModuleState[] moduleStates = swerveKinematics.toSwerveModuleStates(chassisSpeeds);
-        boolean rotate = chassisSpeeds.vxMetersPerSecond != 0 || chassisSpeeds.vyMetersPerSecond != 0 || chassisSpeeds.omegaRadiansPerSecond != 0;
+    /**
+     * Sets the speeds to drive at this cycle. If this is called more than once in a cycle (ex. a stop request and then the
+     * path), only the last call is sent to the motors by {@link #applyChassisSpeeds()}.
+     */
+    private void swerveDrive(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+        wantedChassisSpeeds[0] = vxMetersPerSecond;
+        wantedChassisSpeeds[1] = vyMetersPerSecond;
+        wantedChassisSpeeds[2] = omegaRadiansPerSecond;
+        hasWantedChassisSpeeds = true;
+    }
+
+    private void applyChassisSpeeds() {
+        if (!hasWantedChassisSpeeds) {
+            return;
+        }
+        hasWantedChassisSpeeds = false;
+        double vxMetersPerSecond = wantedChassisSpeeds[0];
+        double vyMetersPerSecond = wantedChassisSpeeds[1];
+        double omegaRadiansPerSecond = wantedChassisSpeeds[2];
 
-        SwerveDriveKinematics.desaturateWheelSpeeds(moduleStates, Constants.DRIVE_HIGH_SPEED_M);
+        DriveSensorSnapshot snapshot = sensorSnapshot;
+        telemetry.putNumber(driveCommandXVelocityHandle, vxMetersPerSecond);
+        telemetry.putNumber(driveCommandYVelocityHandle, vyMetersPerSecond);
+        telemetry.putNumber(driveCommandRotationHandle, omegaRadiansPerSecond);
+        driveLogValues[LogSchemas.DRIVE_COMMAND_X_VELOCITY] = vxMetersPerSecond;
+        driveLogValues[LogSchemas.DRIVE_COMMAND_Y_VELOCITY] = vyMetersPerSecond;
+        driveLogValues[LogSchemas.DRIVE_COMMAND_ROTATION] = omegaRadiansPerSecond;
+
+        fastSwerveKinematics.toSwerveModuleStates(vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
+        boolean rotate = vxMetersPerSecond != 0 || vyMetersPerSecond != 0 || omegaRadiansPerSecond != 0;
+
+        fastSwerveKinematics.desaturateWheelSpeeds(Constants.DRIVE_HIGH_SPEED_M);
 
         for (int i = 0; i < 4; i++) {
             //            SwerveModuleState targetState = SwerveModuleState.optimize(moduleStates[i],
             //                    Rotation2d.fromDegrees(getAbsolutePosition(i)));
-            SwerveModuleState targetState = moduleStates[i];
-            double targetAngle = targetState.angle.getDegrees();
-            double currentAngle = getAbsolutePosition(i); //swerveEncoders[i].getPosition();
+            double targetAngle = fastSwerveKinematics.getModuleAngleDegrees(i);
+            double currentAngle = snapshot.getSteerAngle(i);
 
             double angleDiff = doubleMod((targetAngle - currentAngle) + 180, 360) - 180;
 
             if (Math.abs(angleDiff) < 5 || !rotate) {
-                swerveMotors[i].set(0);
+                modules[i].stopSteer();
             } else {
-                swervePID[i].setReference(swerveEncoders[i].getPosition() + angleDiff, CANSparkMax.ControlType.kPosition);
+                modules[i].setSteerPosition(snapshot.getSteerRelativePosition(i) + angleDiff);
             }
 
             double speedModifier = 1; //= 1 - (OrangeUtility.coercedNormalize(Math.abs(angleDiff), 5, 180, 0, 180) / 180);
 
-            setMotorSpeed(i, targetState.speedMetersPerSecond * speedModifier);
+            setMotorSpeed(i, fastSwerveKinematics.getModuleSpeed(i) * speedModifier);
 
-            SmartDashboard.putNumber("Swerve Motor " + i + " Speed Modifier", speedModifier);
-            SmartDashboard.putNumber("Swerve Motor " + i + " Target Position", swerveEncoders[i].getPosition() + angleDiff);
-            SmartDashboard.putNumber("Swerve Motor " + i + " Error", angleDiff);
+            telemetry.putNumber(speedModifierHandles[i], speedModifier);
+            telemetry.putNumber(targetPositionHandles[i], snapshot.getSteerRelativePosition(i) + angleDiff);
+            telemetry.putNumber(errorHandles[i], angleDiff);
         }
     }
 
@@ -313,14 +464,15 @@ public final class Drive extends AbstractSubsystem {
 
 
     public void setMotorSpeed(int module, double velocity) {
-        double acceleration = Timer.getFPGATimestamp() - lastMotorSetTimes[module] > 0.1 ? 0 :
-                (velocity - lastMotorSpeeds[module]) / (Timer.getFPGATimestamp() - lastMotorSetTimes[module]);
+        double now = getCycleTimestamp();
+        double dt = now - lastMotorSetTimes[module];
+        // No acceleration if the last command is too old or from this same cycle (which would divide by 0)
+        double acceleration = dt > 0.1 || dt <= 0 ? 0 : (velocity - lastMotorSpeeds[module]) / dt;
         double ffv = Constants.DRIVE_FEEDFORWARD[module].calculate(velocity, acceleration);
-        swerveDriveMotors[module].setVoltage(ffv);
-        SmartDashboard.putNumber("Out Volts " + module, ffv);
+        modules[module].setDriveVoltage(ffv);
+        telemetry.putNumber(outVoltsHandles[module], ffv);
         lastMotorSpeeds[module] = velocity;
-        lastMotorSetTimes[module] = Timer.getFPGATimestamp();
-        //swerveDriveMotors[module].setVoltage(10 * velocity/Constants.SWERVE_METER_PER_ROTATION);
+        lastMotorSetTimes[module] = now;
     }
 
     private void configMotors() {
@@ -331,10 +483,10 @@ public final class Drive extends AbstractSubsystem {
     /**
      * You probably want to get the angle from {@link RobotTracker#getPoseMeters()}
      *
-     * @return the current angle of the robot in degrees
+     * @return the angle of the robot in degrees at the start of the latest drive cycle
      */
     public double getAngle() {
-        return -gyroSensor.getAngle();
+        return sensorSnapshot.getAngle();
     }
 
     /**
@@ -367,90 +519,98 @@ public final class Drive extends AbstractSubsystem {
         return Math.pow(robotState.vxMetersPerSecond, 2) + Math.pow(robotState.vyMetersPerSecond, 2);
     }
 
-    double autoStartTime;
-    private final ProfiledPIDController autoTurnPIDController = new ProfiledPIDController(8, 0, 0.01,
-            new TrapezoidProfile.Constraints(4, 4));
+    /**
+     * Only accessed by the drive loop. Follows the auto path without allocating.
+     */
+    private final SwervePathFollower swerveAutoController = new SwervePathFollower(1.5, 1.5, 8, 0, 0.01, 4, 4, 0.02);
 
     {
-        autoTurnPIDController.enableContinuousInput(-Math.PI, Math.PI);
-        autoTurnPIDController.setTolerance(Math.toRadians(10));
+        swerveAutoController.setTolerance(0.5, 0.5, Math.toRadians(10)); //TODO: Tune
     }
 
-    HolonomicDriveController swerveAutoController = new HolonomicDriveController(
-            new PIDController(1.5, 0, 0),
-            new PIDController(1.5, 0, 0),
-            autoTurnPIDController);
+    /**
+     * Only accessed by the drive loop. Robot relative chassis speeds from the {@link #swerveAutoController}
+     */
+    private final double[] autoChassisSpeeds = new double[3];
 
-    {
-        swerveAutoController.setTolerance(new Pose2d(0.5, 0.5, Rotation2d.fromDegrees(10))); //TODO: Tune
+    /**
+     * Starts following a path. This doesn't block; the drive loop will pick up the path on its next cycle.
+     */
+    public void setAutoPath(Trajectory trajectory) {
+        setAutoPath(new CompactTrajectory(trajectory));
     }
 
-
-    public void setAutoPath(Trajectory trajectory) {
-        currentAutoTrajectoryLock.lock();
-        try {
-            autoTurnPIDController.reset(RobotTracker.getInstance().getGyroAngle().getRadians());
-            setDriveState(DriveState.RAMSETE);
-            this.currentAutoTrajectory = trajectory;
-            autoStartTime = Timer.getFPGATimestamp();
-        } finally {
-            currentAutoTrajectoryLock.unlock();
-        }
+    /**
+     * Starts following a path. This doesn't block; the drive loop will pick up the path on its next cycle.
+     */
+    public void setAutoPath(CompactTrajectory trajectory) {
+        double autoStartTime = Clock.getInstance().getTimestamp();
+        command.updateAndGet(c -> c.withAutoPath(trajectory, autoStartTime));
     }
 
-    final Lock currentAutoTrajectoryLock = new ReentrantLock();
-    Trajectory currentAutoTrajectory;
-    volatile Rotation2d autoTargetHeading;
+    /**
+     * Only accessed by the drive loop. The id of the path that the auto controller was last reset for
+     */
+    private long activePathId = -1;
+
+    /**
+     * Only accessed by the drive loop. Reused for every sample of the path
+     */
+    private final CompactTrajectory.Sample goal = new CompactTrajectory.Sample();
+
+    private void updateRamsete(@NotNull DriveCommand command) {
+        CompactTrajectory trajectory = command.trajectory;
+        assert trajectory != null;
 
-    private void updateRamsete() {
-        currentAutoTrajectoryLock.lock();
-        try {
-            Trajectory.State goal = currentAutoTrajectory.sample(Timer.getFPGATimestamp() - autoStartTime);
+        Pose2d pose = RobotTracker.getInstance().getPoseMeters();
+        if (command.pathId != activePathId) {
+            // A new path was started
+            swerveAutoController.reset(pose.getRotation().getRadians());
+            activePathId = command.pathId;
+        }
 
-            Rotation2d targetHeading = autoTargetHeading;
+        double autoElapsedTime = getCycleTimestamp() - command.autoStartTime;
+        trajectory.sample(autoElapsedTime, goal);
 
-            ChassisSpeeds adjustedSpeeds = swerveAutoController.calculate(
-                    RobotTracker.getInstance().getPoseMeters(),
-                    goal,
-                    targetHeading);
+        swerveAutoController.calculate(pose.getX(), pose.getY(), pose.getRotation().getRadians(),
+                goal.x, goal.y, goal.heading, goal.velocity, command.autoTargetHeading.getRadians(), autoChassisSpeeds);
 
-            swerveDrive(adjustedSpeeds);
-            if (swerveAutoController.atReference() && (Timer.getFPGATimestamp() - autoStartTime) >= currentAutoTrajectory.getTotalTimeSeconds()) {
-                setDriveState(DriveState.DONE);
-                stopMovement();
-            }
-        } finally {
-            currentAutoTrajectoryLock.unlock();
+        // Only finish if nobody has changed the command since we read it (ex. a new path was set)
+        if (swerveAutoController.atReference() && autoElapsedTime >= trajectory.getTotalTimeSeconds()
+                && this.command.compareAndSet(command, command.withDriveState(DriveState.DONE))) {
+            swerveDrive(0, 0, 0);
+        } else {
+            swerveDrive(autoChassisSpeeds[0], autoChassisSpeeds[1], autoChassisSpeeds[2]);
         }
     }
 
-    public synchronized void setAutoRotation(Rotation2d rotation) {
-        autoTargetHeading = rotation;
-        System.out.println("new rotation" + rotation.getDegrees());
+    public void setAutoRotation(Rotation2d rotation) {
+        command.updateAndGet(c -> c.withAutoTargetHeading(rotation));
+        dataLogger.logMessage(Clock.getInstance().getTimestamp(), "new rotation " + rotation.getDegrees());
     }
 
     public double getAutoElapsedTime() {
-        return Timer.getFPGATimestamp() - autoStartTime;
+        return Clock.getInstance().getTimestamp() - command.get().autoStartTime;
     }
 
     @Override
     public void update() {
+        sensorSnapshot = readSensors(getCycleTimestamp());
+
         //	System.out.println("L speed " + getLeftSpeed() + " position x " + RobotTracker.getInstance().getOdometry()
         //	.translationMat.getX());
         //	System.out.println("R speed " + getRightSpeed() + " position y " + RobotTracker.getInstance().getOdometry()
         //	.translationMat.getY());
         //debugSpeed();
         //System.out.println(driveState);
-        DriveState snapDriveState;
-        synchronized (this) {
-            snapDriveState = driveState;
-        }
+        processDriveRequests();
 
-        switch (snapDriveState) {
+        DriveCommand snapCommand = command.get();
+        switch (snapCommand.driveState) {
             case TELEOP:
                 break;
             case TURN:
-                updateTurn();
+                updateTurn(snapCommand);
                 break;
             case HOLD:
                 hold();
@@ -458,65 +618,90 @@ public final class Drive extends AbstractSubsystem {
             case DONE:
                 break;
             case RAMSETE:
-                updateRamsete();
+                updateRamsete(snapCommand);
                 break;
 
         }
 
+        applyChassisSpeeds();
+        flushMotors();
+        writeLog(sensorSnapshot, snapCommand.driveState);
     }
 
-    synchronized public boolean isAiming() {
+    private void writeLog(@NotNull DriveSensorSnapshot snapshot, @NotNull DriveState driveState) {
+        for (int i = 0; i < 4; i++) {
+            driveLogValues[LogSchemas.DRIVE_VELOCITY + i] = snapshot.getDriveVelocity(i);
+            driveLogValues[LogSchemas.DRIVE_STEER_ANGLE + i] = snapshot.getSteerAngle(i);
+            driveLogValues[LogSchemas.DRIVE_STEER_RELATIVE_POSITION + i] = snapshot.getSteerRelativePosition(i);
+            driveLogValues[LogSchemas.DRIVE_CURRENT + i] = snapshot.getDriveCurrent(i);
+            driveLogValues[LogSchemas.DRIVE_STEER_CURRENT + i] = snapshot.getSteerCurrent(i);
+        }
+        driveLogValues[LogSchemas.DRIVE_GYRO_YAW] = snapshot.getGyroYaw();
+        driveLogValues[LogSchemas.DRIVE_STATE] = driveState.ordinal();
+        dataLogger.write(driveLogId, snapshot.getTimestamp(), driveLogValues);
+    }
+
+    /**
+     * Sends the commands from this cycle to the motors. Commands that haven't changed are dropped to save CAN bandwidth.
+     */
+    private void flushMotors() {
+        for (SwerveModuleIO module : modules) {
+            module.flush();
+        }
+    }
+
+    public boolean isAiming() {
         return isAiming;
     }
 
     public void setRotation(Rotation2d angle) {
-        synchronized (this) {
-            wantedHeading = angle;
-            driveState = DriveState.TURN;
-            rotateAuto = true;
-            isAiming = !getTurningDone();
-            configBrake();
-
-        }
+        command.updateAndGet(c -> c.withWantedHeading(angle).withDriveState(DriveState.TURN));
+        rotateAuto = true;
+        isAiming = !getTurningDone();
+        configBrake();
     }
 
 
-    public synchronized boolean getTurningDone() {
+    public boolean getTurningDone() {
         //TODO redo
         return false;
     }
 
-    public synchronized void resetGyro() {
-        gyroSensor.zeroYaw();
-        wantedHeading = Rotation2d.fromDegrees(0);
+    public void resetGyro() {
+        gyro.zeroYaw();
+        command.updateAndGet(c -> c.withWantedHeading(Rotation2d.fromDegrees(0)));
         turnTarget = 0;
     }
 
     double turnMinSpeed = 0;
 
-    private void updateTurn() {
-        double error = wantedHeading.rotateBy(RobotTracker.getInstance().getGyroAngle()).getDegrees();
+    private void updateTurn(@NotNull DriveCommand command) {
+        double error = command.wantedHeading.rotateBy(RobotTracker.getInstance().getGyroAngle()).getDegrees();
         double pidDeltaSpeed = turnPID.calculate(error);
-        double curSpeed = Math.toDegrees(getRobotState().omegaRadiansPerSecond);
+        updateMeasuredChassisSpeeds(sensorSnapshot);
+        double curSpeed = Math.toDegrees(measuredChassisSpeeds[2]);
         double deltaSpeed = Math.copySign(Math.max(Math.abs(pidDeltaSpeed), turnMinSpeed), pidDeltaSpeed);
 
 
         if ((Math.abs(error) < Constants.MAX_TURN_ERROR) && curSpeed < Constants.MAX_PID_STOP_SPEED) {
-            swerveDrive(new ChassisSpeeds(0, 0, Math.toRadians(0)));
+            swerveDrive(0, 0, Math.toRadians(0));
             isAiming = false;
 
             if (rotateAuto) {
-                synchronized (this) {
-                    configBrake();
-                    driveState = DriveState.DONE;
-                }
+                configBrake();
+                // Only finish if nobody has changed the command since we read it
+                this.command.compareAndSet(command, command.withDriveState(DriveState.DONE));
             }
 
         } else {
-            System.out.println("Error: " + error + " curSpeed: " + curSpeed + " command: " + deltaSpeed + " pidOut: "
-                    + pidDeltaSpeed + " minSpeed: " + turnMinSpeed);
+            turnLogValues[LogSchemas.TURN_ERROR] = error;
+            turnLogValues[LogSchemas.TURN_ACTUAL_SPEED] = curSpeed;
+            turnLogValues[LogSchemas.TURN_PID_OUTPUT] = pidDeltaSpeed;
+            turnLogValues[LogSchemas.TURN_COMMAND] = deltaSpeed;
+            turnLogValues[LogSchemas.TURN_MIN_SPEED] = turnMinSpeed;
+            dataLogger.write(turnLogId, getCycleTimestamp(), turnLogValues);
             isAiming = true;
-            swerveDrive(new ChassisSpeeds(0, 0, Math.toRadians(deltaSpeed)));
+            swerveDrive(0, 0, Math.toRadians(deltaSpeed));
 
             if (curSpeed < 0.5) {
                 //Updates every 10ms
@@ -524,21 +709,25 @@ public final class Drive extends AbstractSubsystem {
             } else {
                 turnMinSpeed = 2;
             }
-            SmartDashboard.putNumber("Turn Error", error);
-            SmartDashboard.putNumber("Turn Actual Speed", curSpeed);
-            SmartDashboard.putNumber("Turn PID Command", pidDeltaSpeed);
-            SmartDashboard.putNumber("Turn Speed Command", deltaSpeed);
-            SmartDashboard.putNumber("Turn Min Speed", turnMinSpeed);
+            telemetry.putNumber(turnErrorHandle, error);
+            telemetry.putNumber(turnActualSpeedHandle, curSpeed);
+            telemetry.putNumber(turnPidCommandHandle, pidDeltaSpeed);
+            telemetry.putNumber(turnSpeedCommandHandle, deltaSpeed);
+            telemetry.putNumber(turnMinSpeedHandle, turnMinSpeed);
 
 
         }
     }
 
-    synchronized public void stopMovement() {
-        swerveDrive(new ChassisSpeeds(0, 0, 0));
+    /**
+     * Stops the robot. The request will be applied by the drive loop on its next cycle.
+     */
+    public void stopMovement() {
+        driveRequestMailbox.post(new DriveRequest(DriveRequest.Type.STOP, 0, 0, 0));
     }
 
-    synchronized public boolean isFinished() {
+    public boolean isFinished() {
+        DriveState driveState = getDriveState();
         return driveState == DriveState.DONE || driveState == DriveState.TELEOP;
     }
 
@@ -549,27 +738,33 @@ public final class Drive extends AbstractSubsystem {
 
     @Override
     public void logData() {
+        DriveSensorSnapshot snapshot = sensorSnapshot;
         for (int i = 0; i < 4; i++) {
-            double relPos = swerveEncoders[i].getPosition() % 360;
+            double relPos = snapshot.getSteerRelativePosition(i) % 360;
             if (relPos < 0) relPos += 360;
-            SmartDashboard.putNumber("Swerve Motor " + i + " Relative Position", relPos);
-            SmartDashboard.putNumber("Swerve Motor " + i + " Absolute Position", getAbsolutePosition(i));
-            SmartDashboard.putNumber("Drive Motor " + i + " Velocity", swerveDriveMotors[i].getEncoder().getVelocity() / 60d);
-            SmartDashboard.putNumber("Drive Motor " + i + " Current", swerveDriveMotors[i].getOutputCurrent());
-            SmartDashboard.putNumber("Swerve Motor " + i + " Current", swerveMotors[i].getOutputCurrent());
+            telemetry.putNumber(relativePositionHandles[i], relPos);
+            telemetry.putNumber(absolutePositionHandles[i], snapshot.getSteerAngle(i));
+            telemetry.putNumber(driveVelocityHandles[i], snapshot.getDriveVelocity(i) / Constants.SWERVE_METER_PER_ROTATION);
+            telemetry.putNumber(driveCurrentHandles[i], snapshot.getDriveCurrent(i));
+            telemetry.putNumber(swerveCurrentHandles[i], snapshot.getSteerCurrent(i));
+            telemetry.putNumber(swerveFramesSentHandles[i], modules[i].getSteerFramesSent());
+            telemetry.putNumber(swerveFramesSuppressedHandles[i], modules[i].getSteerFramesSuppressed());
+            telemetry.putNumber(driveFramesSentHandles[i], modules[i].getDriveFramesSent());
+            telemetry.putNumber(driveFramesSuppressedHandles[i], modules[i].getDriveFramesSuppressed());
 
         }
 
-        ChassisSpeeds chassisSpeeds = getRobotState();
-        SmartDashboard.putNumber("Computed Robot X Velocity", chassisSpeeds.vxMetersPerSecond);
-        SmartDashboard.putNumber("Computed Robot Y Velocity", chassisSpeeds.vyMetersPerSecond);
-        SmartDashboard.putNumber("Computed Robot Rotation", chassisSpeeds.omegaRadiansPerSecond);
+        updateMeasuredChassisSpeeds(snapshot);
+        telemetry.putNumber(computedXVelocityHandle, measuredChassisSpeeds[0]);
+        telemetry.putNumber(computedYVelocityHandle, measuredChassisSpeeds[1]);
+        telemetry.putNumber(computedRotationHandle, measuredChassisSpeeds[2]);
     }
 
 
+    /**
+     * @return The absolute angle of the module (in degrees from 0 to 360) at the start of the latest drive cycle
+     */
     public double getAbsolutePosition(int moduleNumber) {
-        double angle = ((1 - swerveEncodersDIO[moduleNumber].getOutput()) * 360) - 90;
-        if (moduleNumber == 3) angle -= 72;
-        return angle < 0 ? angle + 360 : angle;
+        return sensorSnapshot.getSteerAngle(moduleNumber);
     }
 }
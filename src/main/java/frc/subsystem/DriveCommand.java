@@ -0,0 +1,73 @@
+package frc.subsystem;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.subsystem.Drive.DriveState;
+import frc.utility.CompactTrajectory;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable description of what {@link Drive} is currently doing. Drive publishes it through an
+ * {@link java.util.concurrent.atomic.AtomicReference} so that the state, the auto path and the target headings are always read
+ * and changed together without locking.
+ */
+final class DriveCommand {
+    final @NotNull DriveState driveState;
+
+    /**
+     * The path being followed in {@link DriveState#RAMSETE}
+     */
+    final @Nullable CompactTrajectory trajectory;
+
+    /**
+     * Incremented each time a new path is set. Lets the drive loop detect a new path even if it's the same trajectory object
+     */
+    final long pathId;
+
+    /**
+     * FPGA timestamp (in seconds) that the path was started at
+     */
+    final double autoStartTime;
+
+    /**
+     * The heading the robot should face while following the path
+     */
+    final @NotNull Rotation2d autoTargetHeading;
+
+    /**
+     * The heading the robot should turn to in {@link DriveState#TURN}
+     */
+    final @NotNull Rotation2d wantedHeading;
+
+    DriveCommand(@NotNull DriveState driveState, @Nullable CompactTrajectory trajectory, long pathId, double autoStartTime,
+                 @NotNull Rotation2d autoTargetHeading, @NotNull Rotation2d wantedHeading) {
+        this.driveState = driveState;
+        this.trajectory = trajectory;
+        this.pathId = pathId;
+        this.autoStartTime = autoStartTime;
+        this.autoTargetHeading = autoTargetHeading;
+        this.wantedHeading = wantedHeading;
+    }
+
+    @Contract(pure = true)
+    @NotNull DriveCommand withDriveState(@NotNull DriveState driveState) {
+        if (driveState == this.driveState) return this;
+        return new DriveCommand(driveState, trajectory, pathId, autoStartTime, autoTargetHeading, wantedHeading);
+    }
+
+    @Contract(pure = true)
+    @NotNull DriveCommand withAutoPath(@NotNull CompactTrajectory trajectory, double autoStartTime) {
+        return new DriveCommand(DriveState.RAMSETE, trajectory, pathId + 1, autoStartTime, autoTargetHeading, wantedHeading);
+    }
+
+    @Contract(pure = true)
+    @NotNull DriveCommand withAutoTargetHeading(@NotNull Rotation2d autoTargetHeading) {
+        return new DriveCommand(driveState, trajectory, pathId, autoStartTime, autoTargetHeading, wantedHeading);
+    }
+
+    @Contract(pure = true)
+    @NotNull DriveCommand withWantedHeading(@NotNull Rotation2d wantedHeading) {
+        return new DriveCommand(driveState, trajectory, pathId, autoStartTime, autoTargetHeading, wantedHeading);
+    }
+}
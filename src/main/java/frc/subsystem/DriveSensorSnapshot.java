@@ -0,0 +1,130 @@
+package frc.subsystem;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable copy of every drivetrain sensor reading taken at the start of a {@link Drive} cycle. Everything that needs a drive
+ * sensor (control, odometry, telemetry) should read from the same snapshot so that the values are consistent with each other and
+ * each sensor is only read once per cycle.
+ * <p>
+ * Arrays are indexed by module number (0 -> Left Front, 1 -> Left Back, 2 -> Right Front, 3 -> Right Back)
+ */
+public final class DriveSensorSnapshot {
+    private final double timestamp;
+    private final double @NotNull [] driveVelocities;
+    private final double @NotNull [] steerAngles;
+    private final double @NotNull [] steerRelativePositions;
+    private final double @NotNull [] driveCurrents;
+    private final double @NotNull [] steerCurrents;
+    private final double gyroYaw;
+
+    /**
+     * The arrays are not copied. The caller must not modify them after creating the snapshot.
+     *
+     * @param timestamp              FPGA timestamp (in seconds) that the sensors were read at
+     * @param driveVelocities        Velocity of each drive wheel (in m/s)
+     * @param steerAngles            Absolute angle of each module (in degrees from 0 to 360)
+     * @param steerRelativePositions Position of each steer motor's relative encoder (in degrees, not wrapped)
+     * @param driveCurrents          Output current of each drive motor (in amps)
+     * @param steerCurrents          Output current of each steer motor (in amps)
+     * @param gyroYaw                The continuous yaw reported by the gyro (in degrees, clockwise positive)
+     */
+    DriveSensorSnapshot(double timestamp, double @NotNull [] driveVelocities, double @NotNull [] steerAngles,
+                        double @NotNull [] steerRelativePositions, double @NotNull [] driveCurrents,
+                        double @NotNull [] steerCurrents, double gyroYaw) {
+        this.timestamp = timestamp;
+        this.driveVelocities = driveVelocities;
+        this.steerAngles = steerAngles;
+        this.steerRelativePositions = steerRelativePositions;
+        this.driveCurrents = driveCurrents;
+        this.steerCurrents = steerCurrents;
+        this.gyroYaw = gyroYaw;
+    }
+
+    /**
+     * @return FPGA timestamp (in seconds) that the sensors were read at
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Velocity of the drive wheel (in m/s)
+     */
+    public double getDriveVelocity(int module) {
+        return driveVelocities[module];
+    }
+
+    /**
+     * @return Absolute angle of the module (in degrees from 0 to 360)
+     */
+    public double getSteerAngle(int module) {
+        return steerAngles[module];
+    }
+
+    /**
+     * @return Position of the steer motor's relative encoder (in degrees, not wrapped)
+     */
+    public double getSteerRelativePosition(int module) {
+        return steerRelativePositions[module];
+    }
+
+    /**
+     * @return Output current of the drive motor (in amps)
+     */
+    public double getDriveCurrent(int module) {
+        return driveCurrents[module];
+    }
+
+    /**
+     * @return Output current of the steer motor (in amps)
+     */
+    public double getSteerCurrent(int module) {
+        return steerCurrents[module];
+    }
+
+    /**
+     * @return The continuous yaw reported by the gyro (in degrees, clockwise positive)
+     */
+    public double getGyroYaw() {
+        return gyroYaw;
+    }
+
+    /**
+     * @return The angle of the robot (in degrees, counterclockwise positive)
+     */
+    public double getAngle() {
+        return -gyroYaw;
+    }
+
+    /**
+     * The returned array is not a copy and must not be modified
+     *
+     * @return Velocity of each drive wheel (in m/s)
+     */
+    double @NotNull [] getDriveVelocities() {
+        return driveVelocities;
+    }
+
+    /**
+     * The returned array is not a copy and must not be modified
+     *
+     * @return Absolute angle of each module (in degrees from 0 to 360)
+     */
+    double @NotNull [] getSteerAngles() {
+        return steerAngles;
+    }
+
+    /**
+     * @return The state of each swerve module
+     */
+    public SwerveModuleState @NotNull [] getSwerveModuleStates() {
+        SwerveModuleState[] swerveModuleStates = new SwerveModuleState[driveVelocities.length];
+        for (int i = 0; i < swerveModuleStates.length; i++) {
+            swerveModuleStates[i] = new SwerveModuleState(driveVelocities[i], Rotation2d.fromDegrees(steerAngles[i]));
+        }
+        return swerveModuleStates;
+    }
+}
@@ -0,0 +1,76 @@
+package frc.subsystem;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable estimate of where the robot is, published by {@link RobotTracker} once per cycle. Read the snapshot once and use it
+ * for everything in a cycle so that the pose, rotation and velocity are all from the same update.
+ */
+public final class PoseSnapshot {
+    private final double timestamp;
+    private final @NotNull Pose2d pose;
+    private final double vx;
+    private final double vy;
+    private final double omega;
+
+    /**
+     * @param timestamp FPGA timestamp (in seconds) of the sensor readings that the pose was computed from
+     * @param pose      The pose of the robot on the field (in meters)
+     * @param vx        Field relative x velocity (in m/s)
+     * @param vy        Field relative y velocity (in m/s)
+     * @param omega     Rotational velocity (in rad/s, counterclockwise positive)
+     */
+    PoseSnapshot(double timestamp, @NotNull Pose2d pose, double vx, double vy, double omega) {
+        this.timestamp = timestamp;
+        this.pose = pose;
+        this.vx = vx;
+        this.vy = vy;
+        this.omega = omega;
+    }
+
+    /**
+     * @return FPGA timestamp (in seconds) of the sensor readings that the pose was computed from
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return The pose of the robot on the field (in meters)
+     */
+    public @NotNull Pose2d getPose() {
+        return pose;
+    }
+
+    public @NotNull Translation2d getTranslation() {
+        return pose.getTranslation();
+    }
+
+    public @NotNull Rotation2d getRotation() {
+        return pose.getRotation();
+    }
+
+    /**
+     * @return Field relative x velocity (in m/s)
+     */
+    public double getVelocityX() {
+        return vx;
+    }
+
+    /**
+     * @return Field relative y velocity (in m/s)
+     */
+    public double getVelocityY() {
+        return vy;
+    }
+
+    /**
+     * @return Rotational velocity (in rad/s, counterclockwise positive)
+     */
+    public double getAngularVelocity() {
+        return omega;
+    }
+}
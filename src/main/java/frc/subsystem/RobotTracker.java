@@ -3,8 +3,40 @@ package frc.subsystem;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Threads;
+import frc.robot.Constants;
+import frc.subsystem.io.GyroIO;
+import frc.subsystem.io.SwerveModuleIO;
+import frc.utility.Clock;
+import frc.utility.LatestValueMailbox;
+import frc.utility.PoseEstimator;
+import frc.utility.SwerveKinematics;
+import frc.utility.SwerveOdometry;
+import frc.utility.Telemetry;
+import frc.utility.VisionMeasurement;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of where the robot is on the field.
+ * <p>
+ * Only the tracker's own thread touches the odometry. The result of each update is published as an immutable {@link PoseSnapshot}
+ * through a volatile field, so reading the pose never blocks and always gets a consistent pose, timestamp and velocity. Resets are
+ * posted to a mailbox and applied at the start of the next update.
+ * <p>
+ * Vision measurements can be added from any thread with {@link #addVisionMeasurement(VisionMeasurement)}. They're also posted to a
+ * mailbox, and the next update fuses the newest one with the odometry from when its image was taken (see {@link PoseEstimator}).
+ * <p>
+ * With {@link Constants#HIGH_RATE_ODOMETRY} the odometry runs on its own thread every {@link Constants#HIGH_RATE_ODOMETRY_PERIOD}
+ * ms from the drive encoder positions, steer angles and gyro, and {@link #update()} does nothing. The drive loop doesn't do any
+ * extra work for it.
+ */
 public final class RobotTracker extends AbstractSubsystem {
 
     private static final RobotTracker instance = new RobotTracker();
@@ -15,37 +47,112 @@ public final class RobotTracker extends AbstractSubsystem {
         return RobotTracker.instance;
     }
 
-    private Pose2d lastEstimatedPose = new Pose2d();
+    /**
+     * A reset of the odometry that hasn't been applied yet
+     */
+    private static final class PoseReset {
+        final @NotNull Pose2d pose;
+        final @NotNull Rotation2d gyroAngle;
+
+        PoseReset(@NotNull Pose2d pose, @NotNull Rotation2d gyroAngle) {
+            this.pose = pose;
+            this.gyroAngle = gyroAngle;
+        }
+    }
+
+    private volatile @NotNull PoseSnapshot poseSnapshot = new PoseSnapshot(0, new Pose2d(), 0, 0, 0);
+
+    private final LatestValueMailbox<PoseReset> pendingReset = new LatestValueMailbox<>();
+    private final LatestValueMailbox<VisionMeasurement> pendingVisionMeasurement = new LatestValueMailbox<>();
+
+    /**
+     * Priority of the high rate odometry thread on the roboRIO. Above the subsystem executor so that the samples are evenly spaced
+     */
+    private static final int HIGH_RATE_ODOMETRY_PRIORITY = 16;
 
+    /**
+     * Only accessed by the tracker's thread
+     */
     private final SwerveDriveOdometry swerveDriveOdometry;
 
+    /**
+     * Only accessed by the high rate odometry thread
+     */
+    private final SwerveOdometry highRateOdometry = new SwerveOdometry(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+    private final double[] modulePositions = new double[4];
+    private final double[] moduleVelocities = new double[4];
+    private final double[] moduleAngles = new double[4];
+
+    private final @Nullable Thread highRateOdometryThread;
+    private final Clock clock = Clock.getInstance();
+
+    /**
+     * Only accessed by the thread that runs the odometry
+     */
+    private final SwerveKinematics swerveKinematics = new SwerveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+    private final double[] chassisSpeeds = new double[3];
+
+    /**
+     * Fuses the odometry with vision. Also keeps the poses from the last few seconds to find where the robot was when a (delayed)
+     * vision measurement was taken. Guarded by its own monitor.
+     */
+    private final PoseEstimator poseEstimator = new PoseEstimator(1024, 0.02, 0.02);
+
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int logId = dataLogger.register(LogSchemas.ROBOT_TRACKER);
+    /**
+     * Only accessed by the thread that runs the odometry
+     */
+    private final double[] logValues = new double[LogSchemas.ROBOT_TRACKER.getFieldCount()];
+    /**
+     * Only accessed by the high rate odometry thread
+     */
+    private final int inputLogId = dataLogger.register(LogSchemas.INPUT_ODOMETRY);
+    private final double[] inputLogValues = new double[LogSchemas.INPUT_ODOMETRY.getFieldCount()];
+
+    private final Telemetry telemetry = Telemetry.getInstance();
+    private final int poseXHandle = telemetry.registerNumber("Robot Pose X");
+    private final int poseYHandle = telemetry.registerNumber("Robot Pose Y");
+    private final int poseAngleHandle = telemetry.registerNumber("Robot Pose Angle");
+
     private RobotTracker() {
         super(20);
-        // swerveDriveOdometry = new SwerveDrivePoseEstimator(
-        //     drive.getGyroAngle(),
-        //     new Pose2d(),
-        //     drive.getSwerveDriveKinematics(),
-        //     new MatBuilder<>(Nat.N3(), Nat.N1()).fill(0.02, 0.02, 0.02),
-        //     new MatBuilder<>(Nat.N1(), Nat.N1()).fill(0.02),
-        //     new MatBuilder<>(Nat.N3(), Nat.N1()).fill(0.1, 0.1, 0.1),
-        //     20d/1000d);
         swerveDriveOdometry = new SwerveDriveOdometry(drive.getSwerveDriveKinematics(), drive.getGyroAngle());
+
+        if (Constants.HIGH_RATE_ODOMETRY) {
+            highRateOdometryThread = new Thread(this::runHighRateOdometry, "High Rate Odometry");
+            highRateOdometryThread.setDaemon(true);
+            clock.registerThread(highRateOdometryThread);
+            highRateOdometryThread.start();
+        } else {
+            highRateOdometryThread = null;
+        }
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        if (highRateOdometryThread != null) {
+            clock.unpark(highRateOdometryThread);
+        }
     }
 
 
     /**
      * @return current rotation
      */
-    public synchronized Rotation2d getGyroAngle() {
-        return lastEstimatedPose.getRotation();
+    public Rotation2d getGyroAngle() {
+        return poseSnapshot.getRotation();
 
     }
 
     /**
-     * Resets the position on the field to 0,0 with a rotation of 0 degrees
+     * Resets the position on the field to 0,0 with a rotation of 0 degrees. Applied on the next update.
      */
-    synchronized public void resetOdometry() {
-        swerveDriveOdometry.resetPosition(new Pose2d(), Rotation2d.fromDegrees(drive.getAngle()));
+    public void resetOdometry() {
+        pendingReset.post(new PoseReset(new Pose2d(), Rotation2d.fromDegrees(drive.getAngle())));
     }
 
     /**
@@ -58,20 +165,149 @@ public final class RobotTracker extends AbstractSubsystem {
      */
     @Override
     public void update() {
-        swerveDriveOdometry.update(Rotation2d.fromDegrees(drive.getAngle()), drive.getSwerveModuleStates());
-        synchronized (this) {
-            lastEstimatedPose = swerveDriveOdometry.getPoseMeters();
+        if (highRateOdometryThread != null) {
+            return;
         }
+
+        PoseReset reset = pendingReset.take();
+        if (reset != null) {
+            swerveDriveOdometry.resetPosition(reset.pose, reset.gyroAngle);
+            synchronized (poseEstimator) {
+                poseEstimator.reset(); // The old poses are in a different frame
+            }
+        }
+
+        DriveSensorSnapshot snapshot = drive.getSensorSnapshot();
+        Pose2d pose = swerveDriveOdometry.updateWithTime(snapshot.getTimestamp(), Rotation2d.fromDegrees(snapshot.getAngle()),
+                snapshot.getSwerveModuleStates());
+
+        swerveKinematics.toChassisSpeeds(snapshot.getDriveVelocities(), snapshot.getSteerAngles(), chassisSpeeds);
+        publishPose(snapshot.getTimestamp(), pose.getX(), pose.getY(), pose.getRotation().getRadians());
+    }
+
+    /**
+     * Fuses the odometry pose with the latest vision measurement and publishes the result
+     *
+     * @param timestamp     The time of the odometry sample (in seconds)
+     * @param odometryX     X position from the odometry (in meters)
+     * @param odometryY     Y position from the odometry (in meters)
+     * @param odometryTheta Rotation from the odometry (in radians)
+     */
+    private void publishPose(double timestamp, double odometryX, double odometryY, double odometryTheta) {
+        VisionMeasurement visionMeasurement = pendingVisionMeasurement.take();
+        double x, y, theta;
+        synchronized (poseEstimator) {
+            poseEstimator.addOdometry(timestamp, odometryX, odometryY, odometryTheta);
+            if (visionMeasurement != null) {
+                poseEstimator.addVisionMeasurement(visionMeasurement);
+            }
+            x = poseEstimator.getX();
+            y = poseEstimator.getY();
+            theta = poseEstimator.getTheta();
+        }
+
+        // Robot relative speeds (in chassisSpeeds) rotated to be field relative
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        double vx = chassisSpeeds[0] * cos - chassisSpeeds[1] * sin;
+        double vy = chassisSpeeds[0] * sin + chassisSpeeds[1] * cos;
+        poseSnapshot = new PoseSnapshot(timestamp, new Pose2d(x, y, new Rotation2d(theta)), vx, vy, chassisSpeeds[2]);
+
+        logValues[LogSchemas.TRACKER_ODOMETRY_X] = odometryX;
+        logValues[LogSchemas.TRACKER_ODOMETRY_Y] = odometryY;
+        logValues[LogSchemas.TRACKER_ODOMETRY_THETA] = odometryTheta;
+        logValues[LogSchemas.TRACKER_X] = x;
+        logValues[LogSchemas.TRACKER_Y] = y;
+        logValues[LogSchemas.TRACKER_THETA] = theta;
+        logValues[LogSchemas.TRACKER_VELOCITY_X] = vx;
+        logValues[LogSchemas.TRACKER_VELOCITY_Y] = vy;
+        logValues[LogSchemas.TRACKER_ANGULAR_VELOCITY] = chassisSpeeds[2];
+        dataLogger.write(logId, timestamp, logValues);
+    }
+
+    private void runHighRateOdometry() {
+        if (RobotBase.isReal()) {
+            Threads.setCurrentThreadPriority(true, HIGH_RATE_ODOMETRY_PRIORITY);
+        }
+
+        SwerveModuleIO[] modules = drive.getModuleIOs();
+        GyroIO gyro = drive.getGyroIO();
+        long period = TimeUnit.MILLISECONDS.toNanos(Constants.HIGH_RATE_ODOMETRY_PERIOD);
+
+        readModules(modules);
+        highRateOdometry.reset(0, 0, 0, Math.toRadians(-gyro.getAngle()), modulePositions);
+
+        long nextDeadline = clock.nanoTime();
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            if (getSignal() == ThreadSignal.ALIVE) {
+                long now = clock.nanoTime();
+                try {
+                    sampleOdometry(modules, gyro, clock.toTimestamp(now));
+                } catch (Exception e) {
+                    DriverStation.reportError("Uncaught exception in the high rate odometry: " + e.getMessage(),
+                            e.getStackTrace());
+                }
+
+                nextDeadline += period;
+                if (now - nextDeadline >= 0) {
+                    nextDeadline = now + period; // We fell behind. Skip the samples that we missed.
+                }
+                clock.parkUntil(nextDeadline);
+            } else {
+                clock.park(); // Woken up by start()
+                nextDeadline = clock.nanoTime();
+            }
+            Thread.interrupted(); // Clear the interrupt flag so that it doesn't stop us from parking
+        }
+    }
+
+    private void readModules(SwerveModuleIO @NotNull [] modules) {
+        for (int i = 0; i < 4; i++) {
+            modulePositions[i] = modules[i].getDrivePosition();
+            moduleVelocities[i] = modules[i].getDriveVelocity();
+            moduleAngles[i] = modules[i].getSteerAngle();
+        }
+    }
+
+    private void sampleOdometry(SwerveModuleIO @NotNull [] modules, @NotNull GyroIO gyro, double timestamp) {
+        readModules(modules);
+        double gyroAngle = gyro.getAngle();
+        double gyroHeading = Math.toRadians(-gyroAngle); // The gyro is clockwise positive
+
+        // Recorded so that the odometry can be replayed
+        for (int i = 0; i < 4; i++) {
+            inputLogValues[LogSchemas.INPUT_ODOMETRY_POSITION + i] = modulePositions[i];
+            inputLogValues[LogSchemas.INPUT_ODOMETRY_VELOCITY + i] = moduleVelocities[i];
+            inputLogValues[LogSchemas.INPUT_ODOMETRY_STEER_ANGLE + i] = moduleAngles[i];
+        }
+        inputLogValues[LogSchemas.INPUT_ODOMETRY_GYRO_ANGLE] = gyroAngle;
+        dataLogger.write(inputLogId, timestamp, inputLogValues);
+
+        PoseReset reset = pendingReset.take();
+        if (reset != null) {
+            // Uses the gyro reading from now instead of the one from when the reset was requested
+            highRateOdometry.reset(reset.pose.getX(), reset.pose.getY(), reset.pose.getRotation().getRadians(), gyroHeading,
+                    modulePositions);
+            synchronized (poseEstimator) {
+                poseEstimator.reset(); // The old poses are in a different frame
+            }
+        } else {
+            highRateOdometry.update(gyroHeading, modulePositions, moduleAngles);
+        }
+
+        swerveKinematics.toChassisSpeeds(moduleVelocities, moduleAngles, chassisSpeeds);
+        publishPose(timestamp, highRateOdometry.getX(), highRateOdometry.getY(), highRateOdometry.getHeading());
     }
 
     /**
      * Resets the robot's position on the field. The gyroscope angle does not need to be reset here on the user's robot code. The
-     * library automatically takes care of offsetting the gyro angle.
+     * library automatically takes care of offsetting the gyro angle. Applied on the next update.
      *
      * @param pose      The position on the field that your robot is at.
      */
-    synchronized public void resetPosition(Pose2d pose) {
-        swerveDriveOdometry.resetPosition(pose, drive.getGyroAngle());
+    public void resetPosition(Pose2d pose) {
+        pendingReset.post(new PoseReset(pose, drive.getGyroAngle()));
     }
 
     /**
@@ -79,8 +315,37 @@ public final class RobotTracker extends AbstractSubsystem {
      *
      * @return The pose of the robot (x and y are in meters).
      */
-    synchronized public Pose2d getPoseMeters() {
-        return lastEstimatedPose;
+    public Pose2d getPoseMeters() {
+        return poseSnapshot.getPose();
+    }
+
+    /**
+     * @return The latest pose, timestamp and velocity of the robot
+     */
+    public @NotNull PoseSnapshot getPoseSnapshot() {
+        return poseSnapshot;
+    }
+
+    /**
+     * Adds a pose measured by a camera. Can be called from any thread; the measurement is fused on the next odometry update. If
+     * more than one measurement arrives before then, only the newest one is used.
+     */
+    public void addVisionMeasurement(@NotNull VisionMeasurement measurement) {
+        pendingVisionMeasurement.post(measurement);
+    }
+
+    /**
+     * Finds where the robot was at a point in time. Poses are kept for at least 5 seconds (less after a reset). Times outside that
+     * get the oldest or newest pose.
+     *
+     * @param timestamp The time to look up (in seconds, same clock as {@link AbstractSubsystem#getCycleTimestamp()})
+     * @param out       The x (in meters), y (in meters) and rotation (in radians) are written here
+     * @return false if there are no poses yet (nothing is written to out)
+     */
+    public boolean getPoseAtTime(double timestamp, double @NotNull [] out) {
+        synchronized (poseEstimator) {
+            return poseEstimator.getPose(timestamp, out);
+        }
     }
 
     @Override
@@ -90,8 +355,9 @@ public final class RobotTracker extends AbstractSubsystem {
 
     @Override
     public void logData() {
-        SmartDashboard.putNumber("Robot Pose X", getPoseMeters().getX());
-        SmartDashboard.putNumber("Robot Pose Y", getPoseMeters().getX());
-        SmartDashboard.putNumber("Robot Pose Angle", getPoseMeters().getRotation().getDegrees());
+        Pose2d pose = getPoseMeters();
+        telemetry.putNumber(poseXHandle, pose.getX());
+        telemetry.putNumber(poseYHandle, pose.getY());
+        telemetry.putNumber(poseAngleHandle, pose.getRotation().getDegrees());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package frc.subsystem;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Threads;
+import frc.utility.Clock;
+
+import java.util.Arrays;
+
+/**
+ * Runs every {@link AbstractSubsystem} on a single real-time thread instead of one thread per subsystem.
+ * <p>
+ * Each time the executor wakes up it runs all the subsystems that are due in the order that they were created in, which makes
+ * the order of the {@link AbstractSubsystem#update()} calls deterministic (ex. Drive always updates before RobotTracker). When no
+ * subsystem is alive the executor parks until {@link AbstractSubsystem#start()} is called, so paused subsystems use no CPU.
+ */
+final class SubsystemExecutor implements Runnable {
+    private static final SubsystemExecutor instance = new SubsystemExecutor();
+
+    static SubsystemExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Priority of the executor thread on the roboRIO. This is below the priority of the HAL's notifier thread (which is 40)
+     */
+    private static final int REAL_TIME_PRIORITY = 15;
+
+    /**
+     * How often (in seconds) the loop time histograms are published to NetworkTables
+     */
+    private static final double LOOP_TIME_STATS_PERIOD = 1;
+
+    /**
+     * The longest that a subsystem which keeps throwing waits between cycles. The wait doubles with each failure in a row.
+     */
+    private static final long MAX_FAILURE_BACK_OFF_NANOS = 1_000_000_000L;
+
+    /**
+     * Subsystems in the order that they were registered. This array is replaced (not modified) when a subsystem is added or
+     * removed so that the executor can iterate over it without allocating or locking.
+     */
+    private volatile AbstractSubsystem[] subsystems = new AbstractSubsystem[0];
+
+    private final Thread thread;
+
+    /**
+     * The clock that the subsystems are scheduled with. This is read once, so {@link Clock#setInstance(Clock)} must be called
+     * before the first subsystem is created.
+     */
+    private final Clock clock = Clock.getInstance();
+
+    /**
+     * Publishes the loop time stats on its own thread so that it doesn't take time away from the subsystems
+     */
+    private final Notifier loopTimeStatsNotifier = new Notifier(this::publishLoopTimeStats);
+
+    private SubsystemExecutor() {
+        thread = new Thread(this, "Subsystem Executor");
+        thread.setDaemon(true);
+        clock.registerThread(thread);
+        thread.start();
+        loopTimeStatsNotifier.setName("Loop Time Stats");
+        loopTimeStatsNotifier.startPeriodic(LOOP_TIME_STATS_PERIOD);
+    }
+
+    private void publishLoopTimeStats() {
+        for (AbstractSubsystem subsystem : subsystems) {
+            subsystem.publishLoopTimeStats();
+        }
+    }
+
+    synchronized void register(AbstractSubsystem subsystem) {
+        AbstractSubsystem[] newSubsystems = Arrays.copyOf(subsystems, subsystems.length + 1);
+        newSubsystems[newSubsystems.length - 1] = subsystem;
+        subsystems = newSubsystems;
+        wakeUp();
+    }
+
+    private synchronized void unregister(AbstractSubsystem subsystem) {
+        subsystems = Arrays.stream(subsystems).filter(s -> s != subsystem).toArray(AbstractSubsystem[]::new);
+    }
+
+    /**
+     * Makes the executor re-evaluate which subsystems it needs to run. Call this after a subsystem's state changes.
+     */
+    void wakeUp() {
+        clock.unpark(thread);
+    }
+
+    /**
+     * Reports a failed cycle and delays the subsystem's next one. The delay doubles with each failure in a row (up to
+     * {@link #MAX_FAILURE_BACK_OFF_NANOS}) so a subsystem that always throws doesn't flood the driver station.
+     */
+    private void backOff(AbstractSubsystem subsystem, Throwable t) {
+        int failures = ++subsystem.consecutiveFailures;
+        long backOff = MAX_FAILURE_BACK_OFF_NANOS;
+        if (failures < 31 && subsystem.getPeriodNanos() << failures < MAX_FAILURE_BACK_OFF_NANOS) {
+            backOff = subsystem.getPeriodNanos() << failures;
+        }
+        subsystem.delayNextCycle(clock, backOff);
+        DriverStation.reportError("Uncaught exception in " + subsystem.subsystemName + " (" + failures
+                + " in a row, retrying in " + backOff / 1_000_000 + "ms): " + t, t.getStackTrace());
+    }
+
+    @Override
+    public void run() {
+        if (RobotBase.isReal()) {
+            Threads.setCurrentThreadPriority(true, REAL_TIME_PRIORITY);
+        }
+
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            long nextWakeUp = 0;
+            boolean hasScheduledSubsystem = false;
+
+            for (AbstractSubsystem subsystem : subsystems) {
+                if (subsystem.getSignal() == AbstractSubsystem.ThreadSignal.DEAD) {
+                    unregister(subsystem);
+                    continue;
+                }
+
+                if (subsystem.getSignal() != AbstractSubsystem.ThreadSignal.ALIVE) {
+                    subsystem.scheduled = false;
+                    continue;
+                }
+
+                long now = clock.nanoTime();
+                boolean firstCycle = !subsystem.scheduled;
+                if (firstCycle) {
+                    // The subsystem was just started. Run it right away.
+                    subsystem.scheduled = true;
+                    subsystem.nextDeadline = now;
+                    subsystem.consecutiveFailures = 0;
+                }
+
+                if (now - subsystem.nextDeadline >= 0) {
+                    try {
+                        subsystem.runCycle(clock, now, firstCycle);
+                        subsystem.consecutiveFailures = 0;
+                    } catch (Throwable t) {
+                        // Errors are caught too, so that one subsystem can't stop the others
+                        backOff(subsystem, t);
+                    }
+                }
+
+                if (!hasScheduledSubsystem || subsystem.nextDeadline - nextWakeUp < 0) {
+                    nextWakeUp = subsystem.nextDeadline;
+                    hasScheduledSubsystem = true;
+                }
+            }
+
+            if (hasScheduledSubsystem) {
+                clock.parkUntil(nextWakeUp);
+            } else {
+                clock.park(); // Nothing is alive. Wait for a subsystem to be started.
+            }
+            Thread.interrupted(); // Clear the interrupt flag so that it doesn't stop us from parking
+        }
+    }
+}
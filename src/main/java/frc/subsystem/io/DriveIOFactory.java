@@ -0,0 +1,32 @@
+package frc.subsystem.io;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the hardware that {@link frc.subsystem.Drive} uses when it isn't the robot's or the simulator's (ex. to replay a log).
+ */
+public interface DriveIOFactory {
+
+    /**
+     * @return The factory that {@link frc.subsystem.Drive} should use or null to pick the hardware from
+     * {@link edu.wpi.first.wpilibj.RobotBase#isReal()}
+     */
+    static @Nullable DriveIOFactory getInstance() {
+        return DriveIOFactoryHolder.factory;
+    }
+
+    /**
+     * Changes the factory that {@link frc.subsystem.Drive} uses. This must be called before the drive is created.
+     */
+    static void setInstance(@Nullable DriveIOFactory factory) {
+        DriveIOFactoryHolder.factory = factory;
+    }
+
+    /**
+     * @return The 4 modules (0 -> Left Front, 1 -> Left Back, 2 -> Right Front, 3 -> Right Back)
+     */
+    SwerveModuleIO @NotNull [] createModules();
+
+    @NotNull GyroIO createGyro(SwerveModuleIO @NotNull [] modules);
+}
@@ -0,0 +1,10 @@
+package frc.subsystem.io;
+
+/**
+ * Holds the factory returned by {@link DriveIOFactory#getInstance()}. Interfaces can't have mutable static fields.
+ */
+final class DriveIOFactoryHolder {
+    static volatile DriveIOFactory factory = null;
+
+    private DriveIOFactoryHolder() {}
+}
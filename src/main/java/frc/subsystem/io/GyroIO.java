@@ -0,0 +1,28 @@
+package frc.subsystem.io;
+
+/**
+ * The gyro of the drivetrain. See {@link SwerveModuleIO}.
+ */
+public interface GyroIO {
+
+    /**
+     * Called once at the start of every drive cycle after the modules have been updated and before the gyro is read.
+     *
+     * @param timestamp The time of the cycle (in seconds)
+     */
+    default void periodic(double timestamp) {}
+
+    /**
+     * Can be called from any thread.
+     *
+     * @return The yaw of the robot (in degrees). Clockwise is positive, like {@link com.kauailabs.navx.frc.AHRS#getAngle()}
+     */
+    double getAngle();
+
+    /**
+     * Sets the current yaw to zero. Can be called from any thread.
+     */
+    void zeroYaw();
+
+    void calibrate();
+}
@@ -0,0 +1,37 @@
+package frc.subsystem.io;
+
+import com.kauailabs.navx.frc.AHRS;
+import edu.wpi.first.wpilibj.SPI;
+
+/**
+ * A navX on the MXP port.
+ */
+public class NavXGyroIO implements GyroIO {
+    private final AHRS gyroSensor;
+
+    /**
+     * @param updateRateHz How often the navX sends its data (4 to 200 Hz)
+     */
+    public NavXGyroIO(int updateRateHz) {
+        gyroSensor = new AHRS(SPI.Port.kMXP, (byte) updateRateHz);
+    }
+
+    public NavXGyroIO() {
+        gyroSensor = new AHRS(SPI.Port.kMXP);
+    }
+
+    @Override
+    public double getAngle() {
+        return gyroSensor.getAngle();
+    }
+
+    @Override
+    public void zeroYaw() {
+        gyroSensor.zeroYaw();
+    }
+
+    @Override
+    public void calibrate() {
+        gyroSensor.calibrate();
+    }
+}
@@ -0,0 +1,57 @@
+package frc.subsystem.io;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.utility.SwerveKinematics;
+
+/**
+ * A simulated gyro that integrates the rotation of the robot from the simulated swerve modules.
+ */
+public class SimGyroIO implements GyroIO {
+    private final SwerveModuleIO[] modules;
+    private final SwerveKinematics kinematics;
+
+    private final double[] moduleSpeeds;
+    private final double[] moduleAngles;
+    private final double[] chassisSpeeds = new double[3];
+
+    private double lastTimestamp = Double.NaN;
+    private volatile double angle = 0; // zeroYaw() can be called from any thread
+
+    /**
+     * @param modules         The modules of the robot. They must be updated before the gyro each cycle.
+     * @param moduleLocations The location of each module relative to the center of the robot
+     */
+    public SimGyroIO(SwerveModuleIO[] modules, Translation2d... moduleLocations) {
+        this.modules = modules;
+        this.kinematics = new SwerveKinematics(moduleLocations);
+        this.moduleSpeeds = new double[modules.length];
+        this.moduleAngles = new double[modules.length];
+    }
+
+    @Override
+    public void periodic(double timestamp) {
+        double dt = Double.isNaN(lastTimestamp) ? 0 : Math.min(timestamp - lastTimestamp, 0.1);
+        lastTimestamp = timestamp;
+
+        for (int i = 0; i < modules.length; i++) {
+            moduleSpeeds[i] = modules[i].getDriveVelocity();
+            moduleAngles[i] = modules[i].getSteerAngle();
+        }
+        kinematics.toChassisSpeeds(moduleSpeeds, moduleAngles, chassisSpeeds);
+        angle -= Math.toDegrees(chassisSpeeds[2] * dt); // The gyro is clockwise positive
+    }
+
+    @Override
+    public double getAngle() {
+        return angle;
+    }
+
+    @Override
+    public void zeroYaw() {
+        angle = 0;
+    }
+
+    @Override
+    public void calibrate() {
+    }
+}
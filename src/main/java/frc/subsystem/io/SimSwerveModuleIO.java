@@ -0,0 +1,166 @@
+package frc.subsystem.io;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.system.plant.DCMotor;
+import frc.robot.Constants;
+
+/**
+ * A simulated swerve module.
+ * <p>
+ * The drive motor follows the characterization of the module ({@link Constants#DRIVE_FEEDFORWARD}) so a voltage from the
+ * feedforward gives the velocity that it was computed for. The steer motor is a NEO with a first order lag running the same P
+ * controller as the Spark MAX. Physics are integrated in {@link #SUBSTEP} steps in {@link #periodic(double)}.
+ */
+public class SimSwerveModuleIO implements SwerveModuleIO {
+    /**
+     * Length of an integration step (in seconds). The Spark MAX runs its position loop at 1 kHz
+     */
+    private static final double SUBSTEP = 0.001;
+
+    /**
+     * The longest time that we'll simulate in one cycle (in seconds). Longer gaps (ex. when the drive is paused) are cut short.
+     */
+    private static final double MAX_DT = 0.1;
+
+    private static final double MAX_VOLTAGE = 12;
+    private static final double DRIVE_CURRENT_LIMIT = 30;
+    private static final double STEER_CURRENT_LIMIT = 15;
+
+    /**
+     * Voltage used by the Spark MAX's voltage compensation (see {@link frc.utility.controllers.LazyCANSparkMax})
+     */
+    private static final double COMPENSATION_VOLTAGE = 10;
+
+    /**
+     * Degrees that the module turns per rotation of the steer motor
+     */
+    private static final double STEER_DEGREES_PER_ROTATION = 8.1503;
+
+    private static final DCMotor NEO = DCMotor.getNEO(1);
+
+    /**
+     * Speed of the module at full output (in degrees/s)
+     */
+    private static final double STEER_MAX_SPEED = NEO.freeSpeedRadPerSec * (COMPENSATION_VOLTAGE / NEO.nominalVoltageVolts)
+            / (2 * Math.PI) * STEER_DEGREES_PER_ROTATION;
+
+    /**
+     * How long the steer motor takes to reach 63% of a new speed (in seconds)
+     */
+    private static final double STEER_TIME_CONSTANT = 0.03;
+
+    private final SimpleMotorFeedforward driveFeedforward;
+
+    private double lastTimestamp = Double.NaN;
+
+    // Drive motor state. The sensor values are volatile because the odometry thread reads them.
+    private double driveVoltage = 0;
+    private volatile double driveVelocity = 0;
+    private volatile double drivePosition = 0;
+    private double driveCurrent = 0;
+
+    // Steer motor state
+    private boolean steerClosedLoop = false;
+    private double steerTarget = 0;
+    private volatile double steerPosition;
+    private double steerVelocity = 0;
+    private double steerCurrent = 0;
+
+    /**
+     * @param module       The index of the module (used to pick its {@link Constants#DRIVE_FEEDFORWARD})
+     * @param initialAngle The angle that the module starts at (in degrees)
+     */
+    public SimSwerveModuleIO(int module, double initialAngle) {
+        driveFeedforward = Constants.DRIVE_FEEDFORWARD[module];
+        steerPosition = initialAngle;
+    }
+
+    public SimSwerveModuleIO(int module) {
+        this(module, 0);
+    }
+
+    @Override
+    public void periodic(double timestamp) {
+        double dt = Double.isNaN(lastTimestamp) ? 0 : Math.min(timestamp - lastTimestamp, MAX_DT);
+        lastTimestamp = timestamp;
+
+        for (double t = 0; t < dt - 1e-9; t += SUBSTEP) {
+            step(Math.min(SUBSTEP, dt - t));
+        }
+    }
+
+    private void step(double dt) {
+        // Drive: V = kS * sign(v) + kV * v + kA * a
+        double staticVoltage = driveFeedforward.ks * Math.signum(driveVelocity == 0 ? driveVoltage : driveVelocity);
+        if (driveVelocity == 0 && Math.abs(driveVoltage) <= driveFeedforward.ks) {
+            staticVoltage = driveVoltage; // Static friction holds the wheel still
+        }
+        double driveAcceleration = (driveVoltage - staticVoltage - driveFeedforward.kv * driveVelocity) / driveFeedforward.ka;
+        double newDriveVelocity = driveVelocity + driveAcceleration * dt;
+        if (driveVelocity != 0 && Math.signum(newDriveVelocity) != Math.signum(driveVelocity)
+                && Math.abs(driveVoltage) <= driveFeedforward.ks) {
+            newDriveVelocity = 0; // Friction stopped the wheel. It won't push it backwards.
+        }
+        drivePosition += (driveVelocity + newDriveVelocity) / 2 * dt;
+        driveVelocity = newDriveVelocity;
+        double driveMotorSpeed = driveVelocity / Constants.SWERVE_METER_PER_ROTATION * 2 * Math.PI;
+        driveCurrent = MathUtil.clamp(NEO.getCurrent(driveMotorSpeed, driveVoltage), -DRIVE_CURRENT_LIMIT, DRIVE_CURRENT_LIMIT);
+
+        // Steer: P controller like the one on the Spark MAX, then a first order lag to the motor's speed
+        double steerOutput = steerClosedLoop ?
+                MathUtil.clamp(Constants.SWERVE_DRIVE_P * (steerTarget - steerPosition), -1, 1) : 0;
+        steerVelocity += (steerOutput * STEER_MAX_SPEED - steerVelocity) * (dt / STEER_TIME_CONSTANT);
+        steerPosition += steerVelocity * dt;
+        double steerMotorSpeed = steerVelocity / STEER_DEGREES_PER_ROTATION * 2 * Math.PI;
+        steerCurrent = MathUtil.clamp(NEO.getCurrent(steerMotorSpeed, steerOutput * COMPENSATION_VOLTAGE),
+                -STEER_CURRENT_LIMIT, STEER_CURRENT_LIMIT);
+    }
+
+    @Override
+    public double getDriveVelocity() {
+        return driveVelocity;
+    }
+
+    @Override
+    public double getDrivePosition() {
+        return drivePosition;
+    }
+
+    @Override
+    public double getDriveCurrent() {
+        return Math.abs(driveCurrent);
+    }
+
+    @Override
+    public double getSteerAngle() {
+        double angle = steerPosition % 360;
+        return angle < 0 ? angle + 360 : angle;
+    }
+
+    @Override
+    public double getSteerRelativePosition() {
+        return steerPosition;
+    }
+
+    @Override
+    public double getSteerCurrent() {
+        return Math.abs(steerCurrent);
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) {
+        driveVoltage = MathUtil.clamp(volts, -MAX_VOLTAGE, MAX_VOLTAGE);
+    }
+
+    @Override
+    public void setSteerPosition(double relativePosition) {
+        steerClosedLoop = true;
+        steerTarget = relativePosition;
+    }
+
+    @Override
+    public void stopSteer() {
+        steerClosedLoop = false;
+    }
+}
@@ -0,0 +1,174 @@
+package frc.subsystem.io;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxAnalogSensor;
+import com.revrobotics.SparkMaxPIDController;
+import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.wpilibj.DutyCycle;
+import frc.robot.Constants;
+import frc.utility.controllers.LazyCANSparkMax;
+import frc.utility.controllers.StatusFrameManager;
+import frc.utility.controllers.StatusFrameManager.RobotMode;
+
+/**
+ * A swerve module with a Spark MAX driving a NEO for each motor and an absolute encoder plugged into the DIO ports.
+ */
+public class SparkMaxSwerveModuleIO implements SwerveModuleIO {
+    /**
+     * Motor that is driving the robot around and causing it to move
+     */
+    private final LazyCANSparkMax driveMotor;
+    private final RelativeEncoder driveEncoder;
+
+    /**
+     * Motor that turns the wheel around
+     */
+    private final LazyCANSparkMax steerMotor;
+
+    /**
+     * Encoder for the motor that turns the wheel (NOT ABSOLUTE)
+     */
+    private final RelativeEncoder steerEncoder;
+
+    /**
+     * Absolute Encoder for the motor that turns the wheel
+     */
+    private final DutyCycle steerAbsoluteEncoder;
+    private final double absoluteEncoderOffset;
+
+    /**
+     * @param driveMotorId          The CAN id of the drive motor
+     * @param steerMotorId          The CAN id of the steer motor
+     * @param absoluteEncoderPort   The DIO port of the absolute encoder
+     * @param absoluteEncoderOffset Added to the angle of the absolute encoder (in degrees)
+     */
+    public SparkMaxSwerveModuleIO(int driveMotorId, int steerMotorId, int absoluteEncoderPort, double absoluteEncoderOffset) {
+        driveMotor = new LazyCANSparkMax(driveMotorId, MotorType.kBrushless);
+        steerMotor = new LazyCANSparkMax(steerMotorId, MotorType.kBrushless);
+        steerAbsoluteEncoder = new DutyCycle(new DigitalInput(absoluteEncoderPort));
+        this.absoluteEncoderOffset = absoluteEncoderOffset;
+
+        driveMotor.setInverted(false);
+
+        steerEncoder = steerMotor.getEncoder();
+        steerEncoder.setPositionConversionFactor(8.1503);// 8.1466);
+        driveEncoder = driveMotor.getEncoder();
+        driveEncoder.setPositionConversionFactor(1);
+        driveEncoder.setVelocityConversionFactor(1);
+
+        steerMotor.getAnalog(SparkMaxAnalogSensor.Mode.kAbsolute).setPositionConversionFactor(360 / 3.3);//105.88);
+
+        SparkMaxPIDController steerPID = steerMotor.getPIDController();
+        steerPID.setP(Constants.SWERVE_DRIVE_P);
+        steerPID.setD(Constants.SWERVE_DRIVE_D);
+        steerPID.setI(Constants.SWERVE_DRIVE_I);
+        steerPID.setFF(Constants.SWERVE_DRIVE_F);
+
+        steerMotor.setCommandTolerance(CANSparkMax.ControlType.kPosition, Constants.SWERVE_STEER_REFERENCE_TOLERANCE);
+        driveMotor.setCommandTolerance(CANSparkMax.ControlType.kVoltage, Constants.SWERVE_DRIVE_VOLTAGE_TOLERANCE);
+
+        // Status frames that the drive loop reads. Status 1 has velocity and current, Status 2 has position.
+        StatusFrameManager statusFrameManager = StatusFrameManager.getInstance();
+        statusFrameManager.require(steerMotor, PeriodicFrame.kStatus1, 100, RobotMode.values());
+        statusFrameManager.require(steerMotor, PeriodicFrame.kStatus2, 20, RobotMode.AUTONOMOUS, RobotMode.TELEOP,
+                RobotMode.TEST);
+        statusFrameManager.require(steerMotor, PeriodicFrame.kStatus2, 100, RobotMode.DISABLED);
+        statusFrameManager.requireUnused(steerMotor, PeriodicFrame.kStatus3); // Analog sensor isn't used
+        statusFrameManager.require(driveMotor, PeriodicFrame.kStatus1, 20, RobotMode.AUTONOMOUS, RobotMode.TELEOP,
+                RobotMode.TEST);
+        statusFrameManager.require(driveMotor, PeriodicFrame.kStatus1, 50, RobotMode.DISABLED);
+        if (Constants.HIGH_RATE_ODOMETRY) {
+            // The odometry integrates the drive position
+            statusFrameManager.require(driveMotor, PeriodicFrame.kStatus2, Constants.HIGH_RATE_ODOMETRY_PERIOD,
+                    RobotMode.AUTONOMOUS, RobotMode.TELEOP, RobotMode.TEST);
+            statusFrameManager.require(driveMotor, PeriodicFrame.kStatus2, 50, RobotMode.DISABLED);
+        } else {
+            statusFrameManager.requireUnused(driveMotor, PeriodicFrame.kStatus2); // Drive position isn't used
+        }
+        statusFrameManager.requireUnused(driveMotor, PeriodicFrame.kStatus3);
+
+        steerMotor.setSmartCurrentLimit(15);
+        driveMotor.setSmartCurrentLimit(30);
+
+        driveMotor.setIdleMode(IdleMode.kBrake);
+        steerMotor.setIdleMode(IdleMode.kBrake);
+        driveMotor.burnFlash();
+        steerMotor.burnFlash();
+    }
+
+    @Override
+    public double getDriveVelocity() {
+        return (driveEncoder.getVelocity() / 60d) * Constants.SWERVE_METER_PER_ROTATION;
+    }
+
+    @Override
+    public double getDrivePosition() {
+        return driveEncoder.getPosition() * Constants.SWERVE_METER_PER_ROTATION;
+    }
+
+    @Override
+    public double getDriveCurrent() {
+        return driveMotor.getOutputCurrent();
+    }
+
+    @Override
+    public double getSteerAngle() {
+        double angle = ((1 - steerAbsoluteEncoder.getOutput()) * 360) - 90 + absoluteEncoderOffset;
+        return angle < 0 ? angle + 360 : angle;
+    }
+
+    @Override
+    public double getSteerRelativePosition() {
+        return steerEncoder.getPosition();
+    }
+
+    @Override
+    public double getSteerCurrent() {
+        return steerMotor.getOutputCurrent();
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) {
+        driveMotor.setVoltage(volts);
+    }
+
+    @Override
+    public void setSteerPosition(double relativePosition) {
+        steerMotor.setReference(relativePosition, CANSparkMax.ControlType.kPosition);
+    }
+
+    @Override
+    public void stopSteer() {
+        steerMotor.set(0);
+    }
+
+    @Override
+    public void flush() {
+        steerMotor.flush();
+        driveMotor.flush();
+    }
+
+    @Override
+    public long getDriveFramesSent() {
+        return driveMotor.getFramesSent();
+    }
+
+    @Override
+    public long getDriveFramesSuppressed() {
+        return driveMotor.getFramesSuppressed();
+    }
+
+    @Override
+    public long getSteerFramesSent() {
+        return steerMotor.getFramesSent();
+    }
+
+    @Override
+    public long getSteerFramesSuppressed() {
+        return steerMotor.getFramesSuppressed();
+    }
+}
@@ -0,0 +1,99 @@
+package frc.subsystem.io;
+
+/**
+ * The hardware of one swerve module. {@link frc.subsystem.Drive} only talks to the modules through this interface so that it can
+ * run on the robot ({@link SparkMaxSwerveModuleIO}) or on a desktop ({@link SimSwerveModuleIO}).
+ * <p>
+ * Implementations are only used from the drive loop and don't need to be thread safe, except for the sensor getters
+ * ({@link #getDriveVelocity()}, {@link #getDrivePosition()} and {@link #getSteerAngle()}) which are also read by the high rate
+ * odometry thread.
+ */
+public interface SwerveModuleIO {
+
+    /**
+     * Called once at the start of every drive cycle before any of the sensors are read.
+     *
+     * @param timestamp The time of the cycle (in seconds)
+     */
+    default void periodic(double timestamp) {}
+
+    /**
+     * @return The velocity of the wheel (in m/s)
+     */
+    double getDriveVelocity();
+
+    /**
+     * @return How far the wheel has rolled (in m)
+     */
+    double getDrivePosition();
+
+    /**
+     * @return The current used by the drive motor (in amps)
+     */
+    double getDriveCurrent();
+
+    /**
+     * @return The absolute angle of the module (in degrees from 0 to 360)
+     */
+    double getSteerAngle();
+
+    /**
+     * @return The angle of the module from the steer motor's encoder (in degrees). This isn't wrapped and has an arbitrary zero.
+     */
+    double getSteerRelativePosition();
+
+    /**
+     * @return The current used by the steer motor (in amps)
+     */
+    double getSteerCurrent();
+
+    /**
+     * @param volts The voltage to apply to the drive motor
+     */
+    void setDriveVoltage(double volts);
+
+    /**
+     * Turns the module to an angle using the closed loop controller on the steer motor.
+     *
+     * @param relativePosition The target angle in the same units as {@link #getSteerRelativePosition()}
+     */
+    void setSteerPosition(double relativePosition);
+
+    /**
+     * Stops the steer motor.
+     */
+    void stopSteer();
+
+    /**
+     * Sends the commands from this cycle. Called once at the end of every drive cycle.
+     */
+    default void flush() {}
+
+    /**
+     * @return The number of commands sent to the drive motor
+     */
+    default long getDriveFramesSent() {
+        return 0;
+    }
+
+    /**
+     * @return The number of commands to the drive motor that weren't sent because they didn't change
+     */
+    default long getDriveFramesSuppressed() {
+        return 0;
+    }
+
+    /**
+     * @return The number of commands sent to the steer motor
+     */
+    default long getSteerFramesSent() {
+        return 0;
+    }
+
+    /**
+     * @return The number of commands to the steer motor that weren't sent because they didn't change
+     */
+    default long getSteerFramesSuppressed() {
+        return 0;
+    }
+}
@@ -0,0 +1,97 @@
+package frc.utility;
+
+/**
+ * Source of time and sleeping for the robot code.
+ * <p>
+ * Code that needs the time or needs to wait should go through {@link #getInstance()} instead of calling
+ * {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp()}, {@link System#nanoTime()} or {@link Thread#sleep(long)} directly. On
+ * the robot this is a {@link SystemClock}. Tests can install a {@link VirtualClock} with {@link #setInstance(Clock)} to run
+ * autos faster than real time.
+ */
+public interface Clock {
+
+    /**
+     * @return The clock that the robot code should use
+     */
+    static Clock getInstance() {
+        return ClockHolder.clock;
+    }
+
+    /**
+     * Changes the clock that the robot code uses. This must be called before any subsystem is created.
+     */
+    static void setInstance(Clock clock) {
+        ClockHolder.clock = clock;
+    }
+
+    /**
+     * @return The current time in nanoseconds. Only differences between values are meaningful (like {@link System#nanoTime()})
+     */
+    long nanoTime();
+
+    /**
+     * @param nanoTime A value from {@link #nanoTime()}
+     * @return The time in seconds, in the same timebase as {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp()}
+     */
+    double toTimestamp(long nanoTime);
+
+    /**
+     * @return The current time in seconds, in the same timebase as {@link edu.wpi.first.wpilibj.Timer#getFPGATimestamp()}
+     */
+    default double getTimestamp() {
+        return toTimestamp(nanoTime());
+    }
+
+    /**
+     * Waits until {@link #nanoTime()} reaches the deadline.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    void sleepUntil(long deadline) throws InterruptedException;
+
+    /**
+     * Waits for the given amount of time. Same as {@link Thread#sleep(long)}.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    default void sleep(long millis) throws InterruptedException {
+        sleepUntil(nanoTime() + millis * 1_000_000);
+    }
+
+    /**
+     * Waits until the deadline has passed or {@link #unpark(Thread)} is called for this thread. Like
+     * {@link java.util.concurrent.locks.LockSupport#parkNanos(long)} it can return early (ex. when the thread is interrupted).
+     */
+    void parkUntil(long deadline);
+
+    /**
+     * Waits until {@link #unpark(Thread)} is called for this thread. Like {@link java.util.concurrent.locks.LockSupport#park()}
+     * it can return early (ex. when the thread is interrupted).
+     */
+    void park();
+
+    /**
+     * Wakes up a thread that is waiting in {@link #park()} or {@link #parkUntil(long)}, or makes its next park return right away.
+     */
+    void unpark(Thread thread);
+
+    /**
+     * Tells the clock that a thread runs robot code. A {@link VirtualClock} only moves time forward once every registered thread
+     * is waiting. Does nothing on a {@link SystemClock}.
+     * <p>
+     * Register a thread before starting it, so that time can't move before it runs for the first time.
+     */
+    default void registerThread(Thread thread) {}
+
+    /**
+     * Same as {@link #registerThread(Thread)} for the current thread
+     */
+    default void registerCurrentThread() {
+        registerThread(Thread.currentThread());
+    }
+
+    /**
+     * Undoes {@link #registerCurrentThread()}. Call this before a registered thread finishes.
+     */
+    default void unregisterCurrentThread() {}
+}
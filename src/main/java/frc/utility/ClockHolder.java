@@ -0,0 +1,10 @@
+package frc.utility;
+
+/**
+ * Holds the clock returned by {@link Clock#getInstance()}. Interfaces can't have mutable static fields.
+ */
+final class ClockHolder {
+    static volatile Clock clock = SystemClock.getInstance();
+
+    private ClockHolder() {}
+}
@@ -0,0 +1,243 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A trajectory stored as parallel arrays of primitives instead of a list of {@link Trajectory.State} objects.
+ * <p>
+ * {@link #sample(double, Sample)} gives the same result as {@link Trajectory#sample(double)} but writes it into a {@link Sample}
+ * owned by the caller, so sampling doesn't allocate. Instead of a binary search it uses a table of the first state in each
+ * equal-length time bucket, which makes a lookup constant time for trajectories whose states are roughly evenly spaced.
+ * <p>
+ * This class is immutable and can be shared between threads.
+ */
+public final class CompactTrajectory {
+
+    /**
+     * A state of the trajectory. Reuse one of these for every call to {@link #sample(double, Sample)}.
+     */
+    public static final class Sample {
+        public double timeSeconds;
+        public double x;
+        public double y;
+        /**
+         * Heading of the path (in radians from -pi to pi)
+         */
+        public double heading;
+        public double velocity;
+        public double acceleration;
+        public double curvature;
+
+        /**
+         * Allocates a WPILib state with the same values.
+         */
+        public @NotNull Trajectory.State toState() {
+            return new Trajectory.State(timeSeconds, velocity, acceleration,
+                    new Pose2d(x, y, new Rotation2d(heading)), curvature);
+        }
+    }
+
+    private final double[] times;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+    private final double[] velocities;
+    private final double[] accelerations;
+    private final double[] curvatures;
+
+    private final double startTime;
+    private final double totalTime;
+
+    /**
+     * The index of the first state with a time that is >= the start of each bucket. Bucket k starts at
+     * {@code startTime + k * bucketWidth}
+     */
+    private final int[] bucketStartIndices;
+    private final double bucketWidth;
+
+    public CompactTrajectory(@NotNull Trajectory trajectory) {
+        this(trajectory.getStates());
+    }
+
+    /**
+     * @param states The states of the trajectory sorted by time. The list isn't kept.
+     */
+    public CompactTrajectory(@NotNull List<Trajectory.State> states) {
+        this(column(states, state -> state.timeSeconds),
+                column(states, state -> state.poseMeters.getX()),
+                column(states, state -> state.poseMeters.getY()),
+                column(states, state -> state.poseMeters.getRotation().getRadians()),
+                column(states, state -> state.velocityMetersPerSecond),
+                column(states, state -> state.accelerationMetersPerSecondSq),
+                column(states, state -> state.curvatureRadPerMeter));
+    }
+
+    /**
+     * Creates a trajectory straight from its columns (ex. when it's read from a file without creating
+     * {@link Trajectory.State}s). Each array has a value for each state and the states are sorted by time. The arrays are kept,
+     * so they must not be changed afterwards.
+     *
+     * @param headings Heading of the path at each state (in radians)
+     */
+    public CompactTrajectory(double @NotNull [] times, double @NotNull [] xs, double @NotNull [] ys,
+                             double @NotNull [] headings, double @NotNull [] velocities, double @NotNull [] accelerations,
+                             double @NotNull [] curvatures) {
+        int size = times.length;
+        if (size == 0) {
+            throw new IllegalArgumentException("A trajectory needs at least one state");
+        }
+        if (xs.length != size || ys.length != size || headings.length != size || velocities.length != size
+                || accelerations.length != size || curvatures.length != size) {
+            throw new IllegalArgumentException("Every column needs a value for each state");
+        }
+        this.times = times;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.velocities = velocities;
+        this.accelerations = accelerations;
+        this.curvatures = curvatures;
+
+        startTime = times[0];
+        totalTime = times[size - 1];
+
+        // One bucket per state keeps the table small and the scans short
+        int bucketCount = Math.max(1, size);
+        bucketWidth = (totalTime - startTime) / bucketCount;
+        bucketStartIndices = new int[bucketCount + 1];
+        int index = 1;
+        for (int k = 0; k <= bucketCount; k++) {
+            double bucketStart = startTime + k * bucketWidth;
+            while (index < size - 1 && times[index] < bucketStart) {
+                index++;
+            }
+            bucketStartIndices[k] = Math.min(index, size - 1);
+        }
+    }
+
+    /**
+     * Samples the trajectory at a point in time. Gives the same result as {@link Trajectory#sample(double)}.
+     *
+     * @param timeSeconds The time to sample at
+     * @param out         Where the state is written to
+     * @return {@code out}
+     */
+    public @NotNull Sample sample(double timeSeconds, @NotNull Sample out) {
+        int size = times.length;
+        if (timeSeconds <= startTime) {
+            return copyState(0, out);
+        }
+        if (timeSeconds >= totalTime) {
+            return copyState(size - 1, out);
+        }
+
+        // Find the first state (after the first one) with a time that is >= timeSeconds
+        int bucket = bucketWidth > 0 ? (int) ((timeSeconds - startTime) / bucketWidth) : 0;
+        int index = bucketStartIndices[Math.min(bucket, bucketStartIndices.length - 1)];
+        while (index > 1 && times[index - 1] >= timeSeconds) {
+            index--; // Only happens when the bucket was rounded up
+        }
+        while (times[index] < timeSeconds) {
+            index++;
+        }
+
+        int prevIndex = index - 1;
+        if (Math.abs(times[index] - times[prevIndex]) < 1E-9) {
+            return copyState(index, out);
+        }
+        return interpolate(prevIndex, index, (timeSeconds - times[prevIndex]) / (times[index] - times[prevIndex]), out);
+    }
+
+    /**
+     * Same as {@link Trajectory.State#interpolate(Trajectory.State, double)}.
+     */
+    private @NotNull Sample interpolate(int start, int end, double i, @NotNull Sample out) {
+        double newT = lerp(times[start], times[end], i);
+        double deltaT = newT - times[start];
+
+        if (deltaT < 0) {
+            return interpolate(end, start, 1 - i, out);
+        }
+
+        double velocity = velocities[start];
+        double acceleration = accelerations[start];
+        boolean reversing = velocity < 0 || Math.abs(velocity) < 1E-9 && acceleration < 0;
+
+        double newV = velocity + (acceleration * deltaT);
+        double newS = (velocity * deltaT + 0.5 * acceleration * deltaT * deltaT) * (reversing ? -1.0 : 1.0);
+
+        double dx = xs[end] - xs[start];
+        double dy = ys[end] - ys[start];
+        double distance = Math.hypot(dx, dy);
+        // WPILib divides by zero here when two states are at the same position. We hold the start pose instead.
+        double interpolationFrac = distance == 0 ? 0 : newS / distance;
+
+        out.timeSeconds = newT;
+        out.velocity = newV;
+        out.acceleration = acceleration;
+        out.x = xs[start] + dx * interpolationFrac;
+        out.y = ys[start] + dy * interpolationFrac;
+        out.heading = normalizeAngle(headings[start] + normalizeAngle(headings[end] - headings[start]) * interpolationFrac);
+        out.curvature = lerp(curvatures[start], curvatures[end], interpolationFrac);
+        return out;
+    }
+
+    private @NotNull Sample copyState(int index, @NotNull Sample out) {
+        out.timeSeconds = times[index];
+        out.x = xs[index];
+        out.y = ys[index];
+        out.heading = headings[index];
+        out.velocity = velocities[index];
+        out.acceleration = accelerations[index];
+        out.curvature = curvatures[index];
+        return out;
+    }
+
+    private static double @NotNull [] column(@NotNull List<Trajectory.State> states,
+                                             @NotNull ToDoubleFunction<Trajectory.State> getter) {
+        double[] column = new double[states.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = getter.applyAsDouble(states.get(i));
+        }
+        return column;
+    }
+
+    private static double lerp(double startValue, double endValue, double t) {
+        return startValue + (endValue - startValue) * t;
+    }
+
+    /**
+     * @return The angle wrapped to -pi to pi like the value of a {@link Rotation2d}
+     */
+    private static double normalizeAngle(double radians) {
+        return Math.atan2(Math.sin(radians), Math.cos(radians));
+    }
+
+    /**
+     * @return The time of the last state (in seconds)
+     */
+    public double getTotalTimeSeconds() {
+        return totalTime;
+    }
+
+    /**
+     * @return The number of states in the trajectory
+     */
+    public int size() {
+        return times.length;
+    }
+
+    /**
+     * @return The pose of the first state. Allocates.
+     */
+    public @NotNull Pose2d getInitialPose() {
+        return new Pose2d(new Translation2d(xs[0], ys[0]), new Rotation2d(headings[0]));
+    }
+}
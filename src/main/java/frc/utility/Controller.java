@@ -4,6 +4,10 @@ package frc.utility;
 
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.Joystick;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+
+import java.util.Arrays;
 
 /**
  * This class stores the int sent back from the Driver Station and uses it to check for rising or falling edges
@@ -44,6 +48,11 @@ public class Controller extends Joystick {
     private double[] currentAxis;
     private int[] currentPOV;
 
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int inputLogId = dataLogger.register(LogSchemas.INPUT_CONTROLLER);
+    private final double[] inputLogValues = new double[LogSchemas.INPUT_CONTROLLER.getFieldCount()];
+    private final double[] lastInputLogValues = new double[LogSchemas.INPUT_CONTROLLER.getFieldCount()];
+
     public Controller(int port) {
         super(port);
         axisCount = DriverStation.getStickAxisCount(port);
@@ -51,6 +60,7 @@ public class Controller extends Joystick {
         oldAxis = new double[axisCount];
         currentAxis = new double[axisCount];
         currentPOV = new int[povCount];
+        Arrays.fill(lastInputLogValues, Double.NaN); // Always record the first update
     }
 
     /**
@@ -118,6 +128,29 @@ public class Controller extends Joystick {
         for (int i = 0; i < povCount; i++) {
             currentPOV[i] = DriverStation.getStickPOV(getPort(), i);
         }
+        recordInputs();
+    }
+
+    /**
+     * Records the state of the controller so that it can be replayed. Only written when it changes.
+     */
+    private void recordInputs() {
+        Arrays.fill(inputLogValues, 0);
+        inputLogValues[LogSchemas.INPUT_CONTROLLER_PORT] = getPort();
+        inputLogValues[LogSchemas.INPUT_CONTROLLER_BUTTONS] = currentButtons;
+        inputLogValues[LogSchemas.INPUT_CONTROLLER_AXIS_COUNT] = axisCount;
+        inputLogValues[LogSchemas.INPUT_CONTROLLER_POV_COUNT] = povCount;
+        for (int i = 0; i < Math.min(axisCount, LogSchemas.CONTROLLER_MAX_AXES); i++) {
+            inputLogValues[LogSchemas.INPUT_CONTROLLER_AXES + i] = currentAxis[i];
+        }
+        for (int i = 0; i < Math.min(povCount, LogSchemas.CONTROLLER_MAX_POVS); i++) {
+            inputLogValues[LogSchemas.INPUT_CONTROLLER_POVS + i] = currentPOV[i];
+        }
+
+        if (!Arrays.equals(inputLogValues, lastInputLogValues)) {
+            dataLogger.write(inputLogId, Clock.getInstance().getTimestamp(), inputLogValues);
+            System.arraycopy(inputLogValues, 0, lastInputLogValues, 0, inputLogValues.length);
+        }
     }
 
     @Override
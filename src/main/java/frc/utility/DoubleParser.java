@@ -0,0 +1,207 @@
+package frc.utility;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigInteger;
+
+/**
+ * Parses decimal numbers (like the ones in JSON) straight from a char array without allocating. The result is always exactly
+ * the same as {@link Double#parseDouble(String)}.
+ * <p>
+ * {@link Double#parseDouble(String)} needs a String and, for numbers with more than 15 digits (most of the doubles that Jackson
+ * writes), does big integer math that creates hundreds of bytes of garbage per number. This uses Clinger's fast path when it's
+ * exact and otherwise the Eisel-Lemire algorithm (Lemire, "Number Parsing at a Gigabyte per Second", 2021), which multiplies
+ * the digits by a 128 bit approximation of the power of ten and can tell when that isn't enough to round correctly. In those
+ * rare cases, and for anything that it doesn't understand (ex. more than 19 digits or NaN), it falls back to
+ * {@link Double#parseDouble(String)}.
+ */
+public final class DoubleParser {
+    private DoubleParser() {}
+
+    private static final int MAX_DIGITS = 19; // The most that always fit in a long (treated as unsigned)
+
+    private static final int SMALLEST_POWER = -342;
+    private static final int LARGEST_POWER = 308;
+
+    /**
+     * The most significant 128 bits of 5^q for each power q, normalized so that the top bit is set. Rounded up for negative q.
+     */
+    private static final long[] POWER_OF_FIVE_HIGH = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+    private static final long[] POWER_OF_FIVE_LOW = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22};
+
+    static {
+        BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                value = BigInteger.valueOf(5).pow(q);
+                int bits = value.bitLength();
+                value = bits < 128 ? value.shiftLeft(128 - bits) : value.shiftRight(bits - 128); // Truncated
+            } else {
+                BigInteger powerOfFive = BigInteger.valueOf(5).pow(-q);
+                int z = powerOfFive.bitLength(); // 2^(z-1) < 5^-q < 2^z
+                // Same as the table in the paper: exactly 128 bits when 5^-q fits in 64 bits, otherwise more and truncated
+                int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(powerOfFive).add(BigInteger.ONE);
+                while (value.compareTo(twoTo128) >= 0) {
+                    value = value.shiftRight(1);
+                }
+            }
+            POWER_OF_FIVE_HIGH[q - SMALLEST_POWER] = value.shiftRight(64).longValue();
+            POWER_OF_FIVE_LOW[q - SMALLEST_POWER] = value.longValue();
+        }
+    }
+
+    /**
+     * @param chars  The text of the number (ex. -1.25e-3)
+     * @param offset Where the number starts
+     * @param length How many chars long it is
+     * @throws NumberFormatException If it's not a number
+     */
+    public static double parse(char @NotNull [] chars, int offset, int length) {
+        int end = offset + length;
+        int index = offset;
+        boolean negative = false;
+        if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+            negative = chars[index] == '-';
+            index++;
+        }
+
+        long significand = 0;
+        int digits = 0; // Significant digits in the significand (leading zeros aren't counted)
+        int power = 0; // The number is significand * 10^power
+        boolean sawDigit = false;
+        for (; index < end && isDigit(chars[index]); index++) {
+            sawDigit = true;
+            if (significand != 0 || chars[index] != '0') {
+                if (++digits > MAX_DIGITS) {
+                    return fallback(chars, offset, length);
+                }
+                significand = significand * 10 + (chars[index] - '0');
+            }
+        }
+        if (index < end && chars[index] == '.') {
+            for (index++; index < end && isDigit(chars[index]); index++) {
+                sawDigit = true;
+                if (significand != 0 || chars[index] != '0') {
+                    if (++digits > MAX_DIGITS) {
+                        return fallback(chars, offset, length);
+                    }
+                    significand = significand * 10 + (chars[index] - '0');
+                }
+                power--;
+            }
+        }
+        if (!sawDigit) {
+            return fallback(chars, offset, length); // Ex. NaN or Infinity
+        }
+        if (index < end && (chars[index] == 'e' || chars[index] == 'E')) {
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+                negativeExponent = chars[index] == '-';
+                index++;
+            }
+            if (index == end) {
+                return fallback(chars, offset, length);
+            }
+            int exponent = 0;
+            for (; index < end && isDigit(chars[index]); index++) {
+                if (exponent > 100_000) {
+                    return fallback(chars, offset, length); // Far out of range. Let the JDK decide if it's 0 or infinite.
+                }
+                exponent = exponent * 10 + (chars[index] - '0');
+            }
+            power += negativeExponent ? -exponent : exponent;
+        }
+        if (index != end) {
+            return fallback(chars, offset, length);
+        }
+
+        if (significand == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        // Clinger's fast path: the significand and the power of ten are both exact doubles, so one operation rounds correctly
+        if (power >= -22 && power <= 22 && Long.compareUnsigned(significand, 1L << 53) <= 0) {
+            double value = significand;
+            value = power < 0 ? value / EXACT_POWERS_OF_TEN[-power] : value * EXACT_POWERS_OF_TEN[power];
+            return negative ? -value : value;
+        }
+
+        long bits = eiselLemire(significand, power);
+        if (bits < 0) {
+            return fallback(chars, offset, length);
+        }
+        return Double.longBitsToDouble(bits | (negative ? Long.MIN_VALUE : 0));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return The bits of significand * 10^power or -1 if it can't be rounded correctly this way
+     */
+    private static long eiselLemire(long significand, int power) {
+        if (power < SMALLEST_POWER || power > LARGEST_POWER) {
+            return -1;
+        }
+        long factorHigh = POWER_OF_FIVE_HIGH[power - SMALLEST_POWER];
+        // floor(log2(10^power)) + the bias and the shift of the product
+        long exponent = (((152170L + 65536L) * power) >> 16) + 1024 + 63;
+
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        long shifted = significand << leadingZeros;
+
+        long upper = unsignedMultiplyHigh(shifted, factorHigh);
+        long lower = shifted * factorHigh;
+        if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + shifted, lower) < 0) {
+            // The lower bits might carry into the bits we need, so use all 128 bits of the power
+            long factorLow = POWER_OF_FIVE_LOW[power - SMALLEST_POWER];
+            long productLow = shifted * factorLow;
+            long productMiddle = lower + unsignedMultiplyHigh(shifted, factorLow);
+            if (Long.compareUnsigned(productMiddle, lower) < 0) {
+                upper++;
+            }
+            if (productMiddle + 1 == 0 && (upper & 0x1FF) == 0x1FF
+                    && Long.compareUnsigned(productLow + shifted, productLow) < 0) {
+                return -1;
+            }
+            lower = productMiddle;
+        }
+
+        long upperBit = upper >>> 63;
+        long mantissa = upper >>> (upperBit + 9);
+        leadingZeros += (int) (1 ^ upperBit);
+        // Too close to halfway between two doubles to know which way to round
+        if ((upper & 0x1FF) == 0x1FF || (upper & 0x1FF) == 0 && (mantissa & 3) == 1) {
+            return -1;
+        }
+
+        mantissa += 1;
+        mantissa >>>= 1;
+        if (mantissa >= (1L << 53)) {
+            mantissa = 1L << 52;
+            leadingZeros--;
+        }
+        mantissa &= ~(1L << 52);
+        long realExponent = exponent - leadingZeros;
+        if (realExponent < 1 || realExponent > 2046) {
+            return -1; // Subnormal or infinite
+        }
+        return mantissa | realExponent << 52;
+    }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    private static double fallback(char @NotNull [] chars, int offset, int length) {
+        return Double.parseDouble(new String(chars, offset, length));
+    }
+}
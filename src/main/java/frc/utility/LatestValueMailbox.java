@@ -0,0 +1,32 @@
+package frc.utility;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock free single slot mailbox. Posting a new value replaces any value that hasn't been taken yet (latest wins), so the reader
+ * always gets the newest value and the writer never blocks.
+ *
+ * @param <T> The type of the value. Values should be immutable since they are shared between threads
+ */
+public final class LatestValueMailbox<T> {
+    private final AtomicReference<T> slot = new AtomicReference<>();
+
+    /**
+     * Puts a value in the mailbox, replacing the value that is currently in it
+     */
+    public void post(@NotNull T value) {
+        slot.set(value);
+    }
+
+    /**
+     * Takes the value out of the mailbox
+     *
+     * @return The latest value that was posted or null if nothing has been posted since the last call
+     */
+    public @Nullable T take() {
+        return slot.getAndSet(null);
+    }
+}
@@ -2,17 +2,44 @@ package frc.utility;
 
 import edu.wpi.first.networktables.EntryListenerFlags;
 import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * This class is used to get data from the limelight network tables
+ * <p>
+ * Each time the Limelight publishes a new latency (once per processed image) the values are read into an immutable
+ * {@link LimelightFrame}. The getters read from the latest frame, so they don't look up the entries and never mix values from
+ * different images. Use {@link #getLatestFrame()} to get several values from the same image.
  */
 public class Limelight {
     NetworkTable limelightTable;
     NetworkTable limelightGuiTable;
 
+    private final NetworkTableEntry tv;
+    private final NetworkTableEntry tx;
+    private final NetworkTableEntry ty;
+    private final NetworkTableEntry ta;
+    private final NetworkTableEntry ts;
+    private final NetworkTableEntry tl;
+
+    private volatile @NotNull LimelightFrame latestFrame = LimelightFrame.EMPTY;
+    private final CopyOnWriteArrayList<Consumer<LimelightFrame>> frameListeners = new CopyOnWriteArrayList<>();
+
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int inputLogId = dataLogger.register(LogSchemas.INPUT_LIMELIGHT);
+    /**
+     * Only accessed by the thread that delivers the frames
+     */
+    private final double[] inputLogValues = new double[LogSchemas.INPUT_LIMELIGHT.getFieldCount()];
+
     private static final Limelight limelight = new Limelight();
 
     public static Limelight getInstance() {
@@ -76,9 +103,14 @@ public class Limelight {
         limelightGuiTable.getEntry("CameraTargetHeightOffset").setDouble(Constants.CAMERA_TARGET_HEIGHT_OFFSET);
         limelightGuiTable.getEntry("CameraYAngle").setDouble(Constants.CAMERA_Y_ANGLE);
 
-        limelightTable.getEntry("tl").addListener(event -> {
-            lastUpdate = Timer.getFPGATimestamp();
-        }, EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
+        tv = limelightTable.getEntry("tv");
+        tx = limelightTable.getEntry("tx");
+        ty = limelightTable.getEntry("ty");
+        ta = limelightTable.getEntry("ta");
+        ts = limelightTable.getEntry("ts");
+        tl = limelightTable.getEntry("tl");
+
+        tl.addListener(event -> onFrame(), EntryListenerFlags.kNew | EntryListenerFlags.kUpdate);
 
         limelightGuiTable.getEntry("forceledon").addListener(event -> {
             if (event.getEntry().getBoolean(false)) {
@@ -88,54 +120,95 @@ public class Limelight {
     }
 
 
+    /**
+     * Runs on the NetworkTables listener thread when the Limelight has processed an image
+     */
+    private void onFrame() {
+        acceptFrame(new LimelightFrame(Clock.getInstance().getTimestamp(), tv.getDouble(0) == 1, tx.getDouble(0),
+                ty.getDouble(0), ta.getDouble(0), ts.getDouble(0), tl.getDouble(0)));
+    }
+
+    /**
+     * Handles a frame as if the Limelight had sent it. The robot gets its frames from NetworkTables, this is for replaying them.
+     */
+    public void acceptFrame(@NotNull LimelightFrame frame) {
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_TARGET_VISIBLE] = frame.isTargetVisible() ? 1 : 0;
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_HORIZONTAL_OFFSET] = frame.getHorizontalOffset();
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_VERTICAL_OFFSET] = frame.getVerticalOffset();
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_TARGET_AREA] = frame.getTargetArea();
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_TARGET_SKEW] = frame.getTargetSkew();
+        inputLogValues[LogSchemas.INPUT_LIMELIGHT_LATENCY] = frame.getLatency();
+        dataLogger.write(inputLogId, frame.getTimestamp(), inputLogValues);
+
+        latestFrame = frame;
+        for (Consumer<LimelightFrame> frameListener : frameListeners) {
+            frameListener.accept(frame);
+        }
+    }
+
+    /**
+     * @return The values from the latest image that the Limelight processed
+     */
+    public @NotNull LimelightFrame getLatestFrame() {
+        return latestFrame;
+    }
+
+    /**
+     * Calls the listener with every new frame. The listener runs on the NetworkTables listener thread, so it must be quick and
+     * must not block.
+     */
+    public void addFrameListener(@NotNull Consumer<LimelightFrame> listener) {
+        frameListeners.add(listener);
+    }
+
+    public void removeFrameListener(@NotNull Consumer<LimelightFrame> listener) {
+        frameListeners.remove(listener);
+    }
+
     /**
      * @return Whether the limelight has any valid targets
      */
     public boolean isTargetVisiable() {
-		return limelightTable.getEntry("tv").getDouble(0) == 1;
+        return latestFrame.isTargetVisible();
     }
 
-    double lastUpdate = 0;
-
     public boolean isConnected() {
-        //System.out.println(Timer.getFPGATimestamp() - lastUpdate);
-        return Timer.getFPGATimestamp() - lastUpdate < 2;
+        return Clock.getInstance().getTimestamp() - latestFrame.getTimestamp() < 2;
     }
 
     /**
      * @return Horizontal Offset From Crosshair To Target (LL1: -27 degrees to 27 degrees | LL2: -29.8 to 29.8 degrees)
      */
     public double getHorizontalOffset() {
-        return limelightTable.getEntry("tx").getDouble(0);
+        return latestFrame.getHorizontalOffset();
     }
 
     /**
      * @return Vertical Offset From Crosshair To Target (LL1: -20.5 degrees to 20.5 degrees | LL2: -24.85 to 24.85 degrees)
      */
     public double getVerticalOffset() {
-        return limelightTable.getEntry("ty").getDouble(0);
+        return latestFrame.getVerticalOffset();
     }
 
     /**
      * @return Target Area (0% of image to 100% of image)
      */
     public double getTagetArea() {
-        return limelightTable.getEntry("ta").getDouble(0);
+        return latestFrame.getTargetArea();
     }
 
     /**
      * @return Skew or rotation (-90 degrees to 0 degrees)
      */
     public double getTagetSkew() {
-        return limelightTable.getEntry("ts").getDouble(0);
+        return latestFrame.getTargetSkew();
     }
 
     /**
      * @return The pipeline’s latency contribution (ms). Add at least 11ms for image capture latency.
      */
     public double getLatency() {
-        return limelightTable.getEntry("ts").getDouble(0);
-
+        return latestFrame.getLatency();
     }
 
     /**
@@ -227,12 +300,7 @@ public class Limelight {
      * @see https://docs.limelightvision.io/en/latest/cs_estimating_distance.html
      */
     public double getDistance() {
-        if (isTargetVisiable()) {
-            return (Constants.CAMERA_TARGET_HEIGHT_OFFSET) / Math.tan(
-                    Math.toRadians(Constants.CAMERA_Y_ANGLE + getVerticalOffset()));
-        } else {
-            return 0;
-        }
+        return latestFrame.getDistance();
     }
 
 
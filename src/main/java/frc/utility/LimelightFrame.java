@@ -0,0 +1,115 @@
+package frc.utility;
+
+import frc.robot.Constants;
+
+/**
+ * The values that the Limelight sent for one processed image. Immutable, so every value is from the same image.
+ */
+public final class LimelightFrame {
+    /**
+     * Latency of the image capture that isn't included in the pipeline latency (in ms)
+     */
+    public static final double CAPTURE_LATENCY_MS = 11;
+
+    /**
+     * Frame that is used before the Limelight has sent anything
+     */
+    static final LimelightFrame EMPTY = new LimelightFrame(Double.NEGATIVE_INFINITY, false, 0, 0, 0, 0, 0);
+
+    private final double timestamp;
+    private final boolean targetVisible;
+    private final double horizontalOffset;
+    private final double verticalOffset;
+    private final double targetArea;
+    private final double targetSkew;
+    private final double latency;
+
+    /**
+     * @param timestamp        When the values were received (in seconds, FPGA time)
+     * @param targetVisible    tv
+     * @param horizontalOffset tx (in degrees)
+     * @param verticalOffset   ty (in degrees)
+     * @param targetArea       ta (in % of the image)
+     * @param targetSkew       ts (in degrees)
+     * @param latency          tl (in ms)
+     */
+    public LimelightFrame(double timestamp, boolean targetVisible, double horizontalOffset, double verticalOffset,
+                          double targetArea, double targetSkew, double latency) {
+        this.timestamp = timestamp;
+        this.targetVisible = targetVisible;
+        this.horizontalOffset = horizontalOffset;
+        this.verticalOffset = verticalOffset;
+        this.targetArea = targetArea;
+        this.targetSkew = targetSkew;
+        this.latency = latency;
+    }
+
+    /**
+     * @return When the values were received (in seconds, FPGA time)
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return When the image was taken (in seconds, FPGA time). Use this to match the frame with the pose of the robot.
+     */
+    public double getCaptureTimestamp() {
+        return timestamp - (latency + CAPTURE_LATENCY_MS) / 1000;
+    }
+
+    /**
+     * @return Whether the limelight has any valid targets
+     */
+    public boolean isTargetVisible() {
+        return targetVisible;
+    }
+
+    /**
+     * @return Horizontal Offset From Crosshair To Target (LL1: -27 degrees to 27 degrees | LL2: -29.8 to 29.8 degrees)
+     */
+    public double getHorizontalOffset() {
+        return horizontalOffset;
+    }
+
+    /**
+     * @return Vertical Offset From Crosshair To Target (LL1: -20.5 degrees to 20.5 degrees | LL2: -24.85 to 24.85 degrees)
+     */
+    public double getVerticalOffset() {
+        return verticalOffset;
+    }
+
+    /**
+     * @return Target Area (0% of image to 100% of image)
+     */
+    public double getTargetArea() {
+        return targetArea;
+    }
+
+    /**
+     * @return Skew or rotation (-90 degrees to 0 degrees)
+     */
+    public double getTargetSkew() {
+        return targetSkew;
+    }
+
+    /**
+     * @return The pipeline's latency contribution (ms). Add at least 11ms for image capture latency.
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return Distance from the limelight to the target in cm
+     * @see https://docs.limelightvision.io/en/latest/cs_estimating_distance.html
+     */
+    public double getDistance() {
+        if (targetVisible) {
+            return (Constants.CAMERA_TARGET_HEIGHT_OFFSET) / Math.tan(
+                    Math.toRadians(Constants.CAMERA_Y_ANGLE + verticalOffset));
+        } else {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package frc.utility;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed bucket histogram of loop times. Recording a sample never allocates or locks so it is safe to call from a control loop
+ * while another thread reads the percentiles.
+ * <p>
+ * Samples are put in {@link #BUCKET_WIDTH_NANOS} wide buckets up to {@link #MAX_TRACKED_NANOS}. Anything longer goes in an
+ * overflow bucket (the exact max is still tracked).
+ */
+public class LoopTimeHistogram {
+    public static final long BUCKET_WIDTH_NANOS = 20_000; // 20 us
+    public static final long MAX_TRACKED_NANOS = 50_000_000; // 50 ms
+    private static final int BUCKET_COUNT = (int) (MAX_TRACKED_NANOS / BUCKET_WIDTH_NANOS);
+
+    /**
+     * The last bucket is the overflow bucket
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param durationNanos How long the loop took in nanoseconds
+     */
+    public void record(long durationNanos) {
+        int bucket = (int) Math.min(Math.max(durationNanos, 0) / BUCKET_WIDTH_NANOS, BUCKET_COUNT);
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+
+        long currentMax;
+        while (durationNanos > (currentMax = max.get())) {
+            if (max.compareAndSet(currentMax, durationNanos)) break;
+        }
+    }
+
+    /**
+     * @return The number of samples recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The longest sample recorded in milliseconds
+     */
+    public double getMaxMs() {
+        return max.get() / 1.0e6;
+    }
+
+    /**
+     * Finds the value that the given fraction of samples are less than or equal to. The result is rounded up to the top of the
+     * bucket it falls in. If the percentile falls in the overflow bucket the max is returned.
+     *
+     * @param percentile The percentile to get (0 to 1). Ex. 0.99 for p99
+     * @return The percentile in milliseconds or 0 if there are no samples
+     */
+    public double getPercentileMs(double percentile) {
+        long totalCount = count.get();
+        if (totalCount == 0) return 0;
+
+        long targetRank = Math.max(1, (long) Math.ceil(percentile * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= targetRank) {
+                return Math.min((i + 1) * BUCKET_WIDTH_NANOS, max.get()) / 1.0e6;
+            }
+        }
+        return getMaxMs();
+    }
+
+    /**
+     * Clears all the samples. Samples recorded while the reset is happening may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        max.set(0);
+    }
+}
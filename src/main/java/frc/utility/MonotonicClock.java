@@ -0,0 +1,137 @@
+package frc.utility;
+
+import edu.wpi.first.wpilibj.Timer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A cheap clock in the same timebase as {@link Timer#getFPGATimestamp()}.
+ * <p>
+ * Reading the FPGA timestamp is a JNI call into the HAL. This clock instead uses {@link System#nanoTime()} plus an offset that is
+ * measured against the FPGA clock. A thread measures the offset again every second to follow the drift between the two clocks.
+ * The offset is moved toward each new measurement slowly instead of being replaced, so the time never jumps or goes backwards.
+ */
+public final class MonotonicClock {
+    private MonotonicClock() {}
+
+    /**
+     * How often the offset is measured (in ms)
+     */
+    private static final long CALIBRATION_PERIOD = 1000;
+
+    /**
+     * Measurements where reading the FPGA clock took longer than this (in ns) are thrown away. The thread was most likely
+     * preempted in the middle, so we don't know when the FPGA was read.
+     */
+    private static final long MAX_READ_NANOS = 50_000;
+
+    /**
+     * How many times to read the clocks for a measurement. The quickest read is used.
+     */
+    private static final int READ_ATTEMPTS = 5;
+
+    /**
+     * How fast (in ns per ns) the offset can move toward a new measurement. The clocks drift much less than this, and the time
+     * still moves forward at 99.9% of the real rate while the offset is moving back.
+     */
+    static final double MAX_SLEW_RATE = 1.0e-3;
+
+    private static volatile @NotNull Calibration calibration;
+
+    static {
+        Long offset = measureOffset(Long.MAX_VALUE);
+        assert offset != null;
+        calibration = new Calibration(System.nanoTime(), offset, offset);
+
+        Thread calibrationThread = new Thread(MonotonicClock::calibratePeriodically, "Monotonic Clock Calibration");
+        calibrationThread.setDaemon(true);
+        calibrationThread.start();
+    }
+
+    /**
+     * Reads both clocks a few times
+     *
+     * @param maxReadNanos The longest that a read can take
+     * @return FPGA time (in ns) minus {@link System#nanoTime()} from the quickest read or null if every read took too long
+     */
+    private static @Nullable Long measureOffset(long maxReadNanos) {
+        Long offset = null;
+        long quickestRead = maxReadNanos;
+        for (int i = 0; i < READ_ATTEMPTS; i++) {
+            long before = System.nanoTime();
+            double fpgaTimestamp = Timer.getFPGATimestamp();
+            long after = System.nanoTime();
+            if (after - before <= quickestRead) {
+                quickestRead = after - before;
+                // Assume the FPGA was read halfway through the call
+                offset = (long) (fpgaTimestamp * 1.0e9) - (before + (after - before) / 2);
+            }
+        }
+        return offset;
+    }
+
+    private static void calibrate() {
+        Long offset = measureOffset(MAX_READ_NANOS);
+        if (offset == null) {
+            return; // Try again next time
+        }
+        long now = System.nanoTime();
+        calibration = new Calibration(now, calibration.getOffset(now), offset);
+    }
+
+    @SuppressWarnings("BusyWait")
+    private static void calibratePeriodically() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            try {
+                Thread.sleep(CALIBRATION_PERIOD);
+            } catch (InterruptedException e) {
+                System.out.println("Monotonic clock calibration interrupted " + e.getMessage());
+            }
+            calibrate();
+        }
+    }
+
+    /**
+     * @return The current time in seconds, in the same timebase as {@link Timer#getFPGATimestamp()}
+     */
+    public static double getTimestamp() {
+        return toTimestamp(System.nanoTime());
+    }
+
+    /**
+     * @param nanoTime A value from {@link System#nanoTime()}
+     * @return The time in seconds, in the same timebase as {@link Timer#getFPGATimestamp()}
+     */
+    public static double toTimestamp(long nanoTime) {
+        return (nanoTime + calibration.getOffset(nanoTime)) * 1.0e-9;
+    }
+
+    /**
+     * The offset starting from one measurement and moving toward the next one at {@link #MAX_SLEW_RATE}
+     */
+    static final class Calibration {
+        private final long startTime;
+        private final long startOffset;
+        private final long targetOffset;
+
+        /**
+         * @param startTime    The {@link System#nanoTime()} that the offset starts moving at
+         * @param startOffset  The offset at the start time (in ns)
+         * @param targetOffset The measured offset (in ns)
+         */
+        Calibration(long startTime, long startOffset, long targetOffset) {
+            this.startTime = startTime;
+            this.startOffset = startOffset;
+            this.targetOffset = targetOffset;
+        }
+
+        /**
+         * @return FPGA time (in ns) minus {@link System#nanoTime()} at a time
+         */
+        long getOffset(long nanoTime) {
+            long maxChange = (long) (Math.max(0, nanoTime - startTime) * MAX_SLEW_RATE);
+            return startOffset + Math.max(-maxChange, Math.min(maxChange, targetOffset - startOffset));
+        }
+    }
+}
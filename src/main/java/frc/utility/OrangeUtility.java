@@ -257,13 +257,13 @@ public class OrangeUtility {
     }
 
     /**
-     * Encapsulates Thread.sleep to make code more readable.
+     * Encapsulates {@link Clock#sleep(long)} to make code more readable.
      *
      * @param millis the time to sleep
      */
     public static void sleep(long millis) {
         try {
-            Thread.sleep(millis);
+            Clock.getInstance().sleep(millis);
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,218 @@
+package frc.utility;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fuses odometry with delayed vision measurements.
+ * <p>
+ * The estimate is the odometry pose moved by an offset (a rigid transform): {@code estimate = offset * odometry}. When a vision
+ * measurement arrives, the estimator rewinds to the odometry pose at the time the image was taken (from a {@link PoseHistory}),
+ * pulls the estimate at that time towards the measurement and computes the offset that gives the corrected pose. Every odometry
+ * sample after the measurement is replayed with the new offset, which is the same as applying their odometry deltas on top of the
+ * corrected pose. Since the replay is just a change of offset, each measurement costs a binary search and a few trig functions no
+ * matter how late it is.
+ * <p>
+ * The weight of a measurement is computed the same way as WPILib's pose estimators, from the standard deviations of the odometry
+ * and of the measurement. Measurements that are older than the odometry history or older than the last measurement are ignored.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class PoseEstimator {
+    /**
+     * Number of offsets that are kept for looking up past estimates
+     */
+    private static final int OFFSET_HISTORY_SIZE = 32;
+
+    private final PoseHistory odometryHistory;
+
+    private final double translationVariance;
+    private final double rotationVariance;
+
+    // Ring of the offsets and the time (of the measurement) that they start at. The newest one is at offsetHead - 1.
+    private final double[] offsetTimes = new double[OFFSET_HISTORY_SIZE];
+    private final double[] offsetXs = new double[OFFSET_HISTORY_SIZE];
+    private final double[] offsetYs = new double[OFFSET_HISTORY_SIZE];
+    private final double[] offsetThetas = new double[OFFSET_HISTORY_SIZE];
+    private int offsetHead;
+    private int offsetCount;
+
+    private final double[] odometryPose = new double[3];
+
+    // The latest estimate
+    private double x, y, theta;
+
+    /**
+     * @param historySize       The number of odometry samples that are kept. Measurements older than this are ignored.
+     * @param translationStdDev How much the odometry x and y can be trusted (standard deviation in meters)
+     * @param rotationStdDev    How much the odometry rotation can be trusted (standard deviation in radians)
+     */
+    public PoseEstimator(int historySize, double translationStdDev, double rotationStdDev) {
+        odometryHistory = new PoseHistory(historySize);
+        translationVariance = translationStdDev * translationStdDev;
+        rotationVariance = rotationStdDev * rotationStdDev;
+        reset();
+    }
+
+    /**
+     * Forgets the odometry history and all the corrections. Call this when the odometry is reset.
+     */
+    public void reset() {
+        odometryHistory.clear();
+        offsetHead = 0;
+        offsetCount = 0;
+        pushOffset(Double.NEGATIVE_INFINITY, 0, 0, 0);
+    }
+
+    /**
+     * Adds an odometry sample. Samples must be added in order of time.
+     *
+     * @param timestamp     The time of the sample (in seconds)
+     * @param odometryX     X position from the odometry (in meters)
+     * @param odometryY     Y position from the odometry (in meters)
+     * @param odometryTheta Rotation from the odometry (in radians)
+     */
+    public void addOdometry(double timestamp, double odometryX, double odometryY, double odometryTheta) {
+        odometryHistory.add(timestamp, odometryX, odometryY, odometryTheta);
+        int newest = (offsetHead - 1) & (OFFSET_HISTORY_SIZE - 1);
+        applyOffset(newest, odometryX, odometryY, odometryTheta);
+        x = odometryPose[0];
+        y = odometryPose[1];
+        theta = odometryPose[2];
+    }
+
+    /**
+     * Corrects the estimate with a vision measurement. The latest estimate changes right away.
+     *
+     * @return false if the measurement was ignored because it was too old
+     */
+    public boolean addVisionMeasurement(@NotNull VisionMeasurement measurement) {
+        int newest = (offsetHead - 1) & (OFFSET_HISTORY_SIZE - 1);
+        if (odometryHistory.size() == 0 || measurement.timestamp < odometryHistory.getOldestTimestamp()
+                || measurement.timestamp < offsetTimes[newest]) {
+            return false;
+        }
+
+        // Rewind to where the odometry was when the image was taken
+        double timestamp = Math.min(measurement.timestamp, odometryHistory.getNewestTimestamp());
+        odometryHistory.getPose(timestamp, odometryPose);
+        double odometryX = odometryPose[0];
+        double odometryY = odometryPose[1];
+        double odometryTheta = odometryPose[2];
+        applyOffset(newest, odometryX, odometryY, odometryTheta);
+
+        // Pull the estimate at that time towards the measurement
+        double translationGain = gain(translationVariance, measurement.translationStdDev);
+        double correctedX = odometryPose[0] + (measurement.x - odometryPose[0]) * translationGain;
+        double correctedY = odometryPose[1] + (measurement.y - odometryPose[1]) * translationGain;
+        double correctedTheta = odometryPose[2];
+        if (measurement.hasRotation()) {
+            correctedTheta += normalizeAngle(measurement.theta - odometryPose[2])
+                    * gain(rotationVariance, measurement.rotationStdDev);
+        }
+
+        // The offset that moves the odometry pose at that time to the corrected pose (corrected * odometry^-1)
+        double offsetTheta = correctedTheta - odometryTheta;
+        double cos = Math.cos(offsetTheta);
+        double sin = Math.sin(offsetTheta);
+        pushOffset(timestamp, correctedX - (odometryX * cos - odometryY * sin),
+                correctedY - (odometryX * sin + odometryY * cos), offsetTheta);
+
+        // Replay the odometry since the measurement
+        odometryHistory.getPose(odometryHistory.getNewestTimestamp(), odometryPose);
+        applyOffset((offsetHead - 1) & (OFFSET_HISTORY_SIZE - 1), odometryPose[0], odometryPose[1], odometryPose[2]);
+        x = odometryPose[0];
+        y = odometryPose[1];
+        theta = odometryPose[2];
+        return true;
+    }
+
+    /**
+     * Same as the gain of WPILib's pose estimators for one axis
+     */
+    private static double gain(double stateVariance, double measurementStdDev) {
+        double measurementVariance = measurementStdDev * measurementStdDev;
+        if (stateVariance == 0) {
+            return 0;
+        }
+        return stateVariance / (stateVariance + Math.sqrt(stateVariance * measurementVariance));
+    }
+
+    private void pushOffset(double timestamp, double offsetX, double offsetY, double offsetTheta) {
+        offsetTimes[offsetHead] = timestamp;
+        offsetXs[offsetHead] = offsetX;
+        offsetYs[offsetHead] = offsetY;
+        offsetThetas[offsetHead] = offsetTheta;
+        offsetHead = (offsetHead + 1) & (OFFSET_HISTORY_SIZE - 1);
+        if (offsetCount < OFFSET_HISTORY_SIZE) {
+            offsetCount++;
+        }
+    }
+
+    /**
+     * Moves an odometry pose by an offset. The result is written to {@link #odometryPose}.
+     */
+    private void applyOffset(int offset, double odometryX, double odometryY, double odometryTheta) {
+        double cos = Math.cos(offsetThetas[offset]);
+        double sin = Math.sin(offsetThetas[offset]);
+        odometryPose[0] = offsetXs[offset] + odometryX * cos - odometryY * sin;
+        odometryPose[1] = offsetYs[offset] + odometryX * sin + odometryY * cos;
+        odometryPose[2] = normalizeAngle(odometryTheta + offsetThetas[offset]);
+    }
+
+    private static double normalizeAngle(double radians) {
+        return Math.atan2(Math.sin(radians), Math.cos(radians));
+    }
+
+    /**
+     * Finds the estimated pose at a point in time, with every correction that has been made since. Times outside the odometry
+     * history get the oldest or newest pose.
+     *
+     * @param timestamp The time to look up (in seconds)
+     * @param out       The x (in meters), y (in meters) and rotation (in radians from -pi to pi) are written here
+     * @return false if there is no odometry yet (nothing is written to out)
+     */
+    public boolean getPose(double timestamp, double @NotNull [] out) {
+        if (!odometryHistory.getPose(timestamp, odometryPose)) {
+            return false;
+        }
+        double lookupTime = Math.max(timestamp, odometryHistory.getOldestTimestamp());
+        lookupTime = Math.min(lookupTime, odometryHistory.getNewestTimestamp());
+
+        // Find the newest offset that started before the time. If they're all newer, the oldest one we have is the best guess.
+        int offset = (offsetHead - offsetCount) & (OFFSET_HISTORY_SIZE - 1);
+        for (int i = 1; i <= offsetCount; i++) {
+            int index = (offsetHead - i) & (OFFSET_HISTORY_SIZE - 1);
+            if (offsetTimes[index] <= lookupTime) {
+                offset = index;
+                break;
+            }
+        }
+
+        applyOffset(offset, odometryPose[0], odometryPose[1], odometryPose[2]);
+        out[0] = odometryPose[0];
+        out[1] = odometryPose[1];
+        out[2] = odometryPose[2];
+        return true;
+    }
+
+    /**
+     * @return X position of the latest estimate (in meters)
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y position of the latest estimate (in meters)
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return Rotation of the latest estimate (in radians from -pi to pi)
+     */
+    public double getTheta() {
+        return theta;
+    }
+}
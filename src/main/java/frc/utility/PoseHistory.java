@@ -0,0 +1,167 @@
+package frc.utility;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A fixed size circular buffer of timestamped poses that can be looked up at any time.
+ * <p>
+ * The poses are stored in primitive arrays so adding and looking up poses doesn't allocate. Once the buffer is full the oldest
+ * pose is overwritten. Lookups use a binary search and interpolate between the two poses around the timestamp.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class PoseHistory {
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] thetas;
+    private final int mask;
+
+    /**
+     * Index that the next pose will be written to
+     */
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * @param capacity The number of poses that are kept. Rounded up to a power of two.
+     */
+    public PoseHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int roundedCapacity = Integer.highestOneBit(capacity);
+        if (roundedCapacity < capacity) {
+            roundedCapacity <<= 1;
+        }
+        timestamps = new double[roundedCapacity];
+        xs = new double[roundedCapacity];
+        ys = new double[roundedCapacity];
+        thetas = new double[roundedCapacity];
+        mask = roundedCapacity - 1;
+    }
+
+    /**
+     * Adds a pose to the history. Poses must be added in order of time; a pose older than the newest one is ignored and a pose
+     * with the same timestamp as the newest one replaces it.
+     *
+     * @param timestamp The time of the pose (in seconds)
+     * @param x         X position (in meters)
+     * @param y         Y position (in meters)
+     * @param theta     Rotation (in radians)
+     */
+    public void add(double timestamp, double x, double y, double theta) {
+        if (size > 0) {
+            double newestTimestamp = getNewestTimestamp();
+            if (timestamp < newestTimestamp) {
+                return;
+            }
+            if (timestamp == newestTimestamp) {
+                head = (head - 1) & mask;
+                size--;
+            }
+        }
+
+        timestamps[head] = timestamp;
+        xs[head] = x;
+        ys[head] = y;
+        thetas[head] = theta;
+        head = (head + 1) & mask;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Finds the pose of the robot at a time. Times outside the history get the oldest or newest pose.
+     *
+     * @param timestamp The time to look up (in seconds)
+     * @param out       The x (in meters), y (in meters) and rotation (in radians from -pi to pi) are written here
+     * @return false if the history is empty (nothing is written to out)
+     */
+    public boolean getPose(double timestamp, double @NotNull [] out) {
+        if (size == 0) {
+            return false;
+        }
+
+        if (timestamp <= timestamps[index(0)]) {
+            return copyPose(index(0), out);
+        }
+        if (timestamp >= timestamps[index(size - 1)]) {
+            return copyPose(index(size - 1), out);
+        }
+
+        // Find the first pose with a time that is >= timestamp
+        int low = 1;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[index(mid)] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        int end = index(low);
+        int start = index(low - 1);
+        double t = (timestamp - timestamps[start]) / (timestamps[end] - timestamps[start]);
+        out[0] = xs[start] + (xs[end] - xs[start]) * t;
+        out[1] = ys[start] + (ys[end] - ys[start]) * t;
+        out[2] = normalizeAngle(thetas[start] + normalizeAngle(thetas[end] - thetas[start]) * t);
+        return true;
+    }
+
+    private boolean copyPose(int index, double @NotNull [] out) {
+        out[0] = xs[index];
+        out[1] = ys[index];
+        out[2] = normalizeAngle(thetas[index]);
+        return true;
+    }
+
+    /**
+     * @return The index in the arrays of the i-th oldest pose
+     */
+    private int index(int i) {
+        return (head - size + i) & mask;
+    }
+
+    private static double normalizeAngle(double radians) {
+        return Math.atan2(Math.sin(radians), Math.cos(radians));
+    }
+
+    /**
+     * Removes all poses
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return The number of poses in the history
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The maximum number of poses that are kept
+     */
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return The time of the oldest pose (in seconds) or NaN if the history is empty
+     */
+    public double getOldestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[index(0)];
+    }
+
+    /**
+     * @return The time of the newest pose (in seconds) or NaN if the history is empty
+     */
+    public double getNewestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[index(size - 1)];
+    }
+}
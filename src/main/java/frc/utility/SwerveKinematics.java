@@ -0,0 +1,188 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import org.ejml.simple.SimpleMatrix;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocation free version of {@link SwerveDriveKinematics} for use in control loops.
+ * <p>
+ * The math (including the order of the floating point operations) is the same as {@link SwerveDriveKinematics} so the results
+ * are identical. Instead of creating new {@link edu.wpi.first.math.kinematics.SwerveModuleState}s and
+ * {@link edu.wpi.first.math.kinematics.ChassisSpeeds} on every call the results are written into preallocated arrays.
+ * <p>
+ * This class is not thread safe. Each thread should have its own instance.
+ */
+public final class SwerveKinematics {
+    private final int numModules;
+
+    /**
+     * Row major 2n x 3 matrix. Rows 2i and 2i+1 turn chassis speeds into the x and y velocity of module i
+     */
+    private final double[] inverseKinematics;
+
+    /**
+     * Row major 3 x 2n matrix. The pseudo inverse of {@link #inverseKinematics}
+     */
+    private final double[] forwardKinematics;
+
+    // Output of the inverse kinematics. Indexed by module number
+    private final double[] moduleSpeeds;
+    private final double[] moduleAngles;
+
+    // Scratch space for the forward kinematics
+    private final double[] moduleVelocityComponents;
+
+    public SwerveKinematics(@NotNull Translation2d... moduleLocations) {
+        numModules = moduleLocations.length;
+        if (numModules < 2) {
+            throw new IllegalArgumentException("A swerve drive requires at least two modules");
+        }
+
+        SimpleMatrix inverseKinematicsMatrix = new SimpleMatrix(numModules * 2, 3);
+        for (int i = 0; i < numModules; i++) {
+            inverseKinematicsMatrix.setRow(i * 2, 0, /* Start Data */ 1, 0, -moduleLocations[i].getY());
+            inverseKinematicsMatrix.setRow(i * 2 + 1, 0, /* Start Data */ 0, 1, +moduleLocations[i].getX());
+        }
+        SimpleMatrix forwardKinematicsMatrix = inverseKinematicsMatrix.pseudoInverse();
+
+        inverseKinematics = new double[numModules * 2 * 3];
+        for (int row = 0; row < numModules * 2; row++) {
+            for (int col = 0; col < 3; col++) {
+                inverseKinematics[row * 3 + col] = inverseKinematicsMatrix.get(row, col);
+            }
+        }
+
+        forwardKinematics = new double[3 * numModules * 2];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < numModules * 2; col++) {
+                forwardKinematics[row * numModules * 2 + col] = forwardKinematicsMatrix.get(row, col);
+            }
+        }
+
+        moduleSpeeds = new double[numModules];
+        moduleAngles = new double[numModules];
+        moduleVelocityComponents = new double[numModules * 2];
+    }
+
+    public int getNumModules() {
+        return numModules;
+    }
+
+    /**
+     * Computes the speed and angle of each module from the desired chassis speeds. Read the results with
+     * {@link #getModuleSpeed(int)} and {@link #getModuleAngleRadians(int)}.
+     * <p>
+     * If all the speeds are zero the modules keep their previous angle (same as {@link SwerveDriveKinematics}).
+     *
+     * @param vxMetersPerSecond     Forward velocity
+     * @param vyMetersPerSecond     Sideways velocity
+     * @param omegaRadiansPerSecond Angular velocity (counterclockwise positive)
+     */
+    public void toSwerveModuleStates(double vxMetersPerSecond, double vyMetersPerSecond, double omegaRadiansPerSecond) {
+        if (vxMetersPerSecond == 0.0 && vyMetersPerSecond == 0.0 && omegaRadiansPerSecond == 0.0) {
+            for (int i = 0; i < numModules; i++) {
+                moduleSpeeds[i] = 0.0;
+            }
+            return;
+        }
+
+        for (int i = 0; i < numModules; i++) {
+            double x = multiplyRow(inverseKinematics, i * 2, 3, vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
+            double y = multiplyRow(inverseKinematics, i * 2 + 1, 3, vxMetersPerSecond, vyMetersPerSecond, omegaRadiansPerSecond);
+
+            moduleSpeeds[i] = Math.hypot(x, y);
+
+            // Same as new Rotation2d(x, y)
+            double magnitude = Math.hypot(x, y);
+            double sin, cos;
+            if (magnitude > 1e-6) {
+                sin = y / magnitude;
+                cos = x / magnitude;
+            } else {
+                sin = 0.0;
+                cos = 1.0;
+            }
+            moduleAngles[i] = Math.atan2(sin, cos);
+        }
+    }
+
+    private static double multiplyRow(double[] matrix, int row, int cols, double a, double b, double c) {
+        int index = row * cols;
+        double total = matrix[index] * a;
+        total += matrix[index + 1] * b;
+        total += matrix[index + 2] * c;
+        return total;
+    }
+
+    /**
+     * Scales down the module speeds from the last call to {@link #toSwerveModuleStates(double, double, double)} so that none of
+     * them are above the max speed while keeping the ratio between them the same.
+     *
+     * @param attainableMaxSpeedMetersPerSecond The max speed that a module can reach
+     */
+    public void desaturateWheelSpeeds(double attainableMaxSpeedMetersPerSecond) {
+        double realMaxSpeed = moduleSpeeds[0];
+        for (int i = 1; i < numModules; i++) {
+            if (Double.compare(moduleSpeeds[i], realMaxSpeed) > 0) {
+                realMaxSpeed = moduleSpeeds[i];
+            }
+        }
+
+        if (realMaxSpeed > attainableMaxSpeedMetersPerSecond) {
+            for (int i = 0; i < numModules; i++) {
+                moduleSpeeds[i] = moduleSpeeds[i] / realMaxSpeed * attainableMaxSpeedMetersPerSecond;
+            }
+        }
+    }
+
+    /**
+     * @return The speed of the module (in m/s) from the last call to {@link #toSwerveModuleStates(double, double, double)}
+     */
+    public double getModuleSpeed(int module) {
+        return moduleSpeeds[module];
+    }
+
+    /**
+     * @return The angle of the module (in radians from -pi to pi) from the last call to
+     * {@link #toSwerveModuleStates(double, double, double)}
+     */
+    public double getModuleAngleRadians(int module) {
+        return moduleAngles[module];
+    }
+
+    /**
+     * @return The angle of the module (in degrees from -180 to 180) from the last call to
+     * {@link #toSwerveModuleStates(double, double, double)}
+     */
+    public double getModuleAngleDegrees(int module) {
+        return Math.toDegrees(moduleAngles[module]);
+    }
+
+    /**
+     * Computes the chassis speeds from the state of each module.
+     *
+     * @param moduleSpeeds        The speed of each module (in m/s)
+     * @param moduleAnglesDegrees The angle of each module (in degrees)
+     * @param chassisSpeeds       Array of length 3 that the result is written to: vx (m/s), vy (m/s), omega (rad/s)
+     */
+    public void toChassisSpeeds(double @NotNull [] moduleSpeeds, double @NotNull [] moduleAnglesDegrees,
+                                double @NotNull [] chassisSpeeds) {
+        for (int i = 0; i < numModules; i++) {
+            double angle = Math.toRadians(moduleAnglesDegrees[i]);
+            moduleVelocityComponents[i * 2] = moduleSpeeds[i] * Math.cos(angle);
+            moduleVelocityComponents[i * 2 + 1] = moduleSpeeds[i] * Math.sin(angle);
+        }
+
+        int cols = numModules * 2;
+        for (int row = 0; row < 3; row++) {
+            int index = row * cols;
+            double total = forwardKinematics[index] * moduleVelocityComponents[0];
+            for (int col = 1; col < cols; col++) {
+                total += forwardKinematics[index + col] * moduleVelocityComponents[col];
+            }
+            chassisSpeeds[row] = total;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Swerve odometry that integrates how far each wheel has rolled instead of the wheel velocities.
+ * <p>
+ * Works like WPILib's {@link edu.wpi.first.math.kinematics.SwerveDriveOdometry} (the heading comes from the gyro and each update is
+ * applied as a twist), but the distance that each module moved since the last update is measured directly, so the result doesn't
+ * depend on the time between updates. Everything is primitives so updates don't allocate.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class SwerveOdometry {
+    private final SwerveKinematics kinematics;
+    private final int numModules;
+
+    private final double[] lastModulePositions;
+    private final double[] moduleDeltas;
+    private final double[] twist = new double[3];
+
+    private double x;
+    private double y;
+    private double heading;
+
+    /**
+     * Added to the gyro heading to get the heading on the field (in radians)
+     */
+    private double gyroOffset;
+
+    /**
+     * @param moduleLocations The location of each module relative to the center of the robot
+     */
+    public SwerveOdometry(@NotNull Translation2d... moduleLocations) {
+        kinematics = new SwerveKinematics(moduleLocations);
+        numModules = moduleLocations.length;
+        lastModulePositions = new double[numModules];
+        moduleDeltas = new double[numModules];
+    }
+
+    /**
+     * Sets the pose of the robot.
+     *
+     * @param x               X position (in meters)
+     * @param y               Y position (in meters)
+     * @param heading         Heading of the robot on the field (in radians, counterclockwise positive)
+     * @param gyroHeading     The current heading from the gyro (in radians, counterclockwise positive)
+     * @param modulePositions The current distance that each wheel has rolled (in meters)
+     */
+    public void reset(double x, double y, double heading, double gyroHeading, double @NotNull [] modulePositions) {
+        this.x = x;
+        this.y = y;
+        this.heading = normalizeAngle(heading);
+        gyroOffset = heading - gyroHeading;
+        System.arraycopy(modulePositions, 0, lastModulePositions, 0, numModules);
+    }
+
+    /**
+     * Moves the pose by how far the modules rolled since the last update.
+     *
+     * @param gyroHeading         The current heading from the gyro (in radians, counterclockwise positive)
+     * @param modulePositions     The current distance that each wheel has rolled (in meters)
+     * @param moduleAnglesDegrees The current angle of each module (in degrees)
+     */
+    public void update(double gyroHeading, double @NotNull [] modulePositions, double @NotNull [] moduleAnglesDegrees) {
+        for (int i = 0; i < numModules; i++) {
+            moduleDeltas[i] = modulePositions[i] - lastModulePositions[i];
+            lastModulePositions[i] = modulePositions[i];
+        }
+        // Forward kinematics is linear, so distances in give the distance the robot moved (in its own frame) out
+        kinematics.toChassisSpeeds(moduleDeltas, moduleAnglesDegrees, twist);
+
+        double newHeading = normalizeAngle(gyroHeading + gyroOffset);
+        double dx = twist[0];
+        double dy = twist[1];
+        double dtheta = normalizeAngle(newHeading - heading);
+
+        // Same as Pose2d.exp()
+        double sinTheta = Math.sin(dtheta);
+        double cosTheta = Math.cos(dtheta);
+        double s;
+        double c;
+        if (Math.abs(dtheta) < 1E-9) {
+            s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+            c = 0.5 * dtheta;
+        } else {
+            s = sinTheta / dtheta;
+            c = (1 - cosTheta) / dtheta;
+        }
+        double moveX = dx * s - dy * c;
+        double moveY = dx * c + dy * s;
+
+        double cos = Math.cos(heading);
+        double sin = Math.sin(heading);
+        x += moveX * cos - moveY * sin;
+        y += moveX * sin + moveY * cos;
+        heading = newHeading;
+    }
+
+    private static double normalizeAngle(double radians) {
+        return Math.atan2(Math.sin(radians), Math.cos(radians));
+    }
+
+    /**
+     * @return X position (in meters)
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return Y position (in meters)
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return Heading of the robot on the field (in radians from -pi to pi, counterclockwise positive)
+     */
+    public double getHeading() {
+        return heading;
+    }
+}
@@ -0,0 +1,254 @@
+package frc.utility;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocation free version of WPILib's {@link edu.wpi.first.math.controller.HolonomicDriveController}.
+ * <p>
+ * It has the same math as a HolonomicDriveController made from two {@link edu.wpi.first.math.controller.PIDController}s and a
+ * {@link edu.wpi.first.math.controller.ProfiledPIDController} with continuous input from -pi to pi, so it tracks a path the same
+ * way. Everything is passed as primitives and the robot relative chassis speeds are written into a buffer owned by the caller.
+ * <p>
+ * This class is not thread safe. It should only be used from the drive loop.
+ */
+public final class SwervePathFollower {
+
+    /**
+     * Same as {@link edu.wpi.first.math.controller.PIDController} without continuous input
+     */
+    private static final class PID {
+        final double kp, ki, kd, period;
+        double positionError, prevError, totalError;
+
+        PID(double kp, double ki, double kd, double period) {
+            this.kp = kp;
+            this.ki = ki;
+            this.kd = kd;
+            this.period = period;
+        }
+
+        double calculate(double measurement, double setpoint) {
+            prevError = positionError;
+            positionError = setpoint - measurement;
+            return output();
+        }
+
+        double calculateContinuous(double measurement, double setpoint, double minimumInput, double maximumInput) {
+            double errorBound = (maximumInput - minimumInput) / 2.0;
+            prevError = positionError;
+            positionError = inputModulus(setpoint - measurement, -errorBound, errorBound);
+            return output();
+        }
+
+        private double output() {
+            double velocityError = (positionError - prevError) / period;
+            if (ki != 0) {
+                // The default integrator range of the PIDController is -1 to 1
+                totalError = Math.max(-1.0 / ki, Math.min(1.0 / ki, totalError + positionError * period));
+            }
+            return kp * positionError + ki * totalError + kd * velocityError;
+        }
+
+        void reset() {
+            prevError = 0;
+            totalError = 0;
+        }
+    }
+
+    private static final double MIN_INPUT = -Math.PI;
+    private static final double MAX_INPUT = Math.PI;
+
+    private final PID xController;
+    private final PID yController;
+    private final PID thetaController;
+    private final double maxAngularVelocity;
+    private final double maxAngularAcceleration;
+    private final double period;
+
+    // Profiled heading controller state
+    private double thetaSetpointPosition;
+    private double thetaSetpointVelocity;
+
+    private boolean firstRun = true;
+
+    // Error from the last call to calculate()
+    private double poseErrorX, poseErrorY, rotationError;
+    private double toleranceX, toleranceY, toleranceRotation;
+
+    /**
+     * @param xP                     P gain of the x controller
+     * @param yP                     P gain of the y controller
+     * @param thetaP                 P gain of the heading controller
+     * @param thetaI                 I gain of the heading controller
+     * @param thetaD                 D gain of the heading controller
+     * @param maxAngularVelocity     Max speed of the heading profile (in rad/s)
+     * @param maxAngularAcceleration Max acceleration of the heading profile (in rad/s^2)
+     * @param period                 Period of the controller (in seconds)
+     */
+    public SwervePathFollower(double xP, double yP, double thetaP, double thetaI, double thetaD, double maxAngularVelocity,
+                              double maxAngularAcceleration, double period) {
+        xController = new PID(xP, 0, 0, period);
+        yController = new PID(yP, 0, 0, period);
+        thetaController = new PID(thetaP, thetaI, thetaD, period);
+        this.maxAngularVelocity = maxAngularVelocity;
+        this.maxAngularAcceleration = maxAngularAcceleration;
+        this.period = period;
+    }
+
+    /**
+     * @param x       Allowed x error (in meters, robot relative)
+     * @param y       Allowed y error (in meters, robot relative)
+     * @param heading Allowed heading error (in radians)
+     */
+    public void setTolerance(double x, double y, double heading) {
+        toleranceX = x;
+        toleranceY = y;
+        toleranceRotation = heading;
+    }
+
+    /**
+     * Resets the heading controller. Call this when starting a new path.
+     *
+     * @param heading The current heading of the robot (in radians)
+     */
+    public void reset(double heading) {
+        thetaController.reset();
+        thetaSetpointPosition = heading;
+        thetaSetpointVelocity = 0;
+    }
+
+    /**
+     * @return If the robot was within the tolerance of the reference on the last call to {@link #calculate}
+     */
+    public boolean atReference() {
+        return Math.abs(poseErrorX) < toleranceX && Math.abs(poseErrorY) < toleranceY
+                && Math.abs(rotationError) < toleranceRotation;
+    }
+
+    /**
+     * Computes the chassis speeds to follow a path.
+     *
+     * @param currentX       X position of the robot (in meters)
+     * @param currentY       Y position of the robot (in meters)
+     * @param currentHeading Heading of the robot (in radians)
+     * @param refX           X position of the path sample (in meters)
+     * @param refY           Y position of the path sample (in meters)
+     * @param refHeading     Heading of the path at the sample (in radians). This is the direction of travel.
+     * @param refVelocity    Velocity of the path at the sample (in m/s)
+     * @param angleRef       The heading that the robot should face (in radians)
+     * @param out            Robot relative vx, vy (in m/s) and omega (in rad/s) are written here
+     */
+    public void calculate(double currentX, double currentY, double currentHeading, double refX, double refY, double refHeading,
+                          double refVelocity, double angleRef, double @NotNull [] out) {
+        if (firstRun) {
+            reset(currentHeading);
+            firstRun = false;
+        }
+
+        // Feedforward velocities (field relative)
+        double xFF = refVelocity * Math.cos(refHeading);
+        double yFF = refVelocity * Math.sin(refHeading);
+        double thetaFF = calculateTheta(currentHeading, angleRef);
+
+        // Error of the reference relative to the robot
+        double cos = Math.cos(currentHeading);
+        double sin = Math.sin(currentHeading);
+        double dx = refX - currentX;
+        double dy = refY - currentY;
+        poseErrorX = dx * cos + dy * sin;
+        poseErrorY = -dx * sin + dy * cos;
+        rotationError = Math.atan2(Math.sin(angleRef - currentHeading), Math.cos(angleRef - currentHeading));
+
+        double vx = xFF + xController.calculate(currentX, refX);
+        double vy = yFF + yController.calculate(currentY, refY);
+
+        // Same as ChassisSpeeds.fromFieldRelativeSpeeds()
+        out[0] = vx * cos + vy * sin;
+        out[1] = -vx * sin + vy * cos;
+        out[2] = thetaFF;
+    }
+
+    /**
+     * Same as {@link edu.wpi.first.math.controller.ProfiledPIDController#calculate(double, double)} with continuous input
+     */
+    private double calculateTheta(double measurement, double goal) {
+        double errorBound = (MAX_INPUT - MIN_INPUT) / 2.0;
+        double goalPosition = inputModulus(goal - measurement, -errorBound, errorBound) + measurement;
+        thetaSetpointPosition = inputModulus(thetaSetpointPosition - measurement, -errorBound, errorBound) + measurement;
+
+        stepProfile(goalPosition);
+        return thetaController.calculateContinuous(measurement, thetaSetpointPosition, MIN_INPUT, MAX_INPUT);
+    }
+
+    /**
+     * Moves the heading setpoint one period along a {@link edu.wpi.first.math.trajectory.TrapezoidProfile} to the goal (which
+     * has a velocity of 0).
+     */
+    private void stepProfile(double goalPosition) {
+        double direction = thetaSetpointPosition > goalPosition ? -1 : 1;
+        double initialPosition = thetaSetpointPosition * direction;
+        double initialVelocity = thetaSetpointVelocity * direction;
+        double goal = goalPosition * direction;
+
+        if (initialVelocity > maxAngularVelocity) {
+            initialVelocity = maxAngularVelocity;
+        }
+
+        double cutoffBegin = initialVelocity / maxAngularAcceleration;
+        double cutoffDistBegin = cutoffBegin * cutoffBegin * maxAngularAcceleration / 2.0;
+
+        double fullTrapezoidDist = cutoffDistBegin + (goal - initialPosition);
+        double accelerationTime = maxAngularVelocity / maxAngularAcceleration;
+
+        double fullSpeedDist = fullTrapezoidDist - accelerationTime * accelerationTime * maxAngularAcceleration;
+
+        // Handle the case where the profile never reaches full speed
+        if (fullSpeedDist < 0) {
+            accelerationTime = Math.sqrt(fullTrapezoidDist / maxAngularAcceleration);
+            fullSpeedDist = 0;
+        }
+
+        double endAccel = accelerationTime - cutoffBegin;
+        double endFullSpeed = endAccel + fullSpeedDist / maxAngularVelocity;
+        double endDeccel = endFullSpeed + accelerationTime;
+
+        double t = period;
+        double position = initialPosition;
+        double velocity = initialVelocity;
+        if (t < endAccel) {
+            velocity += t * maxAngularAcceleration;
+            position += (initialVelocity + t * maxAngularAcceleration / 2.0) * t;
+        } else if (t < endFullSpeed) {
+            velocity = maxAngularVelocity;
+            position += (initialVelocity + endAccel * maxAngularAcceleration / 2.0) * endAccel
+                    + maxAngularVelocity * (t - endAccel);
+        } else if (t <= endDeccel) {
+            double timeLeft = endDeccel - t;
+            velocity = timeLeft * maxAngularAcceleration;
+            position = goal - (timeLeft * maxAngularAcceleration / 2.0) * timeLeft;
+        } else {
+            position = goal;
+            velocity = 0;
+        }
+
+        thetaSetpointPosition = position * direction;
+        thetaSetpointVelocity = velocity * direction;
+    }
+
+    /**
+     * Same as {@link edu.wpi.first.math.MathUtil#inputModulus(double, double, double)}
+     */
+    private static double inputModulus(double input, double minimumInput, double maximumInput) {
+        double modulus = maximumInput - minimumInput;
+
+        // Wrap input if it's above the maximum input
+        int numMax = (int) ((input - minimumInput) / modulus);
+        input -= numMax * modulus;
+
+        // Wrap input if it's below the minimum input
+        int numMin = (int) ((input - maximumInput) / modulus);
+        input -= numMin * modulus;
+
+        return input;
+    }
+}
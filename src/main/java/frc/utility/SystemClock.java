@@ -0,0 +1,62 @@
+package frc.utility;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The real clock. Uses {@link MonotonicClock} for the time and the normal JVM methods to wait.
+ */
+public final class SystemClock implements Clock {
+    private static final SystemClock instance = new SystemClock();
+
+    public static SystemClock getInstance() {
+        return instance;
+    }
+
+    private SystemClock() {}
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public double toTimestamp(long nanoTime) {
+        return MonotonicClock.toTimestamp(nanoTime);
+    }
+
+    @Override
+    public double getTimestamp() {
+        return MonotonicClock.getTimestamp();
+    }
+
+    @Override
+    public void sleepUntil(long deadline) throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+        }
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public void parkUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    @Override
+    public void park() {
+        LockSupport.park(this);
+    }
+
+    @Override
+    public void unpark(Thread thread) {
+        LockSupport.unpark(thread);
+    }
+}
@@ -0,0 +1,209 @@
+package frc.utility;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Moves SmartDashboard publishing off the control loops.
+ * <p>
+ * Keys are registered once (ex. in a constructor) and get an int handle. Control loops then call
+ * {@link #putNumber(int, double)} which only copies the handle and value into a preallocated ring buffer, so there is no string
+ * building, hashing or NetworkTables locking on the control path. A low priority thread drains the buffer and writes the latest
+ * value of each key to NetworkTables.
+ * <p>
+ * If the buffer is full (the publisher thread is starved) new values are dropped and counted in {@link #getDroppedCount()}.
+ */
+public final class Telemetry implements Runnable {
+    private static final Telemetry instance = new Telemetry();
+
+    public static Telemetry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Size of the ring buffer. Must be a power of two
+     */
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+
+    /**
+     * How long the publisher thread waits between draining the buffer (in ms)
+     */
+    private static final long PUBLISH_PERIOD = 20;
+
+    private final NetworkTable smartDashboardTable = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+
+    // Ring buffer
+    private final int[] slotHandles = new int[CAPACITY];
+    private final long[] slotValues = new long[CAPACITY];
+    /**
+     * The sequence number of the value stored in each slot. A slot is readable once its sequence matches the read sequence
+     */
+    private final AtomicLongArray slotSequences = new AtomicLongArray(CAPACITY);
+    private final AtomicLong writeSequence = new AtomicLong();
+    private volatile long readSequence = 0;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    // Registered keys. Replaced (not modified) when a key is registered so the publisher can read it without locking
+    private volatile NetworkTableEntry[] entries = new NetworkTableEntry[0];
+    private volatile boolean[] isBoolean = new boolean[0];
+
+    // Only accessed by the publisher thread
+    private double[] latestValues = new double[0];
+    private boolean[] dirty = new boolean[0];
+
+    private Telemetry() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slotSequences.set(i, -1);
+        }
+
+        Thread publisherThread = new Thread(this, "Telemetry Publisher");
+        publisherThread.setDaemon(true);
+        publisherThread.setPriority(Thread.MIN_PRIORITY);
+        publisherThread.start();
+    }
+
+    /**
+     * Registers a number on the SmartDashboard. Call this once (not every loop) and keep the handle.
+     *
+     * @param key The SmartDashboard key
+     * @return A handle to use with {@link #putNumber(int, double)}
+     */
+    public int registerNumber(String key) {
+        return register(key, false);
+    }
+
+    /**
+     * Registers a boolean on the SmartDashboard. Call this once (not every loop) and keep the handle.
+     *
+     * @param key The SmartDashboard key
+     * @return A handle to use with {@link #putBoolean(int, boolean)}
+     */
+    public int registerBoolean(String key) {
+        return register(key, true);
+    }
+
+    /**
+     * Registers a number for each module. Ex. "Swerve Motor ", " Error" registers "Swerve Motor 0 Error" to "Swerve Motor 3
+     * Error".
+     *
+     * @return The handles indexed by module number
+     */
+    public int[] registerNumbers(String prefix, String suffix, int count) {
+        int[] handles = new int[count];
+        for (int i = 0; i < count; i++) {
+            handles[i] = registerNumber(prefix + i + suffix);
+        }
+        return handles;
+    }
+
+    private synchronized int register(String key, boolean booleanValue) {
+        int handle = entries.length;
+        NetworkTableEntry[] newEntries = Arrays.copyOf(entries, handle + 1);
+        newEntries[handle] = smartDashboardTable.getEntry(key);
+        boolean[] newIsBoolean = Arrays.copyOf(isBoolean, handle + 1);
+        newIsBoolean[handle] = booleanValue;
+        isBoolean = newIsBoolean;
+        entries = newEntries;
+        return handle;
+    }
+
+    /**
+     * Queues a value to be published. Does not allocate or lock.
+     *
+     * @param handle Handle from {@link #registerNumber(String)}
+     * @param value  The value to publish
+     */
+    public void putNumber(int handle, double value) {
+        put(handle, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Queues a value to be published. Does not allocate or lock.
+     *
+     * @param handle Handle from {@link #registerBoolean(String)}
+     * @param value  The value to publish
+     */
+    public void putBoolean(int handle, boolean value) {
+        putNumber(handle, value ? 1 : 0);
+    }
+
+    private void put(int handle, long valueBits) {
+        long sequence;
+        do {
+            sequence = writeSequence.get();
+            if (sequence - readSequence >= CAPACITY) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        } while (!writeSequence.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & MASK);
+        slotHandles[index] = handle;
+        slotValues[index] = valueBits;
+        slotSequences.lazySet(index, sequence); // Makes the slot visible to the publisher after the writes above
+    }
+
+    /**
+     * @return The number of values that were dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    @SuppressWarnings("BusyWait")
+    public void run() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            drain();
+            try {
+                Thread.sleep(PUBLISH_PERIOD);
+            } catch (InterruptedException e) {
+                System.out.println("Telemetry publisher interrupted " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads everything in the buffer and publishes the latest value of each key that changed
+     */
+    private void drain() {
+        NetworkTableEntry[] entries = this.entries;
+        boolean[] isBoolean = this.isBoolean;
+        if (latestValues.length != entries.length) {
+            latestValues = Arrays.copyOf(latestValues, entries.length);
+            dirty = Arrays.copyOf(dirty, entries.length);
+        }
+
+        long sequence = readSequence;
+        while (true) {
+            int index = (int) (sequence & MASK);
+            if (slotSequences.get(index) != sequence) break; // Nothing more has been published
+
+            int handle = slotHandles[index];
+            if (handle >= 0 && handle < latestValues.length) {
+                latestValues[handle] = Double.longBitsToDouble(slotValues[index]);
+                dirty[handle] = true;
+            }
+            sequence++;
+            readSequence = sequence; // Frees the slot for writers
+        }
+
+        for (int i = 0; i < entries.length; i++) {
+            if (dirty[i]) {
+                if (isBoolean[i]) {
+                    entries[i].setBoolean(latestValues[i] != 0);
+                } else {
+                    entries[i].setDouble(latestValues[i]);
+                }
+                dirty[i] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package frc.utility;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A clock where time only moves when the code is waiting, so that an auto can be run much faster than real time.
+ * <p>
+ * Threads that run robot code (ex. the subsystem executor and the auto thread) call {@link #registerCurrentThread()}. Time
+ * stays frozen while any registered thread is running. Once every registered thread is waiting in the clock, time jumps to the
+ * earliest deadline and the threads waiting for that deadline are woken up. Threads that aren't registered can still wait on the
+ * clock, but time won't wait for them.
+ * <p>
+ * Time can also be moved forward by hand with {@link #advance(long)}.
+ * <p>
+ * A sequential clock also decides which thread runs when several registered threads wake up at the same time: they run one at a
+ * time, in the order that the threads were created in. This makes a run repeatable (ex. for replaying a log) since the order of
+ * the threads doesn't depend on the OS scheduler. Threads that are waiting on something other than the clock (ex. a lock that a
+ * sleeping thread holds) must not be registered with a sequential clock, or they can wait forever.
+ */
+public final class VirtualClock implements Clock {
+
+    private static final class Waiter {
+        /**
+         * If the thread is waiting in the clock
+         */
+        boolean waiting = false;
+        long deadline;
+        boolean permit = false;
+        boolean registered = false;
+        /**
+         * Threads with a lower order run first when they wake up at the same time. Only used by a sequential clock.
+         */
+        final long order;
+
+        Waiter(long order) {
+            this.order = order;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition timeChanged = lock.newCondition();
+    private final Map<Thread, Waiter> waiters = new HashMap<>();
+    private int registeredCount = 0;
+    private long now;
+    private final boolean sequential;
+
+    /**
+     * @param startTime  The starting time in nanoseconds
+     * @param sequential If registered threads that wake up at the same time should run one at a time
+     */
+    public VirtualClock(long startTime, boolean sequential) {
+        this.now = startTime;
+        this.sequential = sequential;
+    }
+
+    /**
+     * @param startTime The starting time in nanoseconds
+     */
+    public VirtualClock(long startTime) {
+        this(startTime, false);
+    }
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    @Override
+    public long nanoTime() {
+        lock.lock();
+        try {
+            return now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public double toTimestamp(long nanoTime) {
+        return nanoTime * 1.0e-9;
+    }
+
+    @Override
+    public void sleepUntil(long deadline) throws InterruptedException {
+        lock.lock();
+        Waiter waiter = getWaiter(Thread.currentThread());
+        try {
+            waiter.deadline = deadline;
+            startWaiting(waiter);
+            while (now - deadline < 0 || mustWaitForTurn(waiter)) {
+                timeChanged.await();
+            }
+        } finally {
+            waiter.waiting = false;
+            removeIfUnused(Thread.currentThread(), waiter);
+            advanceIfIdle(); // In case we were the last thread that was holding time back
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void parkUntil(long deadline) {
+        lock.lock();
+        Waiter waiter = getWaiter(Thread.currentThread());
+        try {
+            if (!waiter.permit) {
+                waiter.deadline = deadline;
+                startWaiting(waiter);
+                while ((!waiter.permit && now - deadline < 0) || mustWaitForTurn(waiter)) {
+                    try {
+                        timeChanged.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt(); // Keep the flag set like LockSupport.park()
+                        break;
+                    }
+                }
+            }
+            waiter.permit = false;
+        } finally {
+            waiter.waiting = false;
+            removeIfUnused(Thread.currentThread(), waiter);
+            advanceIfIdle(); // In case we were the last thread that was holding time back
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void park() {
+        parkUntil(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void unpark(Thread thread) {
+        lock.lock();
+        try {
+            getWaiter(thread).permit = true;
+            timeChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void registerThread(Thread thread) {
+        lock.lock();
+        try {
+            Waiter waiter = getWaiter(thread);
+            if (!waiter.registered) {
+                waiter.registered = true;
+                registeredCount++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void unregisterCurrentThread() {
+        lock.lock();
+        try {
+            Waiter waiter = waiters.get(Thread.currentThread());
+            if (waiter != null && waiter.registered) {
+                waiter.registered = false;
+                registeredCount--;
+                removeIfUnused(Thread.currentThread(), waiter);
+                advanceIfIdle(); // The other threads might have been waiting on us
+                if (sequential) {
+                    timeChanged.signalAll(); // Or waiting for their turn
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves time forward and wakes up any thread whose deadline has passed.
+     *
+     * @param nanos How far to move time (in ns)
+     */
+    public void advance(long nanos) {
+        lock.lock();
+        try {
+            now += nanos;
+            timeChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWaiting(Waiter waiter) {
+        waiter.waiting = true;
+        advanceIfIdle();
+        if (sequential) {
+            timeChanged.signalAll(); // A thread that was waiting for its turn might be able to run now
+        }
+    }
+
+    /**
+     * A thread in a sequential clock that has woken up must wait while a registered thread that comes before it is running or is
+     * also waking up. Must be called with the lock held.
+     */
+    private boolean mustWaitForTurn(Waiter waiter) {
+        if (!sequential || !waiter.registered) return false;
+
+        for (Waiter other : waiters.values()) {
+            if (other != waiter && other.registered && other.order < waiter.order
+                    && (!other.waiting || other.permit || other.deadline - now <= 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If every registered thread is waiting and none of them are about to wake up, jumps to the earliest deadline. Must be called
+     * with the lock held.
+     */
+    private void advanceIfIdle() {
+        if (registeredCount == 0) return; // Time only moves with advance()
+
+        int waitingRegistered = 0;
+        boolean hasDeadline = false;
+        long earliestDeadline = 0;
+        for (Waiter waiter : waiters.values()) {
+            if (!waiter.waiting) continue;
+            if (waiter.permit || waiter.deadline - now <= 0) {
+                return; // This thread is going to wake up and run
+            }
+            if (waiter.registered) waitingRegistered++;
+            if (waiter.deadline != Long.MAX_VALUE && (!hasDeadline || waiter.deadline - earliestDeadline < 0)) {
+                earliestDeadline = waiter.deadline;
+                hasDeadline = true;
+            }
+        }
+
+        if (waitingRegistered == registeredCount && hasDeadline) {
+            now = earliestDeadline;
+            timeChanged.signalAll();
+        }
+    }
+
+    private Waiter getWaiter(Thread thread) {
+        return waiters.computeIfAbsent(thread, t -> new Waiter(t.getId()));
+    }
+
+    private void removeIfUnused(Thread thread, Waiter waiter) {
+        if (!waiter.registered && !waiter.waiting && !waiter.permit) {
+            waiters.remove(thread);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package frc.utility;
+
+/**
+ * An immutable pose of the robot measured by a camera. Safe to pass between threads.
+ */
+public final class VisionMeasurement {
+    public final double timestamp;
+    public final double x;
+    public final double y;
+    public final double theta;
+    public final double translationStdDev;
+    public final double rotationStdDev;
+
+    /**
+     * @param timestamp         When the image was taken (in seconds, FPGA time). Subtract the latency of the camera.
+     * @param x                 X position of the robot on the field (in meters)
+     * @param y                 Y position of the robot on the field (in meters)
+     * @param theta             Rotation of the robot (in radians) or NaN if the camera can't measure it
+     * @param translationStdDev How much the x and y can be trusted (standard deviation in meters)
+     * @param rotationStdDev    How much the rotation can be trusted (standard deviation in radians)
+     */
+    public VisionMeasurement(double timestamp, double x, double y, double theta, double translationStdDev,
+                             double rotationStdDev) {
+        this.timestamp = timestamp;
+        this.x = x;
+        this.y = y;
+        this.theta = theta;
+        this.translationStdDev = translationStdDev;
+        this.rotationStdDev = rotationStdDev;
+    }
+
+    /**
+     * @return If the measurement has a rotation
+     */
+    public boolean hasRotation() {
+        return !Double.isNaN(theta);
+    }
+}
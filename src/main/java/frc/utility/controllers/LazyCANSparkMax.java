@@ -3,14 +3,43 @@
 package frc.utility.controllers;
 
 import com.revrobotics.CANSparkMax;
+import com.revrobotics.REVLibError;
+import com.revrobotics.SparkMaxPIDController;
 
 /**
- * Sends only new commands to the Talon to reduce CAN usage.
+ * Sends only new commands to the Spark MAX to reduce CAN usage.
+ * <p>
+ * Commands ({@link #set(double)}, {@link #setVoltage(double)} and {@link #setReference(double, ControlType)}) are held until
+ * {@link #flush()} is called at the end of the control cycle. Only the last command of the cycle is considered and it is only
+ * sent if the control mode changed or the value moved by more than the tolerance for that mode. The owner of the motor must call
+ * {@link #flush()} once per cycle.
  */
 public class LazyCANSparkMax extends CANSparkMax {
 
+    private enum CommandKind {
+        SET, SET_VOLTAGE, SET_REFERENCE
+    }
+
     private double prevValue = 0;
 
+    private final double[] commandTolerances = new double[ControlType.values().length];
+    private SparkMaxPIDController pidController;
+
+    // Command waiting to be flushed
+    private boolean hasPendingCommand = false;
+    private CommandKind pendingKind;
+    private ControlType pendingControlType;
+    private double pendingValue;
+
+    // Last command that was sent
+    private CommandKind sentKind = null;
+    private ControlType sentControlType = null;
+    private double sentValue;
+
+    private boolean flushing = false;
+
+    private volatile long framesSent = 0;
+    private volatile long framesSuppressed = 0;
 
     public LazyCANSparkMax(int deviceId, MotorType type) {
         super(deviceId, type);
@@ -18,19 +47,115 @@ public class LazyCANSparkMax extends CANSparkMax {
 
     }
 
+    /**
+     * Commands that are within the tolerance of the last command sent (in the same control mode) won't be sent.
+     *
+     * @param controlType The control mode that the tolerance applies to. {@link #set(double)} uses
+     *                    {@link ControlType#kDutyCycle} and {@link #setVoltage(double)} uses {@link ControlType#kVoltage}
+     * @param tolerance   The tolerance in the units of the control mode
+     */
+    public void setCommandTolerance(ControlType controlType, double tolerance) {
+        commandTolerances[controlType.ordinal()] = tolerance;
+    }
+
     @Override
     public void set(double speed) {
         //return;
 
-        if (speed != prevValue) {
-            super.set(speed);
-            prevValue = speed;
+        if (flushing) {
+            super.set(speed); // setVoltage() may be implemented with set()
+            return;
+        }
+        queueCommand(CommandKind.SET, ControlType.kDutyCycle, speed);
+        prevValue = speed;
+    }
 
+    @Override
+    public void setVoltage(double outputVolts) {
+        queueCommand(CommandKind.SET_VOLTAGE, ControlType.kVoltage, outputVolts);
+    }
+
+    /**
+     * Queues a setpoint for the Spark MAX's closed loop controller. Use this instead of
+     * {@link SparkMaxPIDController#setReference(double, ControlType)}.
+     *
+     * @param value       The setpoint in the units of the control mode
+     * @param controlType The control mode
+     */
+    public void setReference(double value, ControlType controlType) {
+        queueCommand(CommandKind.SET_REFERENCE, controlType, value);
+    }
+
+    private void queueCommand(CommandKind kind, ControlType controlType, double value) {
+        hasPendingCommand = true;
+        pendingKind = kind;
+        pendingControlType = controlType;
+        pendingValue = value;
+    }
+
+    /**
+     * Sends the last command of this cycle if it is different enough from the last command that was sent. Call this once at the
+     * end of each control cycle.
+     */
+    public void flush() {
+        if (!hasPendingCommand) return;
+        hasPendingCommand = false;
+
+        if (pendingKind == sentKind && pendingControlType == sentControlType
+                && Math.abs(pendingValue - sentValue) <= commandTolerances[pendingControlType.ordinal()]) {
+            framesSuppressed++;
+            return;
         }
 
+        flushing = true;
+        try {
+            switch (pendingKind) {
+                case SET:
+                    super.set(pendingValue);
+                    break;
+                case SET_VOLTAGE:
+                    super.setVoltage(pendingValue);
+                    break;
+                case SET_REFERENCE:
+                    if (getPidController().setReference(pendingValue, pendingControlType) != REVLibError.kOk) {
+                        // Make sure we try again next cycle
+                        sentKind = null;
+                        return;
+                    }
+                    break;
+            }
+        } finally {
+            flushing = false;
+        }
+
+        sentKind = pendingKind;
+        sentControlType = pendingControlType;
+        sentValue = pendingValue;
+        framesSent++;
+    }
+
+    private SparkMaxPIDController getPidController() {
+        if (pidController == null) {
+            pidController = getPIDController();
+        }
+        return pidController;
     }
 
     public double getSetpoint() {
         return prevValue;
     }
+
+    /**
+     * @return The number of commands that were sent over CAN
+     */
+    public long getFramesSent() {
+        return framesSent;
+    }
+
+    /**
+     * @return The number of commands that weren't sent because they were the same as the last command
+     */
+    public long getFramesSuppressed() {
+        return framesSuppressed;
+    }
 }
@@ -0,0 +1,174 @@
+package frc.utility.controllers;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import com.revrobotics.REVLibError;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.utility.Telemetry;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Sets the status frame periods of the Spark MAXes based on what the robot is doing.
+ * <p>
+ * Subsystems declare which status frames they read in each robot mode with {@link #require}. When the robot changes mode
+ * ({@link #setMode(RobotMode)}) every declared frame is set to the fastest period requested for that mode, and to
+ * {@link #IDLE_PERIOD_MS} if nothing reads it in that mode. Frames that were never declared are left at the Spark MAX defaults.
+ * <p>
+ * The estimated bus load of the status frames is published to the SmartDashboard.
+ */
+public final class StatusFrameManager {
+    private static final StatusFrameManager instance = new StatusFrameManager();
+
+    public static StatusFrameManager getInstance() {
+        return instance;
+    }
+
+    public enum RobotMode {
+        DISABLED, AUTONOMOUS, TELEOP, TEST
+    }
+
+    /**
+     * Period used for declared frames that aren't read in the current mode (in ms)
+     */
+    public static final int IDLE_PERIOD_MS = 500;
+
+    /**
+     * Bits in a CAN frame with an extended id and 8 data bytes, including the worst case bit stuffing
+     */
+    private static final double BITS_PER_FRAME = 160;
+    private static final double CAN_BIT_RATE = 1_000_000;
+
+    private static final class Device {
+        final CANSparkMax spark;
+        final EnumMap<PeriodicFrame, EnumMap<RobotMode, Integer>> requirements = new EnumMap<>(PeriodicFrame.class);
+        final EnumMap<PeriodicFrame, Integer> appliedPeriods = new EnumMap<>(PeriodicFrame.class);
+
+        Device(CANSparkMax spark) {
+            this.spark = spark;
+        }
+
+        int getPeriod(PeriodicFrame frame, RobotMode mode) {
+            EnumMap<RobotMode, Integer> periods = requirements.get(frame);
+            if (periods == null) {
+                return getDefaultPeriod(frame);
+            }
+            return periods.getOrDefault(mode, IDLE_PERIOD_MS);
+        }
+    }
+
+    private final List<Device> devices = new ArrayList<>();
+    private @NotNull RobotMode mode = RobotMode.DISABLED;
+
+    private final Telemetry telemetry = Telemetry.getInstance();
+    private final int busLoadHandle = telemetry.registerNumber("CAN Status Frame Load");
+    private final int framesPerSecondHandle = telemetry.registerNumber("CAN Status Frames Per Second");
+
+    private StatusFrameManager() {}
+
+    /**
+     * Declares that a status frame is read in the given modes. If several subsystems (or calls) require the same frame, the
+     * fastest period is used.
+     *
+     * @param spark    The motor controller
+     * @param frame    The status frame that is read
+     * @param periodMs The slowest period (in ms) that the frame can be sent at
+     * @param modes    The modes that the frame is read in
+     */
+    public synchronized void require(@NotNull CANSparkMax spark, @NotNull PeriodicFrame frame, int periodMs,
+                                     @NotNull RobotMode... modes) {
+        Device device = getDevice(spark);
+        EnumMap<RobotMode, Integer> periods = device.requirements.computeIfAbsent(frame, f -> new EnumMap<>(RobotMode.class));
+        for (RobotMode robotMode : modes) {
+            periods.merge(robotMode, periodMs, Math::min);
+        }
+        apply(device, frame);
+        publishBusLoad();
+    }
+
+    /**
+     * Declares that a status frame isn't read in any mode so that it can be sent at {@link #IDLE_PERIOD_MS}.
+     */
+    public synchronized void requireUnused(@NotNull CANSparkMax spark, @NotNull PeriodicFrame frame) {
+        require(spark, frame, IDLE_PERIOD_MS);
+    }
+
+    /**
+     * Changes the status frame periods to match the new mode. Should be called from the mode init methods.
+     */
+    public synchronized void setMode(@NotNull RobotMode mode) {
+        if (this.mode == mode) return;
+        this.mode = mode;
+        for (Device device : devices) {
+            for (PeriodicFrame frame : device.requirements.keySet()) {
+                apply(device, frame);
+            }
+        }
+        publishBusLoad();
+    }
+
+    public synchronized @NotNull RobotMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The estimated fraction of the CAN bus used by the status frames of the registered devices in the current mode
+     */
+    public synchronized double getEstimatedBusLoad() {
+        return getFramesPerSecond() * BITS_PER_FRAME / CAN_BIT_RATE;
+    }
+
+    private double getFramesPerSecond() {
+        double framesPerSecond = 0;
+        for (Device device : devices) {
+            for (PeriodicFrame frame : PeriodicFrame.values()) {
+                framesPerSecond += 1000.0 / device.getPeriod(frame, mode);
+            }
+        }
+        return framesPerSecond;
+    }
+
+    private void apply(Device device, PeriodicFrame frame) {
+        int period = device.getPeriod(frame, mode);
+        Integer appliedPeriod = device.appliedPeriods.get(frame);
+        if (appliedPeriod != null && appliedPeriod == period) return;
+
+        if (device.spark.setPeriodicFramePeriod(frame, period) == REVLibError.kOk) {
+            device.appliedPeriods.put(frame, period);
+        } else {
+            DriverStation.reportWarning("Failed to set " + frame + " period on Spark MAX " + device.spark.getDeviceId(), false);
+        }
+    }
+
+    private void publishBusLoad() {
+        double framesPerSecond = getFramesPerSecond();
+        telemetry.putNumber(framesPerSecondHandle, framesPerSecond);
+        telemetry.putNumber(busLoadHandle, framesPerSecond * BITS_PER_FRAME / CAN_BIT_RATE);
+    }
+
+    private Device getDevice(CANSparkMax spark) {
+        for (Device device : devices) {
+            if (device.spark == spark) return device;
+        }
+        Device device = new Device(spark);
+        devices.add(device);
+        return device;
+    }
+
+    /**
+     * @return The period (in ms) that the Spark MAX uses for a frame when it hasn't been changed
+     */
+    private static int getDefaultPeriod(PeriodicFrame frame) {
+        switch (frame) {
+            case kStatus0:
+                return 10;
+            case kStatus3:
+                return 50;
+            default:
+                return 20;
+        }
+    }
+}
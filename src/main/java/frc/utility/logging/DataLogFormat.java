@@ -0,0 +1,41 @@
+package frc.utility.logging;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The layout of the data log files. Everything is big endian.
+ * <pre>
+ * File header:    8 byte magic, int version, int reserved
+ * Record:         short tag, then the body for the tag
+ *   tag 0         End of the log (the rest of the file hasn't been written)
+ *   tag SCHEMA    short schema id, string name, short field count, string for each field name
+ *   tag MESSAGE   double timestamp, string message
+ *   tag BLOB      double timestamp, string channel, int length, bytes (ex. an auto that was uploaded)
+ *   tag > 0       A data record of the schema with that id: double timestamp, double for each field
+ * String:         short length, UTF-8 bytes
+ * </pre>
+ * The schema record of an id always comes before its data records. The tag of a record is written after its body, so a record
+ * that was being written when the robot lost power reads as the end of the log.
+ */
+public final class DataLogFormat {
+    private DataLogFormat() {}
+
+    public static final byte[] MAGIC = "FRC3476L".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 2;
+    public static final int FILE_HEADER_SIZE = 16;
+
+    public static final short END_TAG = 0;
+    public static final short SCHEMA_TAG = -1;
+    public static final short MESSAGE_TAG = -2;
+    public static final short BLOB_TAG = -3;
+
+    /**
+     * Size of the tag and timestamp of a data record (in bytes)
+     */
+    public static final int DATA_HEADER_SIZE = Short.BYTES + Double.BYTES;
+
+    /**
+     * Longest string that can be written (in bytes)
+     */
+    public static final int MAX_STRING_LENGTH = Short.MAX_VALUE;
+}
@@ -0,0 +1,634 @@
+package frc.utility.logging;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records data from the subsystems to a binary file (see {@link DataLogFormat}) so that a match can be looked at afterwards.
+ * <p>
+ * The file is allocated (zero filled) ahead of the records and memory mapped. Writers reserve space for a record with one atomic
+ * add and then copy the values straight into the mapped buffer, so writing doesn't lock, allocate or make a system call, and any
+ * thread can write. The OS writes the pages to disk in the background and a low priority thread asks it to do so every second.
+ * When the file is full new records are dropped and counted in {@link #getDroppedCount()}.
+ * <p>
+ * The robot's log starts when the code boots and the subsystems log while the robot is disabled, so a robot that waits in the
+ * queue can use up most of a file before its match. {@link #startNewFileIfFull()} is called when the robot is enabled and moves
+ * to a new file if the current one doesn't have room for a match. The default log files are named by date and the oldest are
+ * deleted when a new one is created, so that they don't fill up the roboRIO.
+ * <p>
+ * Each kind of record is registered once with a {@link LogSchema} (ex. in a constructor), which gives an id to write it with.
+ */
+public final class DataLogger {
+    private static @Nullable DataLogger instance;
+
+    /**
+     * The log file is only created when the logger is first used
+     */
+    public static synchronized @NotNull DataLogger getInstance() {
+        if (instance == null) {
+            Path directory;
+            long maxBytes;
+            if (RobotBase.isReal()) {
+                // Prefer a USB drive. The roboRIO's internal flash is small.
+                if (Files.isDirectory(Paths.get("/u"))) {
+                    directory = Paths.get("/u/logs");
+                    maxBytes = USB_LOG_BYTES;
+                } else {
+                    directory = Paths.get("/home/lvuser/logs");
+                    maxBytes = INTERNAL_LOG_BYTES;
+                }
+            } else {
+                directory = Paths.get("logs");
+                maxBytes = SIMULATION_LOG_BYTES;
+            }
+            instance = new DataLogger(directory, maxBytes, DEFAULT_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Changes the logger that the robot code uses (ex. to write the output of a replay somewhere else). This must be called
+     * before any subsystem is created.
+     */
+    public static synchronized void setInstance(@NotNull DataLogger logger) {
+        instance = logger;
+    }
+
+    /**
+     * Size of a log file (in bytes). The robot logs about 62 KB/s (Drive and its inputs at 50 Hz, the odometry inputs and
+     * RobotTracker at 200 Hz and the driver station at 50 Hz), so this is about 18 minutes.
+     */
+    private static final int DEFAULT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The room (in bytes) that a log needs to have left when the robot is enabled. This is a match (2.5 minutes) at the rate
+     * above with room to spare.
+     */
+    private static final int MATCH_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * How much of the robot's log files are allocated when they're created (in bytes). The rest is allocated by the logger's
+     * thread, so that creating a log doesn't block robotInit or the start of a match for seconds. This is about 15 seconds of
+     * records, which is much longer than allocating the rest takes.
+     */
+    private static final int INITIAL_ALLOCATION = 1024 * 1024;
+
+    /**
+     * How much is allocated at a time (in bytes)
+     */
+    private static final int ALLOCATION_CHUNK = 64 * 1024;
+
+    private static final String LOG_FILE_PREFIX = "log_";
+    private static final String LOG_FILE_SUFFIX = ".bin";
+
+    /**
+     * The most logs (including the new one) to keep
+     */
+    private static final int MAX_LOG_FILES = 20;
+
+    /**
+     * The most space (in bytes) that the logs (including the new one) can take up. The roboRIO's internal flash only has a few
+     * hundred MB free, so only a couple of logs are kept there.
+     */
+    private static final long INTERNAL_LOG_BYTES = 2L * DEFAULT_SIZE;
+    private static final long USB_LOG_BYTES = (long) MAX_LOG_FILES * DEFAULT_SIZE;
+    private static final long SIMULATION_LOG_BYTES = 4L * DEFAULT_SIZE;
+
+    /**
+     * How often the mapped file is written to disk (in ms)
+     */
+    private static final long FLUSH_PERIOD = 1000;
+
+    /**
+     * The file that's being written to. Replaced when a new file is started.
+     */
+    private volatile @NotNull LogFile file;
+
+    /**
+     * Where new files are created or null if this logger only has one file
+     */
+    private final @Nullable Path directory;
+    private final long maxDirectoryBytes;
+    private final int capacity;
+    private boolean newFileRequested = false;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private int schemaCount = 0;
+    private volatile LogSchema[] schemas = new LogSchema[1]; // Indexed by id. Id 0 is the end tag
+
+    /**
+     * The last blob of each channel, which is copied into new files (ex. so that a match's log has the auto that was sent before
+     * it). Guarded by this.
+     */
+    private final Map<String, Blob> lastBlobs = new LinkedHashMap<>();
+
+    /**
+     * Creates a logger that writes to its own file. The robot should use {@link #getInstance()}, this is for tools and tests.
+     *
+     * @param file     The file to create or null to drop everything
+     * @param capacity The size of the file (in bytes)
+     */
+    public DataLogger(@Nullable Path file, int capacity) {
+        this.directory = null;
+        this.maxDirectoryBytes = 0;
+        this.capacity = capacity;
+        this.file = file == null ? LogFile.NONE : LogFile.create(file, capacity, capacity);
+        if (file != null) {
+            startThread();
+        }
+    }
+
+    /**
+     * Creates a logger that writes to new files in a directory
+     *
+     * @param maxDirectoryBytes The most space that the logs in the directory can take up (in bytes)
+     * @param capacity          The size of each file (in bytes)
+     */
+    DataLogger(@NotNull Path directory, long maxDirectoryBytes, int capacity) {
+        this.directory = directory;
+        this.maxDirectoryBytes = maxDirectoryBytes;
+        this.capacity = capacity;
+        this.file = createFileInDirectory();
+        startThread();
+    }
+
+    private @NotNull LogFile createFileInDirectory() {
+        assert directory != null;
+        pruneLogs(directory, MAX_LOG_FILES, maxDirectoryBytes - capacity);
+        String name = LOG_FILE_PREFIX + new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        Path path = directory.resolve(name + LOG_FILE_SUFFIX);
+        // A new file can be started in the same second as the last one. These names still sort after it.
+        for (int i = 1; Files.exists(path); i++) {
+            path = directory.resolve(name + "_" + i + LOG_FILE_SUFFIX);
+        }
+        return LogFile.create(path, capacity, INITIAL_ALLOCATION);
+    }
+
+    private void startThread() {
+        Thread thread = new Thread(this::runInBackground, "Data Logger");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Starts a new file if the current one doesn't have room for a match. Call this when the robot is enabled. This doesn't
+     * block; the new file is created by the logger's thread and records go to the current file until it's ready. Does nothing
+     * if the logger wasn't made by {@link #getInstance()}.
+     */
+    public void startNewFileIfFull() {
+        if (directory == null) {
+            return;
+        }
+        LogFile current = file;
+        if (current.getRoom() < MATCH_SIZE) {
+            synchronized (this) {
+                newFileRequested = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Runs on the logger's thread. Flushes the file every second, allocates the rest of the file and starts new files.
+     */
+    private void runInBackground() {
+        //noinspection InfiniteLoopStatement
+        while (true) {
+            LogFile current = file;
+            if (current.allocateChunk()) {
+                continue; // Allocate the whole file before anything else
+            }
+
+            boolean startNewFile;
+            synchronized (this) {
+                if (!newFileRequested) {
+                    try {
+                        wait(FLUSH_PERIOD);
+                    } catch (InterruptedException e) {
+                        System.out.println("Data logger interrupted " + e.getMessage());
+                    }
+                }
+                startNewFile = newFileRequested;
+                newFileRequested = false;
+            }
+            current.flush();
+            if (startNewFile) {
+                startNewFile(current);
+            }
+        }
+    }
+
+    /**
+     * Moves the writers to a new file with the schemas and last blobs of the current one. Only called by the logger's thread.
+     */
+    private void startNewFile(@NotNull LogFile current) {
+        LogFile newFile = createFileInDirectory();
+        if (newFile == LogFile.NONE) {
+            return; // Keep writing to the current file
+        }
+        synchronized (this) {
+            // Holding the lock so that nothing is registered while the schemas are copied
+            for (int id = 1; id <= schemaCount; id++) {
+                writeSchema(newFile, id, schemas[id]);
+            }
+            for (Map.Entry<String, Blob> blob : lastBlobs.entrySet()) {
+                writeBlob(newFile, blob.getValue().timestamp, toBytes(blob.getKey()), blob.getValue().data);
+            }
+            file = newFile;
+        }
+        // Writers that read the old file before the switch may still be finishing their records
+        current.flush();
+    }
+
+    /**
+     * Deletes the oldest logs in a directory (by name, which starts with the date) until there are less than maxFiles and they
+     * take up at most maxBytes, so that there's room for a new one.
+     */
+    static void pruneLogs(@NotNull Path directory, int maxFiles, long maxBytes) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> logs = new ArrayList<>();
+        long totalBytes = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, LOG_FILE_PREFIX + "*" + LOG_FILE_SUFFIX)) {
+            for (Path log : stream) {
+                logs.add(log);
+                totalBytes += Files.size(log);
+            }
+        } catch (IOException e) {
+            DriverStation.reportError("Could not list the old data logs in " + directory + ": " + e.getMessage(),
+                    e.getStackTrace());
+            return;
+        }
+        Collections.sort(logs);
+
+        for (int i = 0; i < logs.size() && (logs.size() - i >= maxFiles || totalBytes > maxBytes); i++) {
+            Path log = logs.get(i);
+            try {
+                long size = Files.size(log);
+                Files.delete(log);
+                totalBytes -= size;
+            } catch (IOException e) {
+                DriverStation.reportError("Could not delete the old data log " + log + ": " + e.getMessage(),
+                        e.getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Registers a kind of record and writes its schema to the log. Call this once (not every loop) and keep the id.
+     *
+     * @return The id to use with {@link #write(int, double, double[])}
+     */
+    public synchronized int register(@NotNull LogSchema schema) {
+        if (schemaCount == Short.MAX_VALUE) {
+            throw new IllegalStateException("Too many schemas");
+        }
+        int id = ++schemaCount;
+        LogSchema[] newSchemas = new LogSchema[id + 1];
+        System.arraycopy(schemas, 0, newSchemas, 0, schemas.length);
+        newSchemas[id] = schema;
+        schemas = newSchemas;
+
+        writeSchema(file, id, schema);
+        return id;
+    }
+
+    private void writeSchema(@NotNull LogFile logFile, int id, @NotNull LogSchema schema) {
+        byte[] name = toBytes(schema.getName());
+        byte[][] fieldNames = new byte[schema.getFieldCount()][];
+        int size = Short.BYTES * 4 + name.length;
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = toBytes(schema.getFieldName(i));
+            size += Short.BYTES + fieldNames[i].length;
+        }
+
+        int start = reserve(logFile, size);
+        if (start >= 0) {
+            MappedByteBuffer buffer = logFile.buffer;
+            assert buffer != null;
+            int index = start + Short.BYTES;
+            buffer.putShort(index, (short) id);
+            index = putString(buffer, index + Short.BYTES, name);
+            buffer.putShort(index, (short) fieldNames.length);
+            index += Short.BYTES;
+            for (byte[] fieldName : fieldNames) {
+                index = putString(buffer, index, fieldName);
+            }
+            buffer.putShort(start, DataLogFormat.SCHEMA_TAG);
+        }
+    }
+
+    /**
+     * Writes a record. Does not allocate or lock.
+     *
+     * @param id        Id from {@link #register(LogSchema)}
+     * @param timestamp When the values were measured (in seconds)
+     * @param values    A value for each field of the schema
+     */
+    public void write(int id, double timestamp, double @NotNull [] values) {
+        LogSchema schema = schemas[id];
+        if (values.length != schema.getFieldCount()) {
+            throw new IllegalArgumentException("Expected " + schema.getFieldCount() + " values for " + schema.getName()
+                    + " but got " + values.length);
+        }
+
+        LogFile logFile = file;
+        int start = reserve(logFile, schema.getRecordSize());
+        if (start >= 0) {
+            MappedByteBuffer buffer = logFile.buffer;
+            assert buffer != null;
+            int index = start + Short.BYTES;
+            buffer.putDouble(index, timestamp);
+            index += Double.BYTES;
+            for (double value : values) {
+                buffer.putDouble(index, value);
+                index += Double.BYTES;
+            }
+            buffer.putShort(start, (short) id);
+        }
+    }
+
+    /**
+     * Writes a text message (ex. an event that used to be printed). Allocates, so don't use this every loop.
+     *
+     * @param timestamp When the event happened (in seconds)
+     */
+    public void logMessage(double timestamp, @NotNull String message) {
+        byte[] bytes = toBytes(message);
+        LogFile logFile = file;
+        int start = reserve(logFile, Short.BYTES * 2 + Double.BYTES + bytes.length);
+        if (start >= 0) {
+            MappedByteBuffer buffer = logFile.buffer;
+            assert buffer != null;
+            buffer.putDouble(start + Short.BYTES, timestamp);
+            putString(buffer, start + Short.BYTES + Double.BYTES, bytes);
+            buffer.putShort(start, DataLogFormat.MESSAGE_TAG);
+        }
+    }
+
+    /**
+     * Writes a block of bytes (ex. a file that was received). The last block of each channel is also written to any new file.
+     * Allocates, so don't use this every loop.
+     *
+     * @param timestamp When the data was received (in seconds)
+     * @param channel   What the data is
+     */
+    public synchronized void writeBlob(double timestamp, @NotNull String channel, byte @NotNull [] data) {
+        lastBlobs.put(channel, new Blob(timestamp, data));
+        writeBlob(file, timestamp, toBytes(channel), data);
+    }
+
+    private void writeBlob(@NotNull LogFile logFile, double timestamp, byte @NotNull [] channel, byte @NotNull [] data) {
+        int start = reserve(logFile, Short.BYTES * 2 + Double.BYTES + channel.length + Integer.BYTES + data.length);
+        if (start >= 0) {
+            MappedByteBuffer buffer = logFile.buffer;
+            assert buffer != null;
+            buffer.putDouble(start + Short.BYTES, timestamp);
+            int index = putString(buffer, start + Short.BYTES + Double.BYTES, channel);
+            buffer.putInt(index, data.length);
+            index += Integer.BYTES;
+            for (byte b : data) {
+                buffer.put(index++, b);
+            }
+            buffer.putShort(start, DataLogFormat.BLOB_TAG);
+        }
+    }
+
+    /**
+     * Reserves space for a record. The space after the record must be left zeroed so that it reads as the end of the log.
+     *
+     * @return The index of the start of the record or -1 if it doesn't fit
+     */
+    private int reserve(@NotNull LogFile logFile, int size) {
+        if (logFile.buffer == null) {
+            droppedCount.incrementAndGet();
+            return -1;
+        }
+
+        int start;
+        do {
+            start = logFile.position.get();
+            // Only write to the part of the file that has been allocated. Keep 2 bytes at the end for the end tag.
+            if (start + size > logFile.allocated - Short.BYTES) {
+                droppedCount.incrementAndGet();
+                return -1;
+            }
+        } while (!logFile.position.compareAndSet(start, start + size));
+        return start;
+    }
+
+    private static int putString(@NotNull MappedByteBuffer buffer, int index, byte @NotNull [] bytes) {
+        buffer.putShort(index, (short) bytes.length);
+        index += Short.BYTES;
+        for (byte b : bytes) {
+            buffer.put(index++, b);
+        }
+        return index;
+    }
+
+    private static byte @NotNull [] toBytes(@NotNull String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > DataLogFormat.MAX_STRING_LENGTH) {
+            byte[] truncated = new byte[DataLogFormat.MAX_STRING_LENGTH];
+            System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+            return truncated;
+        }
+        return bytes;
+    }
+
+    /**
+     * Asks the OS to write the log to disk. Blocks until it's written.
+     */
+    public void flush() {
+        file.flush();
+    }
+
+    /**
+     * @return The number of records that were dropped because the log is full or couldn't be created
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return The size of the current log file so far (in bytes)
+     */
+    public int getSize() {
+        return Math.min(file.position.get(), capacity);
+    }
+
+    private static final class Blob {
+        final double timestamp;
+        final byte @NotNull [] data;
+
+        Blob(double timestamp, byte @NotNull [] data) {
+            this.timestamp = timestamp;
+            this.data = data;
+        }
+    }
+
+    /**
+     * A memory mapped log file and the position of its next record
+     */
+    private static final class LogFile {
+        /**
+         * Used when the file couldn't be created. Everything is dropped.
+         */
+        static final LogFile NONE = new LogFile(null, null, 0, 0);
+
+        final @Nullable MappedByteBuffer buffer;
+        final int capacity;
+
+        /**
+         * Where the next record will be written
+         */
+        final AtomicInteger position = new AtomicInteger(DataLogFormat.FILE_HEADER_SIZE);
+
+        /**
+         * How much of the file (in bytes) has been zero filled. Records are only written below this.
+         */
+        volatile int allocated;
+
+        /**
+         * Open until the whole file is allocated. Only used by the logger's thread after the file is created.
+         */
+        private @Nullable FileChannel channel;
+        private final @Nullable Path path;
+
+        private LogFile(@Nullable Path path, @Nullable MappedByteBuffer buffer, int capacity, int allocated) {
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.allocated = allocated;
+        }
+
+        /**
+         * Creates a file, allocates the start of it and maps it
+         *
+         * @param allocation How much to allocate now (in bytes). The logger's thread allocates the rest.
+         * @return {@link #NONE} if the file couldn't be created
+         */
+        static @NotNull LogFile create(@NotNull Path path, int capacity, int allocation) {
+            FileChannel channel = null;
+            try {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                allocation = Math.min(allocation, capacity);
+                writeZeros(channel, 0, allocation);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                buffer.put(DataLogFormat.MAGIC);
+                buffer.putInt(DataLogFormat.VERSION);
+                buffer.putInt(0);
+
+                LogFile logFile = new LogFile(path, buffer, capacity, allocation);
+                if (allocation < capacity) {
+                    logFile.channel = channel;
+                } else {
+                    channel.force(false);
+                    channel.close();
+                }
+                return logFile;
+            } catch (IOException | UnsupportedOperationException e) {
+                DriverStation.reportError("Could not create the data log " + path + ": " + e.getMessage(), e.getStackTrace());
+                try {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Nothing else we can do
+                }
+                return NONE;
+            }
+        }
+
+        /**
+         * Writes zeros to part of the file so that the disk space is really taken. Mapping a file only makes it sparse, and
+         * writing to a page that the disk has no room for crashes the thread that wrote it (in the middle of a match) instead of
+         * throwing.
+         *
+         * @throws IOException If the disk is full
+         */
+        private static void writeZeros(@NotNull FileChannel channel, long position, long end) throws IOException {
+            ByteBuffer zeros = ByteBuffer.allocate(ALLOCATION_CHUNK);
+            while (position < end) {
+                zeros.clear();
+                zeros.limit((int) Math.min(zeros.capacity(), end - position));
+                while (zeros.hasRemaining()) {
+                    position += channel.write(zeros, position);
+                }
+            }
+        }
+
+        /**
+         * Allocates the next chunk of the file. Only called by the logger's thread.
+         *
+         * @return If there is more to allocate
+         */
+        boolean allocateChunk() {
+            FileChannel fileChannel = channel;
+            if (fileChannel == null) {
+                return false;
+            }
+            try {
+                int end = (int) Math.min((long) allocated + ALLOCATION_CHUNK, capacity);
+                writeZeros(fileChannel, allocated, end);
+                allocated = end;
+                if (end < capacity) {
+                    return true;
+                }
+                fileChannel.force(false);
+            } catch (IOException e) {
+                // The log ends where the allocation stopped
+                DriverStation.reportError("Could not allocate the data log " + path + " past " + allocated + " bytes: "
+                        + e.getMessage(), e.getStackTrace());
+            }
+            try {
+                fileChannel.close();
+            } catch (IOException ignored) {
+                // The file is still mapped
+            }
+            channel = null;
+            return false;
+        }
+
+        /**
+         * @return How much room (in bytes) is left for records
+         */
+        int getRoom() {
+            return buffer == null ? 0 : capacity - position.get();
+        }
+
+        void flush() {
+            if (buffer != null) {
+                buffer.force();
+            }
+        }
+    }
+}
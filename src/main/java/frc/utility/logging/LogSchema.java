@@ -0,0 +1,44 @@
+package frc.utility.logging;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The layout of a record in the data log: a name and the names of the doubles that every record of this type has.
+ */
+public final class LogSchema {
+    private final @NotNull String name;
+    private final @NotNull String @NotNull [] fieldNames;
+
+    public LogSchema(@NotNull String name, @NotNull String @NotNull ... fieldNames) {
+        this.name = name;
+        this.fieldNames = fieldNames.clone();
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    public @NotNull String getFieldName(int field) {
+        return fieldNames[field];
+    }
+
+    /**
+     * @return The index of the field or -1 if the schema doesn't have it
+     */
+    public int indexOf(@NotNull String fieldName) {
+        return Arrays.asList(fieldNames).indexOf(fieldName);
+    }
+
+    /**
+     * @return The size of a data record of this schema (in bytes)
+     */
+    int getRecordSize() {
+        return DataLogFormat.DATA_HEADER_SIZE + fieldNames.length * Double.BYTES;
+    }
+}
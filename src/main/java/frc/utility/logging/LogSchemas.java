@@ -0,0 +1,137 @@
+package frc.utility.logging;
+
+/**
+ * The records that the subsystems write to the data log. The log tools use these too, so changing a schema here changes both.
+ */
+public final class LogSchemas {
+    private LogSchemas() {}
+
+    // Drive: one record per drive cycle. Module fields are 4 wide (0 -> Left Front, 1 -> Left Back, 2 -> Right Front, 3 -> Right
+    // Back)
+    public static final int DRIVE_VELOCITY = 0;
+    public static final int DRIVE_STEER_ANGLE = 4;
+    public static final int DRIVE_STEER_RELATIVE_POSITION = 8;
+    public static final int DRIVE_CURRENT = 12;
+    public static final int DRIVE_STEER_CURRENT = 16;
+    public static final int DRIVE_GYRO_YAW = 20;
+    public static final int DRIVE_COMMAND_X_VELOCITY = 21;
+    public static final int DRIVE_COMMAND_Y_VELOCITY = 22;
+    public static final int DRIVE_COMMAND_ROTATION = 23;
+    public static final int DRIVE_STATE = 24;
+
+    public static final LogSchema DRIVE = new LogSchema("Drive",
+            "Module 0 Velocity", "Module 1 Velocity", "Module 2 Velocity", "Module 3 Velocity",
+            "Module 0 Steer Angle", "Module 1 Steer Angle", "Module 2 Steer Angle", "Module 3 Steer Angle",
+            "Module 0 Steer Relative Position", "Module 1 Steer Relative Position", "Module 2 Steer Relative Position",
+            "Module 3 Steer Relative Position",
+            "Module 0 Drive Current", "Module 1 Drive Current", "Module 2 Drive Current", "Module 3 Drive Current",
+            "Module 0 Steer Current", "Module 1 Steer Current", "Module 2 Steer Current", "Module 3 Steer Current",
+            "Gyro Yaw", "Command X Velocity", "Command Y Velocity", "Command Rotation", "Drive State");
+
+    // Drive Turn: one record per drive cycle while turning in place
+    public static final int TURN_ERROR = 0;
+    public static final int TURN_ACTUAL_SPEED = 1;
+    public static final int TURN_PID_OUTPUT = 2;
+    public static final int TURN_COMMAND = 3;
+    public static final int TURN_MIN_SPEED = 4;
+
+    public static final LogSchema DRIVE_TURN = new LogSchema("Drive Turn",
+            "Error", "Actual Speed", "PID Output", "Command", "Min Speed");
+
+    // RobotTracker: one record per odometry update
+    public static final int TRACKER_ODOMETRY_X = 0;
+    public static final int TRACKER_ODOMETRY_Y = 1;
+    public static final int TRACKER_ODOMETRY_THETA = 2;
+    public static final int TRACKER_X = 3;
+    public static final int TRACKER_Y = 4;
+    public static final int TRACKER_THETA = 5;
+    public static final int TRACKER_VELOCITY_X = 6;
+    public static final int TRACKER_VELOCITY_Y = 7;
+    public static final int TRACKER_ANGULAR_VELOCITY = 8;
+
+    public static final LogSchema ROBOT_TRACKER = new LogSchema("RobotTracker",
+            "Odometry X", "Odometry Y", "Odometry Theta", "X", "Y", "Theta", "Velocity X", "Velocity Y", "Angular Velocity");
+
+    // Inputs: everything that the robot code reads from the hardware and the driver station, so that it can be replayed (see
+    // frc.tools.replay.ReplayEngine in the tools source set)
+
+    // Input Drive: the sensors that Drive reads at the start of each cycle. Module fields are 4 wide like in Drive
+    public static final int INPUT_DRIVE_VELOCITY = 0;
+    public static final int INPUT_DRIVE_POSITION = 4;
+    public static final int INPUT_DRIVE_CURRENT = 8;
+    public static final int INPUT_STEER_ANGLE = 12;
+    public static final int INPUT_STEER_RELATIVE_POSITION = 16;
+    public static final int INPUT_STEER_CURRENT = 20;
+    public static final int INPUT_DRIVE_GYRO_ANGLE = 24;
+
+    public static final LogSchema INPUT_DRIVE = new LogSchema("Input Drive",
+            "Module 0 Velocity", "Module 1 Velocity", "Module 2 Velocity", "Module 3 Velocity",
+            "Module 0 Position", "Module 1 Position", "Module 2 Position", "Module 3 Position",
+            "Module 0 Drive Current", "Module 1 Drive Current", "Module 2 Drive Current", "Module 3 Drive Current",
+            "Module 0 Steer Angle", "Module 1 Steer Angle", "Module 2 Steer Angle", "Module 3 Steer Angle",
+            "Module 0 Steer Relative Position", "Module 1 Steer Relative Position", "Module 2 Steer Relative Position",
+            "Module 3 Steer Relative Position",
+            "Module 0 Steer Current", "Module 1 Steer Current", "Module 2 Steer Current", "Module 3 Steer Current",
+            "Gyro Angle");
+
+    // Input Odometry: the sensors that the high rate odometry reads for each sample
+    public static final int INPUT_ODOMETRY_POSITION = 0;
+    public static final int INPUT_ODOMETRY_VELOCITY = 4;
+    public static final int INPUT_ODOMETRY_STEER_ANGLE = 8;
+    public static final int INPUT_ODOMETRY_GYRO_ANGLE = 12;
+
+    public static final LogSchema INPUT_ODOMETRY = new LogSchema("Input Odometry",
+            "Module 0 Position", "Module 1 Position", "Module 2 Position", "Module 3 Position",
+            "Module 0 Velocity", "Module 1 Velocity", "Module 2 Velocity", "Module 3 Velocity",
+            "Module 0 Steer Angle", "Module 1 Steer Angle", "Module 2 Steer Angle", "Module 3 Steer Angle",
+            "Gyro Angle");
+
+    // Input Controller: a controller's state from Controller.update(). Only written when it changes
+    public static final int CONTROLLER_MAX_AXES = 12; // Most that the driver station sends
+    public static final int CONTROLLER_MAX_POVS = 12;
+
+    public static final int INPUT_CONTROLLER_PORT = 0;
+    public static final int INPUT_CONTROLLER_BUTTONS = 1;
+    public static final int INPUT_CONTROLLER_AXIS_COUNT = 2;
+    public static final int INPUT_CONTROLLER_POV_COUNT = 3;
+    public static final int INPUT_CONTROLLER_AXES = 4;
+    public static final int INPUT_CONTROLLER_POVS = INPUT_CONTROLLER_AXES + CONTROLLER_MAX_AXES;
+
+    public static final LogSchema INPUT_CONTROLLER = new LogSchema("Input Controller",
+            "Port", "Buttons", "Axis Count", "POV Count",
+            "Axis 0", "Axis 1", "Axis 2", "Axis 3", "Axis 4", "Axis 5", "Axis 6", "Axis 7", "Axis 8", "Axis 9", "Axis 10",
+            "Axis 11",
+            "POV 0", "POV 1", "POV 2", "POV 3", "POV 4", "POV 5", "POV 6", "POV 7", "POV 8", "POV 9", "POV 10", "POV 11");
+
+    // Input Driver Station: the mode of the robot. One record per robot loop, written at the end of robotPeriodic()
+    public static final int INPUT_DS_ENABLED = 0;
+    public static final int INPUT_DS_AUTONOMOUS = 1;
+    public static final int INPUT_DS_TEST = 2;
+
+    public static final LogSchema INPUT_DRIVER_STATION = new LogSchema("Input Driver Station",
+            "Enabled", "Autonomous", "Test");
+
+    // Input Limelight: one record per frame, with the time that it was received
+    public static final int INPUT_LIMELIGHT_TARGET_VISIBLE = 0;
+    public static final int INPUT_LIMELIGHT_HORIZONTAL_OFFSET = 1;
+    public static final int INPUT_LIMELIGHT_VERTICAL_OFFSET = 2;
+    public static final int INPUT_LIMELIGHT_TARGET_AREA = 3;
+    public static final int INPUT_LIMELIGHT_TARGET_SKEW = 4;
+    public static final int INPUT_LIMELIGHT_LATENCY = 5;
+
+    public static final LogSchema INPUT_LIMELIGHT = new LogSchema("Input Limelight",
+            "Target Visible", "Horizontal Offset", "Vertical Offset", "Target Area", "Target Skew", "Latency");
+
+    /**
+     * Blob channel of the autos that the GUI uploads. The data is the json in UTF-8.
+     */
+    public static final String INPUT_AUTO_PATH_CHANNEL = "autodata/autoPath";
+
+    // Output Module: the commands sent to a swerve module. Only written by replays, once per drive cycle for each module
+    public static final int OUTPUT_MODULE = 0;
+    public static final int OUTPUT_MODULE_DRIVE_VOLTAGE = 1;
+    public static final int OUTPUT_MODULE_STEER_POSITION = 2; // NaN when the steer motor is stopped
+
+    public static final LogSchema OUTPUT_MODULE_COMMAND = new LogSchema("Output Module Command",
+            "Module", "Drive Voltage", "Steer Position");
+}
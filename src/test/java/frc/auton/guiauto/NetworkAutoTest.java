@@ -0,0 +1,97 @@
+package frc.auton.guiauto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.auton.guiauto.serialization.TimedRotation;
+import frc.subsystem.Drive;
+import frc.subsystem.DriveSimulation;
+import frc.utility.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs an auto sent by the GUI on the simulated drivetrain, the same way that the robot does. Time comes from a
+ * {@link VirtualClock}, so the auto runs much faster than real time.
+ */
+class NetworkAutoTest {
+    /**
+     * The auto's path takes about 8 seconds
+     */
+    private static final double REAL_TIME_LIMIT = 1.5; // s
+
+    /**
+     * @return The auto as the GUI sends it
+     */
+    private static String toGuiJson(Trajectory trajectory, List<TimedRotation> rotations) throws Exception {
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("type", "trajectory");
+        step.put("states", trajectory.getStates());
+        step.put("rotations", rotations);
+        return new ObjectMapper().writeValueAsString(Map.of("autonomousSteps", List.of(step)));
+    }
+
+    @Test
+    void testRunsAuto() throws Exception {
+        Thread autoThread = null;
+        try (DriveSimulation simulation = new DriveSimulation()) {
+            Drive drive = simulation.getDrive();
+            VirtualClock clock = simulation.getClock();
+
+            // The robot isn't where the auto starts, so the auto has to reset the position before it drives the path
+            Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                    new Pose2d(1, 1, Rotation2d.fromDegrees(0)),
+                    List.of(new Translation2d(3, 2), new Translation2d(5, 1), new Translation2d(7, 2)),
+                    new Pose2d(9, 1, Rotation2d.fromDegrees(0)),
+                    new TrajectoryConfig(1.5, 1));
+            Rotation2d endRotation = Rotation2d.fromDegrees(30);
+            List<TimedRotation> rotations = List.of(new TimedRotation(0, Rotation2d.fromDegrees(0)),
+                    new TimedRotation(trajectory.getTotalTimeSeconds() / 2, endRotation));
+            NetworkTableInstance.getDefault().getTable("autodata").getEntry("autoPath")
+                    .setString(toGuiJson(trajectory, rotations));
+            NetworkAuto auto = new NetworkAuto();
+            clock.sleep(100);
+
+            autoThread = new Thread(auto);
+            clock.registerThread(autoThread);
+            long realStartTime = System.nanoTime();
+            autoThread.start();
+            double startTime = clock.getTimestamp();
+            AtomicReference<Pose2d> firstPathPose = new AtomicReference<>();
+            boolean finished = simulation.waitUntil(() -> {
+                if (firstPathPose.get() == null && drive.getDriveState() == Drive.DriveState.RAMSETE) {
+                    firstPathPose.set(simulation.getRobotTracker().getPoseMeters());
+                }
+                return auto.isFinished();
+            }, trajectory.getTotalTimeSeconds() + DriveSimulation.TIMEOUT);
+            double simulatedTime = clock.getTimestamp() - startTime;
+            double realTime = (System.nanoTime() - realStartTime) * 1.0e-9;
+
+            assertTrue(finished, "The auto didn't finish in " + simulatedTime + "s");
+            assertTrue(realTime < REAL_TIME_LIMIT, "Running " + simulatedTime + "s of auto took " + realTime + "s");
+            assertNotNull(firstPathPose.get(), "The path was never started");
+            DriveSimulation.assertAt(1, 1, firstPathPose.get()); // The position was reset before the path started
+            // The auto only finishes once the drive has finished the path
+            assertEquals(Drive.DriveState.DONE, drive.getDriveState());
+            assertTrue(simulatedTime >= trajectory.getTotalTimeSeconds(), "The auto finished early: " + simulatedTime + "s");
+            simulation.assertAtEnd(trajectory, endRotation);
+        } finally {
+            if (autoThread != null) {
+                autoThread.interrupt();
+            }
+        }
+    }
+}
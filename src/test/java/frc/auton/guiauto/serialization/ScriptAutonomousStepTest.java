@@ -7,7 +7,6 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,9 +46,7 @@ class ScriptAutonomousStepTest {
         scriptAutonomousStep.execute(timeDelayedCommandList, percentDelayedCommandList);
 
 
-        Field driveState = Drive.class.getDeclaredField("driveState"); //Use reflection to access private field
-        driveState.setAccessible(true);
-        assertEquals(Drive.DriveState.DONE, driveState.get(Drive.getInstance()));
+        assertEquals(Drive.DriveState.DONE, Drive.getInstance().getDriveState());
 
         assertEquals(1, timeDelayedCommandList.size());
         assertEquals(0, percentDelayedCommandList.size());
@@ -71,9 +68,7 @@ class ScriptAutonomousStepTest {
 
         scriptAutonomousStep.execute(timeDelayedCommandList, percentDelayedCommandList);
 
-        Field driveState = Drive.class.getDeclaredField("driveState"); //Use reflection to access private field
-        driveState.setAccessible(true);
-        assertEquals(Drive.DriveState.DONE, driveState.get(Drive.getInstance()));
+        assertEquals(Drive.DriveState.DONE, Drive.getInstance().getDriveState());
 
         assertEquals(0, timeDelayedCommandList.size());
         assertEquals(1, percentDelayedCommandList.size());
@@ -95,9 +90,7 @@ class ScriptAutonomousStepTest {
 
         scriptAutonomousStep.execute(timeDelayedCommandList, percentDelayedCommandList);
 
-        Field driveState = Drive.class.getDeclaredField("driveState"); //Use reflection to access private field
-        driveState.setAccessible(true);
-        assertEquals(Drive.DriveState.TELEOP, driveState.get(Drive.getInstance()));
+        assertEquals(Drive.DriveState.TELEOP, Drive.getInstance().getDriveState());
 
         assertEquals(0, timeDelayedCommandList.size());
         assertEquals(0, percentDelayedCommandList.size());
@@ -0,0 +1,112 @@
+package frc.auton.guiauto.serialization;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import frc.utility.CompactTrajectory;
+import frc.utility.Serializer;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrajectoryAutonomousStepTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static void assertSameTrajectory(CompactTrajectory expected, CompactTrajectory actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getTotalTimeSeconds(), actual.getTotalTimeSeconds());
+        CompactTrajectory.Sample expectedSample = new CompactTrajectory.Sample();
+        CompactTrajectory.Sample actualSample = new CompactTrajectory.Sample();
+        for (double t = -0.5; t < expected.getTotalTimeSeconds() + 0.5; t += 0.0037) {
+            expected.sample(t, expectedSample);
+            actual.sample(t, actualSample);
+            assertEquals(expectedSample.timeSeconds, actualSample.timeSeconds);
+            assertEquals(expectedSample.x, actualSample.x);
+            assertEquals(expectedSample.y, actualSample.y);
+            assertEquals(expectedSample.heading, actualSample.heading);
+            assertEquals(expectedSample.velocity, actualSample.velocity);
+            assertEquals(expectedSample.acceleration, actualSample.acceleration);
+            assertEquals(expectedSample.curvature, actualSample.curvature);
+        }
+    }
+
+    private static TrajectoryAutonomousStep readStep(String stepJson) throws Exception {
+        Autonomous autonomous = Serializer.deserializeAuto("{\"autonomousSteps\": [" + stepJson + "]}");
+        assertEquals(1, autonomous.getAutonomousSteps().size());
+        return (TrajectoryAutonomousStep) autonomous.getAutonomousSteps().get(0);
+    }
+
+    @Test
+    void testReadsGuiJson() throws Exception {
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+                List.of(new Translation2d(1, 1), new Translation2d(2, -1)),
+                new Pose2d(3, 0, Rotation2d.fromDegrees(180)),
+                new TrajectoryConfig(3, 2));
+        List<TimedRotation> rotations = List.of(new TimedRotation(0, Rotation2d.fromDegrees(0)),
+                new TimedRotation(1.25, Rotation2d.fromDegrees(-90)));
+
+        // Written by Jackson from the WPILib classes, the same as the GUI does
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("type", "trajectory");
+        step.put("states", trajectory.getStates());
+        step.put("rotations", rotations);
+        TrajectoryAutonomousStep autonomousStep = readStep(OBJECT_MAPPER.writeValueAsString(step));
+
+        assertSameTrajectory(new CompactTrajectory(trajectory), autonomousStep.getTrajectory());
+        assertEquals(2, autonomousStep.getRotations().size());
+        for (int i = 0; i < rotations.size(); i++) {
+            assertEquals(rotations.get(i).time, autonomousStep.getRotations().get(i).time);
+            assertEquals(rotations.get(i).rotation.getRadians(), autonomousStep.getRotations().get(i).rotation.getRadians());
+        }
+    }
+
+    @Test
+    void testSkipsUnknownFields() throws Exception {
+        TrajectoryAutonomousStep autonomousStep = readStep("{\"type\": \"trajectory\", \"color\": [1, {\"a\": 2}], "
+                + "\"states\": [{\"pose\": {\"rotation\": {\"radians\": 1, \"extra\": {}},"
+                + " \"translation\": {\"y\": 2, \"x\": 1.5}},"
+                + " \"time\": 0, \"extra\": [[]], \"velocity\": 0.5, \"acceleration\": null, \"curvature\": -1e-2},"
+                + " {\"time\": 1.5, \"velocity\": 1}],"
+                + " \"rotations\": [{\"rotation\": {\"radians\": 3}, \"time\": 0.5, \"extra\": \"value\"}]}");
+
+        CompactTrajectory trajectory = autonomousStep.getTrajectory();
+        assertEquals(2, trajectory.size());
+        assertEquals(1.5, trajectory.getTotalTimeSeconds());
+        CompactTrajectory.Sample sample = trajectory.sample(0, new CompactTrajectory.Sample());
+        assertEquals(1.5, sample.x);
+        assertEquals(2, sample.y);
+        assertEquals(1, sample.heading);
+        assertEquals(0.5, sample.velocity);
+        assertEquals(0, sample.acceleration);
+        assertEquals(-0.01, sample.curvature);
+        trajectory.sample(2, sample); // The missing fields are 0
+        assertEquals(0, sample.x);
+        assertEquals(0, sample.heading);
+        assertEquals(1, sample.velocity);
+
+        assertEquals(1, autonomousStep.getRotations().size());
+        assertEquals(0.5, autonomousStep.getRotations().get(0).time);
+        assertEquals(3, autonomousStep.getRotations().get(0).rotation.getRadians());
+    }
+
+    @Test
+    void testRejectsBadStates() {
+        assertThrows(JsonMappingException.class, () -> readStep("{\"type\": \"trajectory\", \"states\": [], \"rotations\": []}"));
+        assertThrows(JsonMappingException.class,
+                () -> readStep("{\"type\": \"trajectory\", \"states\": [{\"time\": \"soon\"}], \"rotations\": []}"));
+        assertThrows(JsonMappingException.class, () -> readStep("{\"type\": \"trajectory\", \"rotations\": []}"));
+        assertThrows(JsonMappingException.class,
+                () -> readStep("{\"type\": \"trajectory\", \"states\": null, \"rotations\": []}"));
+    }
+}
@@ -0,0 +1,102 @@
+package frc.subsystem;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import frc.utility.Clock;
+import frc.utility.VirtualClock;
+import frc.utility.logging.DataLogger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs Drive and RobotTracker on the simulated modules and gyro with time from a {@link VirtualClock}. The robot code's
+ * singletons can only be set up once per JVM, so only create one of these in a test class (each test class gets its own JVM).
+ */
+public final class DriveSimulation implements AutoCloseable {
+    /**
+     * How long (in seconds of simulated time) to wait after a path should have finished
+     */
+    public static final double TIMEOUT = 5;
+    private static final double POSITION_TOLERANCE = 0.25; // m
+    private static final double HEADING_TOLERANCE = 10; // deg
+
+    private final @NotNull VirtualClock clock;
+    private final @NotNull Drive drive;
+    private final @NotNull RobotTracker robotTracker;
+
+    public DriveSimulation() {
+        // Everything that the robot code gets from a singleton must be replaced before the first subsystem is created
+        clock = new VirtualClock(0, true);
+        Clock.setInstance(clock);
+        DataLogger.setInstance(new DataLogger(null, 0));
+        HAL.initialize(500, 0);
+
+        // Registered first, so the test runs before the subsystems when they're due at the same time
+        clock.registerCurrentThread();
+        drive = Drive.getInstance();
+        robotTracker = RobotTracker.getInstance();
+        robotTracker.start();
+        drive.start();
+    }
+
+    public @NotNull VirtualClock getClock() {
+        return clock;
+    }
+
+    public @NotNull Drive getDrive() {
+        return drive;
+    }
+
+    public @NotNull RobotTracker getRobotTracker() {
+        return robotTracker;
+    }
+
+    /**
+     * Lets time pass in 20ms steps (like the robot loop) until the condition is true
+     *
+     * @param timeout The most time to let pass (in seconds)
+     * @return If the condition became true
+     */
+    public boolean waitUntil(@NotNull BooleanSupplier condition, double timeout) throws InterruptedException {
+        double startTime = clock.getTimestamp();
+        while (!condition.getAsBoolean()) {
+            if (clock.getTimestamp() - startTime >= timeout) {
+                return false;
+            }
+            clock.sleep(20);
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the robot stopped at the end of a path
+     *
+     * @param heading The heading that the robot should have at the end
+     */
+    public void assertAtEnd(@NotNull Trajectory trajectory, @NotNull Rotation2d heading) {
+        Pose2d end = trajectory.getStates().get(trajectory.getStates().size() - 1).poseMeters;
+        Pose2d pose = robotTracker.getPoseMeters();
+        assertAt(end.getX(), end.getY(), pose);
+        assertEquals(heading.getDegrees(), pose.getRotation().getDegrees(), HEADING_TOLERANCE, pose.toString());
+    }
+
+    /**
+     * Checks that a pose is at a position
+     */
+    public static void assertAt(double x, double y, @NotNull Pose2d pose) {
+        assertEquals(x, pose.getX(), POSITION_TOLERANCE, pose.toString());
+        assertEquals(y, pose.getY(), POSITION_TOLERANCE, pose.toString());
+    }
+
+    @Override
+    public void close() {
+        drive.kill();
+        robotTracker.kill();
+        clock.unregisterCurrentThread();
+    }
+}
@@ -0,0 +1,49 @@
+package frc.subsystem;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import frc.utility.CompactTrajectory;
+import frc.utility.VirtualClock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a path with the simulated modules and gyro. Time comes from a {@link VirtualClock}.
+ */
+class DriveSimulationTest {
+    @Test
+    void testFollowsPath() throws InterruptedException {
+        try (DriveSimulation simulation = new DriveSimulation()) {
+            Drive drive = simulation.getDrive();
+            VirtualClock clock = simulation.getClock();
+
+            Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                    new Pose2d(1, 1, Rotation2d.fromDegrees(0)),
+                    List.of(new Translation2d(2, 1.5)),
+                    new Pose2d(3, 1, Rotation2d.fromDegrees(0)),
+                    new TrajectoryConfig(2, 2));
+            simulation.getRobotTracker().resetPosition(new Pose2d(trajectory.getInitialPose().getTranslation(),
+                    new Rotation2d()));
+            clock.sleep(100); // Let the reset be applied
+
+            double startTime = clock.getTimestamp();
+            drive.setAutoPath(new CompactTrajectory(trajectory));
+            drive.setAutoRotation(Rotation2d.fromDegrees(0));
+            assertEquals(Drive.DriveState.RAMSETE, drive.getDriveState());
+            simulation.waitUntil(drive::isFinished, trajectory.getTotalTimeSeconds() + DriveSimulation.TIMEOUT);
+            double simulatedTime = clock.getTimestamp() - startTime;
+
+            assertEquals(Drive.DriveState.DONE, drive.getDriveState(), "The path didn't finish in " + simulatedTime + "s");
+            assertTrue(simulatedTime >= trajectory.getTotalTimeSeconds(), "The path finished early: " + simulatedTime + "s");
+            simulation.assertAtEnd(trajectory, Rotation2d.fromDegrees(0));
+        }
+    }
+}
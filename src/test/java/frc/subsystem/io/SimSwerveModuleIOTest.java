@@ -0,0 +1,53 @@
+package frc.subsystem.io;
+
+import frc.robot.Constants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimSwerveModuleIOTest {
+
+    private static void run(SwerveModuleIO module, double seconds) {
+        for (int i = 0; i <= Math.round(seconds / 0.02); i++) {
+            module.periodic(i * 0.02);
+        }
+    }
+
+    @Test
+    void testDriveReachesFeedforwardVelocity() {
+        SimSwerveModuleIO module = new SimSwerveModuleIO(0);
+        module.setDriveVoltage(Constants.DRIVE_FEEDFORWARD[0].calculate(2));
+        run(module, 2);
+
+        assertEquals(2, module.getDriveVelocity(), 1e-3);
+        // It takes about kA / kV seconds to get up to speed
+        assertEquals(2 * 2, module.getDrivePosition(), 0.5);
+    }
+
+    @Test
+    void testStaticFrictionHoldsWheel() {
+        SimSwerveModuleIO module = new SimSwerveModuleIO(0);
+        module.setDriveVoltage(Constants.DRIVE_FEEDFORWARD[0].ks / 2);
+        run(module, 1);
+
+        assertEquals(0, module.getDriveVelocity());
+        assertEquals(0, module.getDrivePosition());
+    }
+
+    @Test
+    void testSteerReachesTarget() {
+        SimSwerveModuleIO module = new SimSwerveModuleIO(0);
+        module.setSteerPosition(90);
+        run(module, 1);
+
+        assertEquals(90, module.getSteerRelativePosition(), 0.5);
+        assertEquals(90, module.getSteerAngle(), 0.5);
+    }
+
+    @Test
+    void testSteerAngleWraps() {
+        SimSwerveModuleIO module = new SimSwerveModuleIO(0, -30);
+        assertEquals(-30, module.getSteerRelativePosition());
+        assertEquals(330, module.getSteerAngle(), 1e-9);
+    }
+}
@@ -0,0 +1,128 @@
+package frc.tools;
+
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogExporterTest {
+    private static final LogSchema FIRST = new LogSchema("First", "A", "B", "C");
+    private static final LogSchema SECOND = new LogSchema("Second", "X, Y");
+
+    private static Path writeLog(@NotNull Path directory) {
+        Path log = directory.resolve("log.bin");
+        DataLogger logger = new DataLogger(log, 64 * 1024);
+        int first = logger.register(FIRST);
+        int second = logger.register(SECOND);
+        for (int i = 0; i < 10; i++) {
+            logger.write(first, i, new double[]{i, i * 2, i * 3});
+            logger.write(second, i + 0.5, new double[]{-i});
+        }
+        logger.logMessage(3, "hello, \"world\"");
+        logger.logMessage(20, "too late");
+        logger.flush();
+        return log;
+    }
+
+    private static Path newDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("log-exporter-test");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    @Test
+    void testReadsRecords() throws IOException {
+        Path log = writeLog(newDirectory());
+        List<String> schemas = new ArrayList<>();
+        double[] sums = new double[3];
+        List<String> messages = new ArrayList<>();
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) {
+                    schemas.add(id + " " + schema.getName() + " " + schema.getFieldCount());
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) {
+                    sums[id] += values[0];
+                    if (id == 1) {
+                        assertEquals(timestamp * 3, values[2]);
+                    }
+                }
+
+                @Override
+                public void onMessage(double timestamp, @NotNull String message) {
+                    messages.add(timestamp + " " + message);
+                }
+            });
+        }
+
+        assertEquals(Arrays.asList("1 First 3", "2 Second 1"), schemas);
+        assertEquals(45, sums[1]);
+        assertEquals(-45, sums[2]);
+        assertEquals(Arrays.asList("3.0 hello, \"world\"", "20.0 too late"), messages);
+    }
+
+    @Test
+    void testExportsCsv() throws IOException {
+        Path directory = newDirectory();
+        Path log = writeLog(directory);
+        Path output = directory.resolve("csv");
+
+        LogExporter exporter = new LogExporter();
+        exporter.setTimeRange(2, 4);
+        exporter.addSignal("First/C");
+        exporter.addSignal("First/A");
+        exporter.addSignal("Second");
+        exporter.addSignal("Third");
+        Set<String> missingSignals = exporter.export(log, output);
+
+        assertEquals(Set.of("Third"), missingSignals);
+        assertEquals(Arrays.asList("Timestamp,C,A", "2.0,6.0,2.0", "3.0,9.0,3.0", "4.0,12.0,4.0"),
+                Files.readAllLines(output.resolve("First.csv")));
+        assertEquals(Arrays.asList("Timestamp,\"X, Y\"", "2.5,-2.0", "3.5,-3.0"),
+                Files.readAllLines(output.resolve("Second.csv")));
+        assertEquals(Arrays.asList("Timestamp,Message", "3.0,\"hello, \"\"world\"\"\""),
+                Files.readAllLines(output.resolve(LogExporter.MESSAGES_FILE)));
+    }
+
+    @Test
+    void testExportsColumns() throws IOException {
+        Path directory = newDirectory();
+        Path log = writeLog(directory);
+        Path output = directory.resolve("columnar");
+
+        LogExporter exporter = new LogExporter();
+        exporter.setFormat(LogExporter.Format.COLUMNAR);
+        exporter.addSignal("First/B");
+        exporter.export(log, output);
+
+        Path table = output.resolve("First");
+        assertEquals(Arrays.asList("Timestamp", "B"),
+                Files.readAllLines(table.resolve(ColumnarTableWriter.COLUMNS_FILE), StandardCharsets.UTF_8));
+        assertTrue(Files.notExists(output.resolve("Second")));
+        try (DataInputStream timestamps = new DataInputStream(
+                Files.newInputStream(table.resolve(ColumnarTableWriter.TIMESTAMP_FILE)));
+             DataInputStream values = new DataInputStream(Files.newInputStream(table.resolve("B.f64")))) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, timestamps.readDouble());
+                assertEquals(i * 2, values.readDouble());
+            }
+            assertEquals(-1, timestamps.read());
+        }
+    }
+}
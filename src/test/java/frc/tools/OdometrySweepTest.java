@@ -0,0 +1,86 @@
+package frc.tools;
+
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OdometrySweepTest {
+    /**
+     * Records the robot driving straight with wheels that measure short and a module that is steered off by a few degrees
+     */
+    private static void writeLog(Path file, double angleDegrees, double distanceScale, double module3Offset) {
+        DataLogger logger = new DataLogger(file, 4 * 1024 * 1024);
+        int id = logger.register(LogSchemas.INPUT_ODOMETRY);
+        double[] values = new double[LogSchemas.INPUT_ODOMETRY.getFieldCount()];
+        for (int sample = 0; sample <= 400; sample++) {
+            double distance = sample * 0.005; // 1 m/s
+            for (int i = 0; i < 4; i++) {
+                values[LogSchemas.INPUT_ODOMETRY_POSITION + i] = distance / distanceScale;
+                values[LogSchemas.INPUT_ODOMETRY_VELOCITY + i] = 1 / distanceScale;
+                values[LogSchemas.INPUT_ODOMETRY_STEER_ANGLE + i] = angleDegrees - (i == 3 ? module3Offset : 0);
+            }
+            values[LogSchemas.INPUT_ODOMETRY_GYRO_ANGLE] = 0;
+            logger.write(id, sample * 0.005, values);
+        }
+        logger.flush();
+    }
+
+    private static Path newDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("odometry-sweep-test");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    @Test
+    void testFindsParameters() throws IOException {
+        Path tempDir = newDirectory();
+        writeLog(tempDir.resolve("forward.bin"), 0, 1.04, 5);
+        writeLog(tempDir.resolve("diagonal.bin"), 45, 1.04, 5);
+        double diagonal = 2 * Math.sqrt(0.5);
+        Files.write(tempDir.resolve("poses.csv"), String.join("\n",
+                "# log, start x, start y, start heading, end x, end y, end heading",
+                "forward.bin, 1, 1, 0, 3, 1, 0",
+                "diagonal.bin, 0, 0, 0, " + diagonal + ", " + diagonal + ", 0").getBytes(StandardCharsets.UTF_8));
+
+        List<OdometryRecording> recordings = OdometrySweep.loadRecordings(tempDir.resolve("poses.csv"));
+        assertEquals(2, recordings.size());
+        assertEquals(401, recordings.get(0).getSampleCount());
+
+        OdometrySweep sweep = new OdometrySweep();
+        sweep.setDistanceScales(1, 1.02, 1.04, 1.06);
+        sweep.setSteerOffsets(3, -5, 0, 5, 10);
+        sweep.setSteerOffsets(0, -1, 0, 1);
+        sweep.setParallelism(3);
+        assertEquals(48, sweep.getCandidateCount());
+
+        List<OdometrySweep.Result> results = sweep.sweep(recordings, 5);
+        assertEquals(5, results.size());
+        OdometrySweep.Result best = results.get(0);
+        assertEquals(1.04, best.getDistanceScale(), 1e-9);
+        assertEquals(0, best.getSteerOffset(0), 1e-9);
+        assertEquals(0, best.getSteerOffset(1), 1e-9);
+        assertEquals(0, best.getSteerOffset(2), 1e-9);
+        assertEquals(5, best.getSteerOffset(3), 1e-9);
+        assertEquals(0, best.getScore(), 1e-6);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i).getScore() >= results.get(i - 1).getScore());
+        }
+    }
+
+    @Test
+    void testParsesValues() {
+        assertArrayEquals(new double[]{1.5}, OdometrySweep.parseValues("1.5"));
+        assertArrayEquals(new double[]{-1, 0, 2}, OdometrySweep.parseValues("-1, 0,2"));
+        assertArrayEquals(new double[]{0.9, 0.95, 1, 1.05, 1.1}, OdometrySweep.parseValues("0.9:1.1:0.05"), 1e-9);
+    }
+}
@@ -0,0 +1,40 @@
+package frc.tools.replay;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InputSeriesTest {
+
+    @Test
+    void testEmpty() {
+        InputSeries series = new InputSeries(2);
+        assertEquals(-1, series.indexNearest(1));
+        assertEquals(0, series.getNearest(1, 1));
+    }
+
+    @Test
+    void testFindsNearest() {
+        InputSeries series = new InputSeries(2);
+        for (int i = 0; i < 3000; i++) {
+            series.add(i * 0.02, new double[]{i, -i});
+        }
+        assertEquals(3000, series.size());
+
+        assertEquals(0, series.indexNearest(-1));
+        assertEquals(2999, series.indexNearest(100));
+        assertEquals(10, series.indexNearest(0.2));
+        assertEquals(10, series.indexNearest(0.2009));
+        assertEquals(11, series.indexNearest(0.2101));
+        assertEquals(-11, series.getNearest(0.2101, 1));
+        assertEquals(2500, series.get(2500, 0));
+    }
+
+    @Test
+    void testRequiresTimeOrder() {
+        InputSeries series = new InputSeries(1);
+        series.add(1, new double[]{0});
+        assertThrows(IllegalArgumentException.class, () -> series.add(0.5, new double[]{0}));
+    }
+}
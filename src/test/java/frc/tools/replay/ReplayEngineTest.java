@@ -0,0 +1,190 @@
+package frc.tools.replay;
+
+import frc.tools.LogReader;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchema;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayEngineTest {
+    private static final double START_TIME = 1;
+    private static final double END_TIME = 4;
+    private static final double ENABLE_TIME = 1.5;
+
+    private static final double VELOCITY = 1; // m/s
+    private static final double TURN_RATE = 20; // deg/s
+
+    private static final long REPLAY_TIMEOUT = 120; // s
+
+    private static Path newDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("replay-engine-test");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    /**
+     * Writes a log like the robot's: the robot is enabled in teleop and drives forward while turning. The controllers aren't
+     * recorded, so the sticks are centered.
+     */
+    private static Path writeLog(@NotNull Path directory) {
+        Path log = directory.resolve("log.bin");
+        log.toFile().deleteOnExit();
+        DataLogger logger = new DataLogger(log, 4 * 1024 * 1024);
+        int driveId = logger.register(LogSchemas.INPUT_DRIVE);
+        int odometryId = logger.register(LogSchemas.INPUT_ODOMETRY);
+        int driverStationId = logger.register(LogSchemas.INPUT_DRIVER_STATION);
+
+        double[] drive = new double[LogSchemas.INPUT_DRIVE.getFieldCount()];
+        double[] odometry = new double[LogSchemas.INPUT_ODOMETRY.getFieldCount()];
+        double[] driverStation = new double[LogSchemas.INPUT_DRIVER_STATION.getFieldCount()];
+        // The odometry is sampled every 5ms, the drive every 10ms and the robot loop every 20ms
+        for (int i = 0; START_TIME + i * 0.005 <= END_TIME; i++) {
+            double time = START_TIME + i * 0.005;
+            double elapsed = time - START_TIME;
+            double gyroAngle = TURN_RATE * elapsed;
+            for (int module = 0; module < 4; module++) {
+                odometry[LogSchemas.INPUT_ODOMETRY_POSITION + module] = VELOCITY * elapsed;
+                odometry[LogSchemas.INPUT_ODOMETRY_VELOCITY + module] = VELOCITY;
+                odometry[LogSchemas.INPUT_ODOMETRY_STEER_ANGLE + module] = 0;
+            }
+            odometry[LogSchemas.INPUT_ODOMETRY_GYRO_ANGLE] = gyroAngle;
+            logger.write(odometryId, time, odometry);
+
+            if (i % 2 == 0) {
+                for (int module = 0; module < 4; module++) {
+                    drive[LogSchemas.INPUT_DRIVE_VELOCITY + module] = VELOCITY;
+                    drive[LogSchemas.INPUT_DRIVE_POSITION + module] = VELOCITY * elapsed;
+                    drive[LogSchemas.INPUT_DRIVE_CURRENT + module] = 10;
+                    drive[LogSchemas.INPUT_STEER_ANGLE + module] = 0;
+                    drive[LogSchemas.INPUT_STEER_RELATIVE_POSITION + module] = 0;
+                    drive[LogSchemas.INPUT_STEER_CURRENT + module] = 1;
+                }
+                drive[LogSchemas.INPUT_DRIVE_GYRO_ANGLE] = gyroAngle;
+                logger.write(driveId, time, drive);
+            }
+
+            if (i % 4 == 0) {
+                driverStation[LogSchemas.INPUT_DS_ENABLED] = time >= ENABLE_TIME ? 1 : 0;
+                logger.write(driverStationId, time, driverStation);
+            }
+        }
+        logger.flush();
+        return log;
+    }
+
+    /**
+     * Replays in a new JVM, since the robot code's singletons can only be set up once and its threads never finish
+     */
+    private static void replay(@NotNull Path log, @NotNull Path output) throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java,
+                "-Djava.library.path=" + System.getProperty("java.library.path"),
+                "-cp", System.getProperty("java.class.path"),
+                ReplayEngine.class.getName(), log.toString(), output.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(output.resolveSibling(output.getFileName() + ".txt").toFile())
+                .start();
+        if (!process.waitFor(REPLAY_TIMEOUT, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new AssertionError("The replay of " + log + " didn't finish in " + REPLAY_TIMEOUT + "s");
+        }
+        assertEquals(0, process.exitValue(), "The replay failed. See " + output + ".txt");
+        output.toFile().deleteOnExit();
+        new File(output + ".txt").deleteOnExit();
+    }
+
+    /**
+     * @return Every record of the log as text, with the exact bits of each value
+     */
+    private static List<String> readRecords(@NotNull Path log) throws IOException {
+        List<String> records = new ArrayList<>();
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                private final List<String> names = new ArrayList<>();
+
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) {
+                    while (names.size() <= id) {
+                        names.add(null);
+                    }
+                    names.set(id, schema.getName());
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) {
+                    long[] bits = new long[values.length];
+                    for (int i = 0; i < values.length; i++) {
+                        bits[i] = Double.doubleToLongBits(values[i]);
+                    }
+                    records.add(names.get(id) + " " + Double.doubleToLongBits(timestamp) + " " + Arrays.toString(bits));
+                }
+
+                @Override
+                public void onMessage(double timestamp, @NotNull String message) {
+                    records.add("Message " + Double.doubleToLongBits(timestamp) + " " + message);
+                }
+            });
+        }
+        return records;
+    }
+
+    private static List<double[]> readValues(@NotNull Path log, @NotNull LogSchema schema) throws IOException {
+        List<double[]> values = new ArrayList<>();
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                private int schemaId = -1;
+
+                @Override
+                public void onSchema(int id, @NotNull LogSchema logSchema) {
+                    if (logSchema.getName().equals(schema.getName())) {
+                        schemaId = id;
+                    }
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] recordValues) {
+                    if (id == schemaId) {
+                        values.add(recordValues.clone());
+                    }
+                }
+            });
+        }
+        return values;
+    }
+
+    @Test
+    void testReplaysAreIdentical() throws IOException, InterruptedException {
+        Path directory = newDirectory();
+        Path log = writeLog(directory);
+        Path first = directory.resolve("first.bin");
+        Path second = directory.resolve("second.bin");
+        replay(log, first);
+        replay(log, second);
+
+        List<String> firstRecords = readRecords(first);
+        assertEquals(firstRecords, readRecords(second));
+
+        // The robot code really ran: the modules were commanded and the odometry followed the recorded sensors
+        List<double[]> commands = readValues(first, LogSchemas.OUTPUT_MODULE_COMMAND);
+        assertTrue(commands.size() > 100, "Only " + commands.size() + " module commands");
+        List<double[]> poses = readValues(first, LogSchemas.ROBOT_TRACKER);
+        assertTrue(poses.size() > 100, "Only " + poses.size() + " poses");
+        double[] lastPose = poses.get(poses.size() - 1);
+        assertTrue(Math.hypot(lastPose[LogSchemas.TRACKER_X], lastPose[LogSchemas.TRACKER_Y]) > 1,
+                "The robot didn't move: " + Arrays.toString(lastPose));
+    }
+}
@@ -0,0 +1,87 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactTrajectoryTest {
+    private static final double EPSILON = 1e-9;
+
+    private static void assertSampleEquals(Trajectory.State expected, CompactTrajectory.Sample actual) {
+        assertEquals(expected.timeSeconds, actual.timeSeconds, EPSILON);
+        assertEquals(expected.poseMeters.getX(), actual.x, EPSILON);
+        assertEquals(expected.poseMeters.getY(), actual.y, EPSILON);
+        assertEquals(expected.poseMeters.getRotation().getCos(), Math.cos(actual.heading), EPSILON);
+        assertEquals(expected.poseMeters.getRotation().getSin(), Math.sin(actual.heading), EPSILON);
+        assertEquals(expected.velocityMetersPerSecond, actual.velocity, EPSILON);
+        assertEquals(expected.accelerationMetersPerSecondSq, actual.acceleration, EPSILON);
+        assertEquals(expected.curvatureRadPerMeter, actual.curvature, EPSILON);
+    }
+
+    private static void assertSamplesMatch(Trajectory trajectory) {
+        CompactTrajectory compactTrajectory = new CompactTrajectory(trajectory);
+        CompactTrajectory.Sample sample = new CompactTrajectory.Sample();
+        double totalTime = trajectory.getTotalTimeSeconds();
+        for (double t = -0.5; t < totalTime + 0.5; t += 0.0037) {
+            assertSampleEquals(trajectory.sample(t), compactTrajectory.sample(t, sample));
+        }
+        // Exactly on each state
+        for (Trajectory.State state : trajectory.getStates()) {
+            assertSampleEquals(trajectory.sample(state.timeSeconds), compactTrajectory.sample(state.timeSeconds, sample));
+        }
+    }
+
+    @Test
+    void testMatchesGeneratedTrajectory() {
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+                List.of(new Translation2d(1, 1), new Translation2d(2, -1)),
+                new Pose2d(3, 0, Rotation2d.fromDegrees(180)),
+                new TrajectoryConfig(3, 2));
+        assertSamplesMatch(trajectory);
+        assertEquals(trajectory.getTotalTimeSeconds(), new CompactTrajectory(trajectory).getTotalTimeSeconds());
+    }
+
+    @Test
+    void testMatchesReversedTrajectory() {
+        Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+                List.of(new Translation2d(-1, 0.5)),
+                new Pose2d(-2, 1, Rotation2d.fromDegrees(0)),
+                new TrajectoryConfig(2, 1).setReversed(true));
+        assertSamplesMatch(trajectory);
+    }
+
+    @Test
+    void testUnevenlySpacedStates() {
+        Trajectory trajectory = new Trajectory(List.of(
+                new Trajectory.State(0, 0, 1, new Pose2d(0, 0, new Rotation2d()), 0),
+                new Trajectory.State(0.1, 0.1, 1, new Pose2d(0.005, 0, new Rotation2d()), 0),
+                new Trajectory.State(0.11, 0.11, 1, new Pose2d(0.00605, 0, new Rotation2d()), 0),
+                new Trajectory.State(2, 2, 0, new Pose2d(2, 0, Rotation2d.fromDegrees(170)), 0.5),
+                new Trajectory.State(4, 2, -1, new Pose2d(6, 0, Rotation2d.fromDegrees(-170)), 0)));
+        assertSamplesMatch(trajectory);
+    }
+
+    @Test
+    void testSingleState() {
+        Trajectory.State state = new Trajectory.State(0, 0, 0, new Pose2d(1, 2, Rotation2d.fromDegrees(30)), 0);
+        CompactTrajectory compactTrajectory = new CompactTrajectory(List.of(state));
+        assertSampleEquals(state, compactTrajectory.sample(1, new CompactTrajectory.Sample()));
+        assertEquals(new Pose2d(1, 2, Rotation2d.fromDegrees(30)), compactTrajectory.getInitialPose());
+    }
+
+    @Test
+    void testEmptyTrajectoryThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new CompactTrajectory(List.of()));
+    }
+}
@@ -0,0 +1,84 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DoubleParserTest {
+    private static void assertParsesLikeJdk(String text) {
+        // Padded so that the offset and length are used
+        char[] chars = ("[" + text + "]").toCharArray();
+        double expected = Double.parseDouble(text);
+        double actual = DoubleParser.parse(chars, 1, text.length());
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), text);
+    }
+
+    @Test
+    void testRoundTrips() {
+        Random random = new Random(3476);
+        for (int i = 0; i < 200_000; i++) {
+            double value;
+            switch (i % 4) {
+                case 0:
+                    value = Double.longBitsToDouble(random.nextLong()); // Anywhere in the range of a double
+                    break;
+                case 1:
+                    value = random.nextDouble() * 20 - 10; // Like a trajectory
+                    break;
+                case 2:
+                    value = random.nextInt(100_000) / 1000.0;
+                    break;
+                default:
+                    value = random.nextGaussian() * Math.pow(10, random.nextInt(60) - 30);
+            }
+            if (Double.isFinite(value)) {
+                assertParsesLikeJdk(Double.toString(value));
+            }
+        }
+    }
+
+    @Test
+    void testRandomDigits() {
+        Random random = new Random(1678);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 1);
+            for (int j = 0; j < digits; j++) {
+                if (j == point) {
+                    text.append('.');
+                }
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                text.append('e').append(random.nextInt(700) - 350);
+            }
+            assertParsesLikeJdk(text.toString());
+        }
+    }
+
+    @Test
+    void testEdgeCases() {
+        String[] values = {
+                "0", "-0", "0.0", "-0.0", "0e10", "000.000", "1", "-1", "+1", ".5", "5.", "1.5e3", "1.5E+3", "1.5e-3",
+                "3.141592653589793", "0.1", "0.30000000000000004", "1e22", "1e23", "9007199254740993", "4.9e-324", "1e-320",
+                "2.2250738585072014E-308", "2.2250738585072011E-308", "1.7976931348623157E308", "1.7976931348623159E308",
+                "1e309", "-1e400", "1e-400", "1234567890123456789", "9999999999999999999", "9223372036854775808",
+                "92317049.11484846512e-9", "1234567890123456789012345", "0.00000000000000000000000000123456789", "1e99999999",
+                "NaN", "-Infinity"
+        };
+        for (String value : values) {
+            assertParsesLikeJdk(value);
+        }
+    }
+
+    @Test
+    void testRejectsNonNumbers() {
+        for (String value : new String[]{"", "-", ".", "abc", "1e", "1e+", "1.2.3", "1x", "--1"}) {
+            assertThrows(NumberFormatException.class, () -> DoubleParser.parse(value.toCharArray(), 0, value.length()), value);
+        }
+    }
+}
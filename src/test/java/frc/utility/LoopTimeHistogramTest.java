@@ -0,0 +1,50 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoopTimeHistogramTest {
+
+    @Test
+    void testEmptyHistogram() {
+        LoopTimeHistogram histogram = new LoopTimeHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileMs(0.5));
+        assertEquals(0, histogram.getMaxMs());
+    }
+
+    @Test
+    void testPercentiles() {
+        LoopTimeHistogram histogram = new LoopTimeHistogram();
+        // 1000 samples: 1 ms to 1000 * 10 us = 10 ms
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 10_000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(10, histogram.getMaxMs(), 1e-9);
+        assertEquals(5, histogram.getPercentileMs(0.5), 2 * LoopTimeHistogram.BUCKET_WIDTH_NANOS / 1.0e6);
+        assertEquals(9.9, histogram.getPercentileMs(0.99), 2 * LoopTimeHistogram.BUCKET_WIDTH_NANOS / 1.0e6);
+        assertEquals(9.99, histogram.getPercentileMs(0.999), 2 * LoopTimeHistogram.BUCKET_WIDTH_NANOS / 1.0e6);
+    }
+
+    @Test
+    void testOverflowUsesMax() {
+        LoopTimeHistogram histogram = new LoopTimeHistogram();
+        histogram.record(1_000_000);
+        histogram.record(LoopTimeHistogram.MAX_TRACKED_NANOS * 2);
+
+        assertEquals(LoopTimeHistogram.MAX_TRACKED_NANOS * 2 / 1.0e6, histogram.getPercentileMs(0.99), 1e-9);
+        assertEquals(LoopTimeHistogram.MAX_TRACKED_NANOS * 2 / 1.0e6, histogram.getMaxMs(), 1e-9);
+    }
+
+    @Test
+    void testReset() {
+        LoopTimeHistogram histogram = new LoopTimeHistogram();
+        histogram.record(1_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxMs());
+    }
+}
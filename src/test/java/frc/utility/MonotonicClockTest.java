@@ -0,0 +1,38 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonotonicClockTest {
+
+    @Test
+    void testOffsetSlewsToMeasurement() {
+        MonotonicClock.Calibration calibration = new MonotonicClock.Calibration(1_000, 0, 5_000_000);
+        assertEquals(0, calibration.getOffset(1_000));
+        assertEquals(0, calibration.getOffset(0)); // Before the measurement
+        assertEquals(1_000_000, calibration.getOffset(1_000_000_000 + 1_000)); // 1ms per second
+        assertEquals(5_000_000, calibration.getOffset(10_000_000_000L + 1_000));
+        assertEquals(5_000_000, calibration.getOffset(100_000_000_000L));
+    }
+
+    @Test
+    void testTimeNeverGoesBackwards() {
+        // The measured offset is a second behind, which would jump the time back if it was applied right away
+        MonotonicClock.Calibration calibration = new MonotonicClock.Calibration(0, 0, -1_000_000_000);
+        long lastTime = Long.MIN_VALUE;
+        for (long nanoTime = 0; nanoTime < 2_000_000_000_000L; nanoTime += 999_983) {
+            long time = nanoTime + calibration.getOffset(nanoTime);
+            assertTrue(time > lastTime, "Went backwards at " + nanoTime);
+            lastTime = time;
+        }
+        assertEquals(-1_000_000_000, calibration.getOffset(2_000_000_000_000L));
+
+        // A new measurement starts from where the last one got to
+        long switchTime = 500_000_000_000L;
+        MonotonicClock.Calibration next = new MonotonicClock.Calibration(switchTime, calibration.getOffset(switchTime), 0);
+        assertEquals(calibration.getOffset(switchTime), next.getOffset(switchTime));
+        assertTrue(switchTime + 1 + next.getOffset(switchTime + 1) > switchTime + calibration.getOffset(switchTime));
+    }
+}
@@ -0,0 +1,112 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoseEstimatorTest {
+    /**
+     * A measurement that is trusted as much as the odometry moves the estimate halfway to it
+     */
+    private static final double HALF_TRUST = 0.02;
+
+    private final PoseEstimator estimator = new PoseEstimator(128, 0.02, 0.02);
+    private final double[] out = new double[3];
+
+    /**
+     * Drives forward at 1 m/s from 0 to 1 seconds
+     */
+    private void driveForward() {
+        for (int i = 0; i <= 50; i++) {
+            estimator.addOdometry(i * 0.02, i * 0.02, 0, 0);
+        }
+    }
+
+    @Test
+    void testFollowsOdometry() {
+        estimator.addOdometry(0, 1, 2, 3);
+        assertEquals(1, estimator.getX(), 1e-12);
+        assertEquals(2, estimator.getY(), 1e-12);
+        assertEquals(3, estimator.getTheta(), 1e-12);
+    }
+
+    @Test
+    void testCorrectsPastPoseAndReplays() {
+        driveForward();
+
+        // The camera saw the robot 0.2 m further than the odometry half a second ago
+        assertTrue(estimator.addVisionMeasurement(new VisionMeasurement(0.5, 0.7, 0, Double.NaN, HALF_TRUST, HALF_TRUST)));
+        assertEquals(1.1, estimator.getX(), 1e-9);
+        assertEquals(0, estimator.getY(), 1e-9);
+        assertEquals(0, estimator.getTheta(), 1e-9);
+
+        // The history before the measurement isn't changed, the history after it is
+        estimator.getPose(0.4, out);
+        assertEquals(0.4, out[0], 1e-9);
+        estimator.getPose(0.7, out);
+        assertEquals(0.8, out[0], 1e-9);
+
+        // New odometry keeps the correction
+        estimator.addOdometry(1.02, 1.02, 0, 0);
+        assertEquals(1.12, estimator.getX(), 1e-9);
+    }
+
+    @Test
+    void testRotationCorrectionRotatesLaterMovement() {
+        driveForward();
+
+        assertTrue(estimator.addVisionMeasurement(new VisionMeasurement(0.5, 0.5, 0, 0.2, HALF_TRUST, HALF_TRUST)));
+        assertEquals(0.5 + 0.5 * Math.cos(0.1), estimator.getX(), 1e-9);
+        assertEquals(0.5 * Math.sin(0.1), estimator.getY(), 1e-9);
+        assertEquals(0.1, estimator.getTheta(), 1e-9);
+    }
+
+    @Test
+    void testTrust() {
+        driveForward();
+
+        // Not trusted at all
+        estimator.addVisionMeasurement(new VisionMeasurement(0.5, 100, 100, Double.NaN, 1e9, 1e9));
+        assertEquals(1, estimator.getX(), 1e-6);
+
+        // Trusted much more than the odometry
+        estimator.addVisionMeasurement(new VisionMeasurement(0.6, 3, 4, Double.NaN, 1e-9, 1e-9));
+        estimator.getPose(0.6, out);
+        assertEquals(3, out[0], 1e-6);
+        assertEquals(4, out[1], 1e-6);
+    }
+
+    @Test
+    void testIgnoresOldMeasurements() {
+        assertFalse(estimator.addVisionMeasurement(new VisionMeasurement(0, 1, 1, 0, HALF_TRUST, HALF_TRUST)));
+
+        driveForward();
+        assertTrue(estimator.addVisionMeasurement(new VisionMeasurement(0.5, 0.7, 0, Double.NaN, HALF_TRUST, HALF_TRUST)));
+
+        // Older than the last measurement
+        assertFalse(estimator.addVisionMeasurement(new VisionMeasurement(0.4, 5, 5, Double.NaN, HALF_TRUST, HALF_TRUST)));
+        assertEquals(1.1, estimator.getX(), 1e-9);
+
+        // Older than the odometry history
+        for (int i = 51; i < 300; i++) {
+            estimator.addOdometry(i * 0.02, i * 0.02, 0, 0);
+        }
+        assertFalse(estimator.addVisionMeasurement(new VisionMeasurement(0.6, 5, 5, Double.NaN, HALF_TRUST, HALF_TRUST)));
+    }
+
+    @Test
+    void testReset() {
+        driveForward();
+        estimator.addVisionMeasurement(new VisionMeasurement(0.5, 0.7, 0, Double.NaN, HALF_TRUST, HALF_TRUST));
+
+        estimator.reset();
+        assertFalse(estimator.getPose(0.5, out));
+        estimator.addOdometry(2, 5, 0, 0);
+        assertEquals(5, estimator.getX(), 1e-12);
+
+        // Measurements from before the reset are too old
+        assertFalse(estimator.addVisionMeasurement(new VisionMeasurement(1, 0, 0, Double.NaN, HALF_TRUST, HALF_TRUST)));
+    }
+}
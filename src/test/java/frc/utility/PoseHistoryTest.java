@@ -0,0 +1,109 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoseHistoryTest {
+    private final double[] out = new double[3];
+
+    @Test
+    void testEmpty() {
+        PoseHistory history = new PoseHistory(8);
+        assertFalse(history.getPose(1, out));
+        assertEquals(0, history.size());
+        assertTrue(Double.isNaN(history.getNewestTimestamp()));
+    }
+
+    @Test
+    void testInterpolates() {
+        PoseHistory history = new PoseHistory(8);
+        history.add(1, 0, 0, 0);
+        history.add(2, 2, -4, 1);
+
+        assertTrue(history.getPose(1.25, out));
+        assertEquals(0.5, out[0], 1e-12);
+        assertEquals(-1, out[1], 1e-12);
+        assertEquals(0.25, out[2], 1e-12);
+
+        // Exactly on a pose
+        history.getPose(2, out);
+        assertEquals(2, out[0], 1e-12);
+    }
+
+    @Test
+    void testClampsOutsideHistory() {
+        PoseHistory history = new PoseHistory(8);
+        history.add(1, 1, 2, 0.5);
+        history.add(2, 3, 4, 0.6);
+
+        history.getPose(0, out);
+        assertEquals(1, out[0], 1e-12);
+        assertEquals(2, out[1], 1e-12);
+        assertEquals(0.5, out[2], 1e-12);
+
+        history.getPose(5, out);
+        assertEquals(3, out[0], 1e-12);
+        assertEquals(4, out[1], 1e-12);
+        assertEquals(0.6, out[2], 1e-12);
+    }
+
+    @Test
+    void testRotationTakesShortestPath() {
+        PoseHistory history = new PoseHistory(8);
+        history.add(0, 0, 0, Math.PI - 0.1);
+        history.add(1, 0, 0, -Math.PI + 0.1);
+
+        history.getPose(0.5, out);
+        assertEquals(Math.PI, Math.abs(out[2]), 1e-12);
+        history.getPose(0.25, out);
+        assertEquals(Math.PI - 0.05, out[2], 1e-12);
+        history.getPose(0.75, out);
+        assertEquals(-Math.PI + 0.05, out[2], 1e-12);
+    }
+
+    @Test
+    void testOverwritesOldestPoses() {
+        PoseHistory history = new PoseHistory(5); // Rounded up to 8
+        assertEquals(8, history.capacity());
+        for (int i = 0; i < 20; i++) {
+            history.add(i, i * 10, 0, 0);
+        }
+        assertEquals(8, history.size());
+        assertEquals(12, history.getOldestTimestamp());
+        assertEquals(19, history.getNewestTimestamp());
+
+        for (double t = 12; t <= 19; t += 0.125) {
+            history.getPose(t, out);
+            assertEquals(t * 10, out[0], 1e-9);
+        }
+        history.getPose(3, out);
+        assertEquals(120, out[0], 1e-12);
+    }
+
+    @Test
+    void testOutOfOrderPoses() {
+        PoseHistory history = new PoseHistory(8);
+        history.add(1, 1, 0, 0);
+        history.add(2, 2, 0, 0);
+        history.add(1.5, 100, 0, 0); // Ignored
+        history.add(2, 4, 0, 0); // Replaces the newest pose
+        assertEquals(2, history.size());
+
+        history.getPose(1.5, out);
+        assertEquals(2.5, out[0], 1e-12);
+    }
+
+    @Test
+    void testClear() {
+        PoseHistory history = new PoseHistory(8);
+        history.add(1, 1, 0, 0);
+        history.clear();
+        assertFalse(history.getPose(1, out));
+        history.add(0.5, 3, 0, 0); // Older than before the clear
+        history.getPose(1, out);
+        assertEquals(3, out[0], 1e-12);
+    }
+}
@@ -0,0 +1,77 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SwerveKinematicsTest {
+    private final SwerveDriveKinematics wpilibKinematics = new SwerveDriveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+    private final SwerveKinematics swerveKinematics = new SwerveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+
+    @Test
+    void testInverseKinematicsMatchesWpilib() {
+        Random random = new Random(3476);
+        for (int n = 0; n < 1000; n++) {
+            double vx = (random.nextDouble() - 0.5) * 20;
+            double vy = (random.nextDouble() - 0.5) * 20;
+            double omega = (random.nextDouble() - 0.5) * 20;
+
+            SwerveModuleState[] expected = wpilibKinematics.toSwerveModuleStates(new ChassisSpeeds(vx, vy, omega));
+            SwerveDriveKinematics.desaturateWheelSpeeds(expected, Constants.DRIVE_HIGH_SPEED_M);
+
+            swerveKinematics.toSwerveModuleStates(vx, vy, omega);
+            swerveKinematics.desaturateWheelSpeeds(Constants.DRIVE_HIGH_SPEED_M);
+
+            for (int i = 0; i < 4; i++) {
+                assertEquals(expected[i].speedMetersPerSecond, swerveKinematics.getModuleSpeed(i), 1e-12);
+                assertEquals(expected[i].angle.getDegrees(), swerveKinematics.getModuleAngleDegrees(i), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void testZeroSpeedKeepsModuleAngles() {
+        wpilibKinematics.toSwerveModuleStates(new ChassisSpeeds(1, 2, 0));
+        SwerveModuleState[] expected = wpilibKinematics.toSwerveModuleStates(new ChassisSpeeds(0, 0, 0));
+
+        swerveKinematics.toSwerveModuleStates(1, 2, 0);
+        swerveKinematics.toSwerveModuleStates(0, 0, 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, swerveKinematics.getModuleSpeed(i));
+            assertEquals(expected[i].angle.getDegrees(), swerveKinematics.getModuleAngleDegrees(i), 1e-12);
+        }
+    }
+
+    @Test
+    void testForwardKinematicsMatchesWpilib() {
+        Random random = new Random(3476);
+        double[] speeds = new double[4];
+        double[] angles = new double[4];
+        double[] chassisSpeeds = new double[3];
+        SwerveModuleState[] states = new SwerveModuleState[4];
+        for (int n = 0; n < 1000; n++) {
+            for (int i = 0; i < 4; i++) {
+                speeds[i] = (random.nextDouble() - 0.5) * 10;
+                angles[i] = random.nextDouble() * 360;
+                states[i] = new SwerveModuleState(speeds[i], Rotation2d.fromDegrees(angles[i]));
+            }
+
+            ChassisSpeeds expected = wpilibKinematics.toChassisSpeeds(states);
+            swerveKinematics.toChassisSpeeds(speeds, angles, chassisSpeeds);
+
+            assertEquals(expected.vxMetersPerSecond, chassisSpeeds[0], 1e-12);
+            assertEquals(expected.vyMetersPerSecond, chassisSpeeds[1], 1e-12);
+            assertEquals(expected.omegaRadiansPerSecond, chassisSpeeds[2], 1e-12);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package frc.utility;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SwerveOdometryTest {
+    private final SwerveOdometry odometry = new SwerveOdometry(Constants.SWERVE_LEFT_FRONT_LOCATION,
+            Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+
+    @Test
+    void testDrivesStraight() {
+        double[] positions = new double[4];
+        double[] angles = {90, 90, 90, 90};
+        odometry.reset(1, 2, 0, 0, positions);
+
+        for (int i = 0; i < 4; i++) {
+            positions[i] = 0.5;
+        }
+        odometry.update(0, positions, angles);
+
+        assertEquals(1, odometry.getX(), 1e-12);
+        assertEquals(2.5, odometry.getY(), 1e-12);
+        assertEquals(0, odometry.getHeading(), 1e-12);
+    }
+
+    @Test
+    void testUsesGyroForHeading() {
+        double[] positions = new double[4];
+        double[] angles = new double[4];
+        odometry.reset(0, 0, Math.PI / 2, 1, positions); // The gyro reads 1 when the robot is facing pi/2
+
+        odometry.update(1.5, positions, angles);
+        assertEquals(Math.PI / 2 + 0.5, odometry.getHeading(), 1e-12);
+        assertEquals(0, odometry.getX(), 1e-12);
+        assertEquals(0, odometry.getY(), 1e-12);
+    }
+
+    @Test
+    void testMatchesWpilib() {
+        SwerveDriveKinematics wpilibKinematics = new SwerveDriveKinematics(Constants.SWERVE_LEFT_FRONT_LOCATION,
+                Constants.SWERVE_LEFT_BACK_LOCATION, Constants.SWERVE_RIGHT_FRONT_LOCATION,
+                Constants.SWERVE_RIGHT_BACK_LOCATION);
+        SwerveDriveOdometry wpilibOdometry = new SwerveDriveOdometry(wpilibKinematics, new Rotation2d(0.3),
+                new Pose2d(1, 2, new Rotation2d(-1)));
+
+        double[] positions = new double[4];
+        double[] angles = new double[4];
+        odometry.reset(1, 2, -1, 0.3, positions);
+
+        // WPILib multiplies the velocities by the time between updates. With updates 1 s apart they are the distances.
+        Random random = new Random(3476);
+        double gyro = 0.3;
+        wpilibOdometry.updateWithTime(0, new Rotation2d(gyro), new SwerveModuleState[]{new SwerveModuleState(),
+                new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()});
+        for (int n = 1; n < 500; n++) {
+            SwerveModuleState[] states = new SwerveModuleState[4];
+            for (int i = 0; i < 4; i++) {
+                double delta = (random.nextDouble() - 0.5) * 0.1;
+                angles[i] = random.nextDouble() * 360;
+                positions[i] += delta;
+                states[i] = new SwerveModuleState(delta, Rotation2d.fromDegrees(angles[i]));
+            }
+            gyro += (random.nextDouble() - 0.5) * 0.2;
+
+            Pose2d expected = wpilibOdometry.updateWithTime(n, new Rotation2d(gyro), states);
+            odometry.update(gyro, positions, angles);
+
+            assertEquals(expected.getX(), odometry.getX(), 1e-9);
+            assertEquals(expected.getY(), odometry.getY(), 1e-9);
+            assertEquals(expected.getRotation().getRadians(), odometry.getHeading(), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package frc.utility;
+
+import edu.wpi.first.math.controller.HolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SwervePathFollowerTest {
+    private final ProfiledPIDController wpilibTurnController = new ProfiledPIDController(8, 0, 0.01,
+            new TrapezoidProfile.Constraints(4, 4));
+    private final HolonomicDriveController wpilibController;
+    private final SwervePathFollower pathFollower = new SwervePathFollower(1.5, 1.5, 8, 0, 0.01, 4, 4, 0.02);
+
+    SwervePathFollowerTest() {
+        wpilibTurnController.enableContinuousInput(-Math.PI, Math.PI);
+        wpilibController = new HolonomicDriveController(new PIDController(1.5, 0, 0), new PIDController(1.5, 0, 0),
+                wpilibTurnController);
+        wpilibController.setTolerance(new Pose2d(0.5, 0.5, Rotation2d.fromDegrees(10)));
+        pathFollower.setTolerance(0.5, 0.5, Math.toRadians(10));
+    }
+
+    @Test
+    void testMatchesWpilib() {
+        Random random = new Random(3476);
+        double[] out = new double[3];
+
+        // Random walk so that the heading profile builds up speed and wraps around
+        double x = 0, y = 0, heading = 0, targetHeading = 0;
+        for (int n = 0; n < 2000; n++) {
+            x += (random.nextDouble() - 0.5) * 0.2;
+            y += (random.nextDouble() - 0.5) * 0.2;
+            heading = normalize(heading + (random.nextDouble() - 0.5) * 0.3);
+            if (n % 100 == 0) {
+                targetHeading = (random.nextDouble() - 0.5) * 2 * Math.PI;
+            }
+            double refX = x + (random.nextDouble() - 0.5) * 2;
+            double refY = y + (random.nextDouble() - 0.5) * 2;
+            double refHeading = (random.nextDouble() - 0.5) * 2 * Math.PI;
+            double refVelocity = random.nextDouble() * 4;
+
+            if (n % 500 == 250) {
+                // A new path was started
+                wpilibTurnController.reset(heading);
+                pathFollower.reset(heading);
+            }
+
+            ChassisSpeeds expected = wpilibController.calculate(new Pose2d(x, y, new Rotation2d(heading)),
+                    new Pose2d(refX, refY, new Rotation2d(refHeading)), refVelocity, new Rotation2d(targetHeading));
+            pathFollower.calculate(x, y, heading, refX, refY, refHeading, refVelocity, targetHeading, out);
+
+            assertEquals(expected.vxMetersPerSecond, out[0], 1e-9);
+            assertEquals(expected.vyMetersPerSecond, out[1], 1e-9);
+            assertEquals(expected.omegaRadiansPerSecond, out[2], 1e-9);
+            assertEquals(wpilibController.atReference(), pathFollower.atReference());
+        }
+    }
+
+    @Test
+    void testAtReference() {
+        double[] out = new double[3];
+        pathFollower.calculate(1, 2, 0.5, 1.2, 2.1, 0, 1, 0.5 + Math.toRadians(5), out);
+        assertEquals(true, pathFollower.atReference());
+
+        pathFollower.calculate(1, 2, 0.5, 1.2, 2.1, 0, 1, 0.5 + Math.toRadians(15), out);
+        assertEquals(false, pathFollower.atReference());
+
+        // The heading error wraps around
+        pathFollower.calculate(1, 2, Math.PI - 0.01, 1, 2, 0, 1, -Math.PI + 0.01, out);
+        assertEquals(true, pathFollower.atReference());
+    }
+
+    private static double normalize(double radians) {
+        return Math.atan2(Math.sin(radians), Math.cos(radians));
+    }
+}
@@ -0,0 +1,178 @@
+package frc.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualClockTest {
+
+    @Test
+    void testTimeOnlyMovesWithAdvanceWhenNoThreadIsRegistered() {
+        VirtualClock clock = new VirtualClock();
+        assertEquals(0, clock.nanoTime());
+        clock.advance(5_000_000);
+        assertEquals(5_000_000, clock.nanoTime());
+        assertEquals(0.005, clock.getTimestamp(), 1e-12);
+    }
+
+    @Test
+    void testSleepJumpsToDeadline() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        clock.registerCurrentThread();
+
+        long realStart = System.nanoTime();
+        clock.sleep(15_000); // 15 seconds of virtual time
+        assertEquals(15_000_000_000L, clock.nanoTime());
+        assertTrue(System.nanoTime() - realStart < 1_000_000_000L, "Sleeping should not take real time");
+
+        clock.unregisterCurrentThread();
+    }
+
+    @Test
+    void testUnregisteredThreadsWaitForAdvance() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        long[] sleeps = {30, 10, 20};
+        long[] wakeTimes = new long[sleeps.length];
+        Thread[] threads = new Thread[sleeps.length];
+
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    clock.sleep(sleeps[index]);
+                    wakeTimes[index] = clock.nanoTime();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            threads[i].start();
+        }
+        Thread.sleep(100); // Real time: let the threads start waiting
+        assertEquals(0, clock.nanoTime());
+
+        clock.advance(10_000_000);
+        threads[1].join(1000);
+        assertFalse(threads[1].isAlive());
+        assertTrue(threads[0].isAlive());
+        assertTrue(threads[2].isAlive());
+
+        clock.advance(20_000_000);
+        threads[0].join(1000);
+        threads[2].join(1000);
+        assertArrayEquals(new long[]{30_000_000, 10_000_000, 30_000_000}, wakeTimes);
+    }
+
+    @Test
+    void testRegisteredThreadsAdvanceTimeTogether() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        CountDownLatch registered = new CountDownLatch(2);
+        int[] cycles = new int[1];
+        int[] cyclesAtOneSecond = new int[1];
+
+        Thread loop = new Thread(() -> {
+            clock.registerCurrentThread();
+            registered.countDown();
+            awaitQuietly(registered);
+            long deadline = clock.nanoTime();
+            for (int i = 0; i < 100; i++) {
+                cycles[0]++;
+                deadline += 20_000_000;
+                clock.parkUntil(deadline);
+            }
+            clock.unregisterCurrentThread();
+        });
+        Thread waiter = new Thread(() -> {
+            clock.registerCurrentThread();
+            registered.countDown();
+            awaitQuietly(registered);
+            try {
+                clock.sleep(1000);
+                cyclesAtOneSecond[0] = cycles[0];
+            } catch (InterruptedException ignored) {
+            } finally {
+                clock.unregisterCurrentThread();
+            }
+        });
+        loop.start();
+        waiter.start();
+        loop.join(5000);
+        waiter.join(5000);
+
+        assertFalse(loop.isAlive());
+        assertFalse(waiter.isAlive());
+        assertEquals(100, cycles[0]);
+        // The cycle at exactly 1 s may or may not have run before the waiter wakes up
+        assertTrue(cyclesAtOneSecond[0] == 50 || cyclesAtOneSecond[0] == 51, "Cycles at 1 s: " + cyclesAtOneSecond[0]);
+        assertEquals(2_000_000_000L, clock.nanoTime());
+    }
+
+    @Test
+    void testUnparkWakesParkedThread() throws InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        Thread parked = new Thread(clock::park);
+        parked.start();
+        Thread.sleep(50);
+        assertTrue(parked.isAlive());
+
+        clock.unpark(parked);
+        parked.join(1000);
+        assertFalse(parked.isAlive());
+        assertEquals(0, clock.nanoTime());
+    }
+
+    @Test
+    void testSequentialRunsThreadsOneAtATime() throws InterruptedException {
+        VirtualClock clock = new VirtualClock(0, true);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int cycle = 0; cycle < 3; cycle++) {
+                        clock.sleep(10);
+                        events.add(index + " start " + clock.nanoTime());
+                        Thread.sleep(5); // Real time: the others would run now if they weren't waiting for their turn
+                        events.add(index + " end");
+                    }
+                } catch (InterruptedException ignored) {
+                } finally {
+                    clock.unregisterCurrentThread();
+                }
+            });
+        }
+        // Registered before they start so that time can't move until all of them are running. Started in reverse so that the
+        // order doesn't come from the order that they start in.
+        for (Thread thread : threads) {
+            clock.registerThread(thread);
+        }
+        for (int i = threads.length - 1; i >= 0; i--) {
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int cycle = 1; cycle <= 3; cycle++) {
+            for (int i = 0; i < threads.length; i++) {
+                expected.add(i + " start " + cycle * 10_000_000);
+                expected.add(i + " end");
+            }
+        }
+        assertEquals(expected, events);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package frc.utility.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataLoggerTest {
+    private static final LogSchema SCHEMA = new LogSchema("Test", "A", "B");
+
+    private static Path newLogFile() throws IOException {
+        Path directory = Files.createTempDirectory("data-logger-test");
+        directory.toFile().deleteOnExit();
+        Path file = directory.resolve("log.bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testWritesRecords() throws IOException {
+        Path file = newLogFile();
+        DataLogger logger = new DataLogger(file, 4096);
+        int id = logger.register(SCHEMA);
+        assertEquals(1, id);
+        logger.write(id, 1.5, new double[]{2, -3});
+        logger.logMessage(2, "hello");
+        logger.write(id, 2.5, new double[]{4, 5});
+        logger.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(4096, buffer.remaining());
+
+        byte[] magic = new byte[DataLogFormat.MAGIC.length];
+        buffer.get(magic);
+        assertArrayEquals(DataLogFormat.MAGIC, magic);
+        assertEquals(DataLogFormat.VERSION, buffer.getInt());
+        buffer.getInt();
+
+        assertEquals(DataLogFormat.SCHEMA_TAG, buffer.getShort());
+        assertEquals(id, buffer.getShort());
+        assertEquals("Test", readString(buffer));
+        assertEquals(2, buffer.getShort());
+        assertEquals("A", readString(buffer));
+        assertEquals("B", readString(buffer));
+
+        assertEquals(id, buffer.getShort());
+        assertEquals(1.5, buffer.getDouble());
+        assertEquals(2, buffer.getDouble());
+        assertEquals(-3, buffer.getDouble());
+
+        assertEquals(DataLogFormat.MESSAGE_TAG, buffer.getShort());
+        assertEquals(2, buffer.getDouble());
+        assertEquals("hello", readString(buffer));
+
+        assertEquals(id, buffer.getShort());
+        assertEquals(2.5, buffer.getDouble());
+        assertEquals(4, buffer.getDouble());
+        assertEquals(5, buffer.getDouble());
+
+        assertEquals(buffer.position(), logger.getSize());
+        assertEquals(DataLogFormat.END_TAG, buffer.getShort());
+    }
+
+    @Test
+    void testDropsWhenFull() throws IOException {
+        Path file = newLogFile();
+        // Room for the header, the schema and 2 records
+        int schemaSize = Short.BYTES * 4 + "Test".length() + 2 * (Short.BYTES + 1);
+        int capacity = DataLogFormat.FILE_HEADER_SIZE + schemaSize + 2 * SCHEMA.getRecordSize() + Short.BYTES;
+        DataLogger logger = new DataLogger(file, capacity);
+        int id = logger.register(SCHEMA);
+        for (int i = 0; i < 5; i++) {
+            logger.write(id, i, new double[]{i, i});
+        }
+
+        assertEquals(3, logger.getDroppedCount());
+        assertEquals(capacity - Short.BYTES, logger.getSize());
+
+        // The end tag is still there
+        byte[] bytes = Files.readAllBytes(file);
+        assertArrayEquals(new byte[Short.BYTES], Arrays.copyOfRange(bytes, capacity - Short.BYTES, capacity));
+    }
+
+    @Test
+    void testPrunesOldLogs() throws IOException {
+        Path directory = newLogFile().getParent();
+        String[] names = {"log_20220301_120000.bin", "log_20220302_120000.bin", "log_20220303_120000.bin",
+                "log_20220304_120000.bin", "notes.txt"};
+        for (String name : names) {
+            Path file = directory.resolve(name);
+            Files.write(file, new byte[100]);
+            file.toFile().deleteOnExit();
+        }
+
+        // Room for a new log next to the 3 newest
+        DataLogger.pruneLogs(directory, 4, 1000);
+        assertFalse(Files.exists(directory.resolve(names[0])));
+        assertTrue(Files.exists(directory.resolve(names[1])));
+
+        // Only 150 bytes of old logs
+        DataLogger.pruneLogs(directory, 4, 150);
+        assertFalse(Files.exists(directory.resolve(names[1])));
+        assertFalse(Files.exists(directory.resolve(names[2])));
+        assertTrue(Files.exists(directory.resolve(names[3])));
+        assertTrue(Files.exists(directory.resolve("notes.txt")));
+    }
+
+    @Test
+    void testStartsNewFileWhenFull() throws IOException, InterruptedException {
+        Path directory = newLogFile().getParent();
+        DataLogger logger = new DataLogger(directory, 1024 * 1024, 4096);
+        int id = logger.register(SCHEMA);
+        logger.writeBlob(1, "auto", new byte[]{1, 2, 3});
+        logger.write(id, 2, new double[]{1, 2});
+        int oldSize = logger.getSize();
+
+        logger.startNewFileIfFull();
+        // The new file is started by the logger's thread
+        for (int i = 0; i < 500 && logger.getSize() >= oldSize; i++) {
+            Thread.sleep(10);
+        }
+        logger.write(id, 3, new double[]{3, 4});
+        logger.flush();
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "log_*.bin")) {
+            stream.forEach(files::add);
+        }
+        files.forEach(file -> file.toFile().deleteOnExit());
+        Collections.sort(files);
+        assertEquals(2, files.size());
+
+        // The new file has the schema and the blob from before it was started, then the new record
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(files.get(1)));
+        buffer.position(DataLogFormat.FILE_HEADER_SIZE);
+        assertEquals(DataLogFormat.SCHEMA_TAG, buffer.getShort());
+        assertEquals(id, buffer.getShort());
+        assertEquals("Test", readString(buffer));
+        assertEquals(2, buffer.getShort());
+        assertEquals("A", readString(buffer));
+        assertEquals("B", readString(buffer));
+
+        assertEquals(DataLogFormat.BLOB_TAG, buffer.getShort());
+        assertEquals(1, buffer.getDouble());
+        assertEquals("auto", readString(buffer));
+        assertEquals(3, buffer.getInt());
+        byte[] blob = new byte[3];
+        buffer.get(blob);
+        assertArrayEquals(new byte[]{1, 2, 3}, blob);
+
+        assertEquals(id, buffer.getShort());
+        assertEquals(3, buffer.getDouble());
+        assertEquals(3, buffer.getDouble());
+        assertEquals(4, buffer.getDouble());
+        assertEquals(DataLogFormat.END_TAG, buffer.getShort());
+    }
+
+    @Test
+    void testWithoutFile() {
+        DataLogger logger = new DataLogger(null, 4096);
+        int id = logger.register(SCHEMA);
+        logger.write(id, 0, new double[]{1, 2});
+        logger.logMessage(0, "dropped");
+        assertEquals(3, logger.getDroppedCount());
+    }
+
+    @Test
+    void testChecksValueCount() {
+        DataLogger logger = new DataLogger(null, 4096);
+        int id = logger.register(SCHEMA);
+        assertThrows(IllegalArgumentException.class, () -> logger.write(id, 0, new double[]{1}));
+    }
+}
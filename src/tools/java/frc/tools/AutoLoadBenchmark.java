@@ -0,0 +1,196 @@
+package frc.tools;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import frc.auton.guiauto.serialization.CompactTrajectoryDeserializer;
+import frc.auton.guiauto.serialization.TimedRotation;
+import frc.auton.guiauto.serialization.TimedRotationListDeserializer;
+import frc.utility.CompactTrajectory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares how long it takes to load the trajectories of a GUI auto, and how much garbage it makes, when Jackson binds every
+ * {@link Trajectory.State} (how autos used to be loaded) and with {@link CompactTrajectoryDeserializer}.
+ * <p>
+ * Run with {@code ./gradlew autoLoadBenchmark --args="[auto files]"}. Without any files it uses generated autos with a few paths
+ * each. Only the trajectory steps are read, so script steps don't call into the robot code.
+ */
+public final class AutoLoadBenchmark {
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int ITERATIONS = 100;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // The old way of reading a trajectory step: bind every state and then copy them into the trajectory
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static final class BoundAutonomous {
+        final List<BoundStep> autonomousSteps;
+
+        @JsonCreator
+        BoundAutonomous(@JsonProperty("autonomousSteps") List<BoundStep> autonomousSteps) {
+            this.autonomousSteps = autonomousSteps;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static final class BoundStep {
+        final @Nullable CompactTrajectory trajectory;
+        final List<TimedRotation> rotations;
+
+        @JsonCreator
+        BoundStep(@JsonProperty("states") List<Trajectory.State> states,
+                  @JsonProperty("rotations") List<TimedRotation> rotations) {
+            trajectory = states == null ? null : new CompactTrajectory(states);
+            this.rotations = rotations;
+        }
+    }
+
+    // The new way (same as TrajectoryAutonomousStep)
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static final class StreamedAutonomous {
+        final List<StreamedStep> autonomousSteps;
+
+        @JsonCreator
+        StreamedAutonomous(@JsonProperty("autonomousSteps") List<StreamedStep> autonomousSteps) {
+            this.autonomousSteps = autonomousSteps;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static final class StreamedStep {
+        final @Nullable CompactTrajectory trajectory;
+        final List<TimedRotation> rotations;
+
+        @JsonCreator
+        StreamedStep(@JsonProperty("states") @JsonDeserialize(using = CompactTrajectoryDeserializer.class)
+                             CompactTrajectory trajectory,
+                     @JsonProperty("rotations") @JsonDeserialize(using = TimedRotationListDeserializer.class)
+                             List<TimedRotation> rotations) {
+            this.trajectory = trajectory;
+            this.rotations = rotations;
+        }
+    }
+
+    /**
+     * Makes an auto like the ones the GUI saves: a few winding paths, each with a couple of rotations
+     */
+    static @NotNull String generateAuto(int steps) throws IOException {
+        TrajectoryConfig config = new TrajectoryConfig(3, 2);
+        List<Map<String, Object>> autonomousSteps = new ArrayList<>();
+        for (int i = 0; i < steps; i++) {
+            double direction = i % 2 == 0 ? 1 : -1;
+            Trajectory trajectory = TrajectoryGenerator.generateTrajectory(
+                    new Pose2d(0, 0, Rotation2d.fromDegrees(0)),
+                    List.of(new Translation2d(1.5, direction), new Translation2d(3, -direction),
+                            new Translation2d(4.5, direction), new Translation2d(6, 0)),
+                    new Pose2d(7.5, direction, Rotation2d.fromDegrees(90 * direction)),
+                    config);
+
+            List<TimedRotation> rotations = List.of(new TimedRotation(0, Rotation2d.fromDegrees(0)),
+                    new TimedRotation(trajectory.getTotalTimeSeconds() / 2, Rotation2d.fromDegrees(90 * direction)),
+                    new TimedRotation(trajectory.getTotalTimeSeconds(), Rotation2d.fromDegrees(180)));
+
+            Map<String, Object> step = new LinkedHashMap<>(); // The type has to come first like it does in the GUI's files
+            step.put("type", "trajectory");
+            step.put("states", trajectory.getStates());
+            step.put("rotations", rotations);
+            autonomousSteps.add(step);
+        }
+        return OBJECT_MAPPER.writeValueAsString(Map.of("autonomousSteps", autonomousSteps));
+    }
+
+    private interface Loader {
+        /**
+         * @return The number of states that were loaded
+         */
+        int load(@NotNull String json) throws IOException;
+    }
+
+    private static int loadBound(@NotNull String json) throws IOException {
+        int states = 0;
+        for (BoundStep step : OBJECT_MAPPER.readValue(json, BoundAutonomous.class).autonomousSteps) {
+            states += step.trajectory == null ? 0 : step.trajectory.size();
+        }
+        return states;
+    }
+
+    private static int loadStreamed(@NotNull String json) throws IOException {
+        int states = 0;
+        for (StreamedStep step : OBJECT_MAPPER.readValue(json, StreamedAutonomous.class).autonomousSteps) {
+            states += step.trajectory == null ? 0 : step.trajectory.size();
+        }
+        return states;
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void measure(@NotNull String name, @NotNull Loader loader, @NotNull String json) throws IOException {
+        // Before the JIT has compiled the loader (for the first auto), like the roboRIO loading an auto
+        long start = System.nanoTime();
+        int states = loader.load(json);
+        double firstMs = (System.nanoTime() - start) * 1e-6;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            loader.load(json);
+        }
+
+        long allocatedBefore = getAllocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            loader.load(json);
+        }
+        double ms = (System.nanoTime() - start) * 1e-6 / ITERATIONS;
+        double allocated = (getAllocatedBytes() - allocatedBefore) / (double) ITERATIONS;
+
+        System.out.printf("  %-16s %6d states  first %8.2f ms  warm %7.3f ms  %9.1f KB garbage (%5.0f bytes/state)%n", name,
+                states, firstMs, ms, allocated / 1024, allocated / states);
+    }
+
+    public static void main(String... args) throws IOException {
+        Map<String, String> autos = new LinkedHashMap<>();
+        if (args.length == 0) {
+            autos.put("Generated 3 path auto", generateAuto(3));
+            autos.put("Generated 6 path auto", generateAuto(6));
+        }
+        for (String arg : args) {
+            autos.put(arg, new String(Files.readAllBytes(Paths.get(arg)), StandardCharsets.UTF_8));
+        }
+
+        // Loads the classes that both use (ex. Jackson's) so that whichever runs first doesn't pay for them
+        String smallAuto = OBJECT_MAPPER.writeValueAsString(Map.of("autonomousSteps", List.of()));
+        loadBound(smallAuto);
+        loadStreamed(smallAuto);
+
+        for (Map.Entry<String, String> auto : autos.entrySet()) {
+            String json = auto.getValue();
+            System.out.printf("%s: %.0f KB of json%n", auto.getKey(), json.length() / 1024.0);
+            measure("Jackson binding", AutoLoadBenchmark::loadBound, json);
+            measure("Streaming", AutoLoadBenchmark::loadStreamed, json);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package frc.tools;
+
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a directory for each schema with a file for each column. Each file is just the values as big endian doubles, so a column
+ * can be loaded on its own (ex. {@code numpy.fromfile(path, ">f8")}). The names of the columns, in order, are in columns.txt.
+ */
+final class ColumnarTableWriter extends TableWriter {
+    static final String TIMESTAMP_FILE = "Timestamp.f64";
+    static final String COLUMN_FILE_EXTENSION = ".f64";
+    static final String COLUMNS_FILE = "columns.txt";
+
+    private static final int COLUMN_BUFFER_SIZE = 64 * 1024;
+
+    private final @NotNull Path directory;
+    private final DataOutputStream[][] columns = new DataOutputStream[MAX_SCHEMAS][]; // Timestamp first
+    private final int[][] fields = new int[MAX_SCHEMAS][];
+
+    ColumnarTableWriter(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    void addTable(int id, @NotNull LogSchema schema, int @NotNull [] fields) throws IOException {
+        Path tableDirectory = Files.createDirectories(directory.resolve(getTableName(directory, id, schema)));
+        DataOutputStream[] tableColumns = new DataOutputStream[fields.length + 1];
+        StringBuilder columnNames = new StringBuilder("Timestamp\n");
+
+        tableColumns[0] = open(tableDirectory.resolve(TIMESTAMP_FILE));
+        for (int i = 0; i < fields.length; i++) {
+            String fieldName = schema.getFieldName(fields[i]);
+            tableColumns[i + 1] = open(tableDirectory.resolve(toFileName(fieldName) + COLUMN_FILE_EXTENSION));
+            columnNames.append(fieldName).append('\n');
+        }
+        Files.write(tableDirectory.resolve(COLUMNS_FILE), columnNames.toString().getBytes(StandardCharsets.UTF_8));
+
+        columns[id] = tableColumns;
+        this.fields[id] = fields;
+    }
+
+    private static @NotNull DataOutputStream open(@NotNull Path file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), COLUMN_BUFFER_SIZE));
+    }
+
+    @Override
+    void writeRow(int id, double timestamp, double @NotNull [] values) throws IOException {
+        DataOutputStream[] tableColumns = columns[id];
+        int[] tableFields = fields[id];
+        tableColumns[0].writeDouble(timestamp);
+        for (int i = 0; i < tableFields.length; i++) {
+            tableColumns[i + 1].writeDouble(values[tableFields[i]]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (DataOutputStream[] tableColumns : columns) {
+            if (tableColumns != null) {
+                for (DataOutputStream column : tableColumns) {
+                    try {
+                        column.close();
+                    } catch (IOException e) {
+                        exception = e;
+                    }
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package frc.tools;
+
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a CSV file for each schema
+ */
+final class CsvTableWriter extends TableWriter {
+    private final @NotNull Path directory;
+    private final Writer[] writers = new Writer[MAX_SCHEMAS];
+    private final int[][] fields = new int[MAX_SCHEMAS][];
+
+    CsvTableWriter(@NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    void addTable(int id, @NotNull LogSchema schema, int @NotNull [] fields) throws IOException {
+        Writer writer = Files.newBufferedWriter(directory.resolve(getTableName(directory, id, schema) + ".csv"),
+                StandardCharsets.UTF_8);
+        writer.write("Timestamp");
+        for (int field : fields) {
+            writer.write(',');
+            writer.write(escape(schema.getFieldName(field)));
+        }
+        writer.write('\n');
+        writers[id] = writer;
+        this.fields[id] = fields;
+    }
+
+    @Override
+    void writeRow(int id, double timestamp, double @NotNull [] values) throws IOException {
+        Writer writer = writers[id];
+        writer.write(Double.toString(timestamp));
+        for (int field : fields[id]) {
+            writer.write(',');
+            writer.write(Double.toString(values[field]));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Quotes a value if it has a comma, quote or line break in it
+     */
+    static @NotNull String escape(@NotNull String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (Writer writer : writers) {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package frc.tools;
+
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exports data logs to CSV or columnar files. Each log is streamed, so a log of any size can be exported.
+ * <p>
+ * Run with {@code ./gradlew exportLog --args="<options> <log files>"}. Each log is written to a directory (in the output
+ * directory) with the name of the log.
+ */
+public final class LogExporter {
+    public enum Format {
+        CSV, COLUMNAR
+    }
+
+    static final String MESSAGES_FILE = "Messages.csv";
+
+    private static final String USAGE = String.join("\n",
+            "Usage: LogExporter [options] <log file>...",
+            "  --format csv|columnar     Output format (default csv)",
+            "  --output <directory>      Where to write the exported logs (default .)",
+            "  --start <seconds>         Skip records before this time",
+            "  --end <seconds>           Skip records after this time",
+            "  --signal <schema>[/field] Only export this schema or field. Can be repeated. (default everything)",
+            "  --list                    Print the schemas in the logs and how many records they have instead of exporting");
+
+    private @NotNull Format format = Format.CSV;
+    private double startTime = Double.NEGATIVE_INFINITY;
+    private double endTime = Double.POSITIVE_INFINITY;
+
+    /**
+     * Schema name to the fields to export. A null set means every field of the schema. A null map means every schema.
+     */
+    private @Nullable Map<String, Set<String>> signals = null;
+
+    public void setFormat(@NotNull Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Only exports records with timestamps in the range (in seconds)
+     */
+    public void setTimeRange(double startTime, double endTime) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Only exports a signal. Can be called multiple times.
+     *
+     * @param signal The name of a schema to export all of its fields or "schema/field" to export one field
+     */
+    public void addSignal(@NotNull String signal) {
+        if (signals == null) {
+            signals = new HashMap<>();
+        }
+        int separator = signal.indexOf('/');
+        if (separator < 0) {
+            signals.put(signal, null);
+        } else {
+            String schemaName = signal.substring(0, separator);
+            if (!signals.containsKey(schemaName)) {
+                signals.put(schemaName, new LinkedHashSet<>());
+            }
+            Set<String> fieldNames = signals.get(schemaName);
+            if (fieldNames != null) {
+                fieldNames.add(signal.substring(separator + 1));
+            }
+        }
+    }
+
+    /**
+     * @return The indices of the fields of the schema to export or null if the schema shouldn't be exported
+     */
+    int @Nullable [] selectFields(@NotNull LogSchema schema) {
+        if (signals != null && !signals.containsKey(schema.getName())) {
+            return null;
+        }
+        Set<String> fieldNames = signals == null ? null : signals.get(schema.getName());
+        if (fieldNames == null) {
+            int[] fields = new int[schema.getFieldCount()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = i;
+            }
+            return fields;
+        }
+
+        List<Integer> fields = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            int field = schema.indexOf(fieldName);
+            if (field >= 0) {
+                fields.add(field);
+            }
+        }
+        return fields.isEmpty() ? null : fields.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Exports a log to a directory
+     *
+     * @return The signals that were asked for but aren't in the log
+     */
+    public @NotNull Set<String> export(@NotNull Path log, @NotNull Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Set<String> foundSignals = new HashSet<>();
+        try (LogReader reader = new LogReader(log);
+             TableWriter tableWriter = format == Format.CSV ? new CsvTableWriter(directory) : new ColumnarTableWriter(directory);
+             Writer messageWriter = Files.newBufferedWriter(directory.resolve(MESSAGES_FILE), StandardCharsets.UTF_8)) {
+            messageWriter.write("Timestamp,Message\n");
+            boolean[] exported = new boolean[TableWriter.MAX_SCHEMAS];
+
+            reader.read(new LogReader.Handler() {
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) throws IOException {
+                    int[] fields = selectFields(schema);
+                    if (fields != null) {
+                        tableWriter.addTable(id, schema, fields);
+                        exported[id] = true;
+                        foundSignals.add(schema.getName());
+                        for (int field : fields) {
+                            foundSignals.add(schema.getName() + "/" + schema.getFieldName(field));
+                        }
+                    }
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) throws IOException {
+                    if (exported[id] && timestamp >= startTime && timestamp <= endTime) {
+                        tableWriter.writeRow(id, timestamp, values);
+                    }
+                }
+
+                @Override
+                public void onMessage(double timestamp, @NotNull String message) throws IOException {
+                    if (timestamp >= startTime && timestamp <= endTime) {
+                        messageWriter.write(Double.toString(timestamp));
+                        messageWriter.write(',');
+                        messageWriter.write(CsvTableWriter.escape(message));
+                        messageWriter.write('\n');
+                    }
+                }
+            });
+        }
+
+        Set<String> missingSignals = new LinkedHashSet<>();
+        if (signals != null) {
+            for (Map.Entry<String, Set<String>> entry : signals.entrySet()) {
+                if (entry.getValue() == null) {
+                    if (!foundSignals.contains(entry.getKey())) {
+                        missingSignals.add(entry.getKey());
+                    }
+                    continue;
+                }
+                for (String field : entry.getValue()) {
+                    String signal = entry.getKey() + "/" + field;
+                    if (!foundSignals.contains(signal)) {
+                        missingSignals.add(signal);
+                    }
+                }
+            }
+        }
+        return missingSignals;
+    }
+
+    /**
+     * Prints the schemas in a log and the number of records of each
+     */
+    public static void list(@NotNull Path log) throws IOException {
+        Map<Integer, LogSchema> schemas = new HashMap<>();
+        long[] counts = new long[TableWriter.MAX_SCHEMAS];
+        double[] timeRange = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        long[] messageCount = {0};
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) {
+                    schemas.put(id, schema);
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) {
+                    counts[id]++;
+                    timeRange[0] = Math.min(timeRange[0], timestamp);
+                    timeRange[1] = Math.max(timeRange[1], timestamp);
+                }
+
+                @Override
+                public void onMessage(double timestamp, @NotNull String message) {
+                    messageCount[0]++;
+                }
+            });
+        }
+
+        System.out.println(log + ": " + timeRange[0] + "s to " + timeRange[1] + "s, " + messageCount[0] + " messages");
+        for (Map.Entry<Integer, LogSchema> entry : schemas.entrySet()) {
+            LogSchema schema = entry.getValue();
+            System.out.println("  " + schema.getName() + " (" + counts[entry.getKey()] + " records)");
+            for (int i = 0; i < schema.getFieldCount(); i++) {
+                System.out.println("    " + schema.getFieldName(i));
+            }
+        }
+    }
+
+    public static void main(String... args) throws IOException {
+        LogExporter exporter = new LogExporter();
+        Path output = Paths.get(".");
+        boolean list = false;
+        double startTime = Double.NEGATIVE_INFINITY;
+        double endTime = Double.POSITIVE_INFINITY;
+        List<Path> logs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format":
+                        exporter.setFormat(Format.valueOf(args[++i].toUpperCase()));
+                        break;
+                    case "--output":
+                        output = Paths.get(args[++i]);
+                        break;
+                    case "--start":
+                        startTime = Double.parseDouble(args[++i]);
+                        break;
+                    case "--end":
+                        endTime = Double.parseDouble(args[++i]);
+                        break;
+                    case "--signal":
+                        exporter.addSignal(args[++i]);
+                        break;
+                    case "--list":
+                        list = true;
+                        break;
+                    default:
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        logs.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            logs.clear();
+        }
+        if (logs.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+        exporter.setTimeRange(startTime, endTime);
+
+        for (Path log : logs) {
+            if (list) {
+                list(log);
+                continue;
+            }
+
+            String name = log.getFileName().toString();
+            if (name.lastIndexOf('.') > 0) {
+                name = name.substring(0, name.lastIndexOf('.'));
+            }
+            long start = System.nanoTime();
+            Set<String> missingSignals = exporter.export(log, output.resolve(name));
+            System.out.printf("Exported %s in %.2fs%n", log, (System.nanoTime() - start) * 1e-9);
+            for (String signal : missingSignals) {
+                System.out.println("  " + signal + " is not in the log");
+            }
+        }
+    }
+}
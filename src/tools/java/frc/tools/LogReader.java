@@ -0,0 +1,200 @@
+package frc.tools;
+
+import frc.utility.logging.DataLogFormat;
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams the records of a data log (see {@link DataLogFormat}) through a fixed size buffer, so a log of any size can be read
+ * without loading it into memory. The schemas are read from the log itself, so logs from older code can still be read.
+ */
+public final class LogReader implements Closeable {
+    public interface Handler {
+        /**
+         * Called once for each schema, before any of its records
+         */
+        default void onSchema(int id, @NotNull LogSchema schema) throws IOException {}
+
+        /**
+         * @param values The values of the record. The array is reused for the next record of the same schema, so copy it if it
+         *               needs to be kept.
+         */
+        void onData(int id, double timestamp, double @NotNull [] values) throws IOException;
+
+        default void onMessage(double timestamp, @NotNull String message) throws IOException {}
+
+        default void onBlob(double timestamp, @NotNull String channel, byte @NotNull [] data) throws IOException {}
+    }
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final @NotNull FileChannel channel;
+    private final @NotNull ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] stringBytes = new byte[DataLogFormat.MAX_STRING_LENGTH];
+
+    private LogSchema[] schemas = new LogSchema[16]; // Indexed by id
+    private double[][] values = new double[16][];
+
+    private final int version;
+
+    public LogReader(@NotNull Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.limit(0);
+        try {
+            require(DataLogFormat.FILE_HEADER_SIZE);
+            byte[] magic = new byte[DataLogFormat.MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, DataLogFormat.MAGIC)) {
+                throw new IOException(file + " is not a data log");
+            }
+            version = buffer.getInt();
+            if (version > DataLogFormat.VERSION) {
+                throw new IOException(file + " is version " + version + " but this reader only knows version "
+                        + DataLogFormat.VERSION);
+            }
+            buffer.getInt(); // Reserved
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Reads the records until the end of the log. A record that was cut off (ex. the robot lost power) ends the log.
+     */
+    public void read(@NotNull Handler handler) throws IOException {
+        try {
+            while (true) {
+                require(Short.BYTES);
+                short tag = buffer.getShort();
+                if (tag == DataLogFormat.END_TAG) {
+                    return;
+                } else if (tag == DataLogFormat.SCHEMA_TAG) {
+                    readSchema(handler);
+                } else if (tag == DataLogFormat.MESSAGE_TAG) {
+                    require(Double.BYTES);
+                    double timestamp = buffer.getDouble();
+                    handler.onMessage(timestamp, readString());
+                } else if (tag == DataLogFormat.BLOB_TAG) {
+                    require(Double.BYTES);
+                    double timestamp = buffer.getDouble();
+                    String channel = readString();
+                    handler.onBlob(timestamp, channel, readBlob());
+                } else if (tag > 0 && tag < schemas.length && schemas[tag] != null) {
+                    double[] recordValues = values[tag];
+                    require(Double.BYTES * (1 + recordValues.length));
+                    double timestamp = buffer.getDouble();
+                    for (int i = 0; i < recordValues.length; i++) {
+                        recordValues[i] = buffer.getDouble();
+                    }
+                    handler.onData(tag, timestamp, recordValues);
+                } else {
+                    throw new IOException("Unknown record tag " + tag + " at " + getPosition());
+                }
+            }
+        } catch (EOFException e) {
+            // The log was cut off in the middle of a record
+        }
+    }
+
+    private void readSchema(@NotNull Handler handler) throws IOException {
+        require(Short.BYTES);
+        int id = buffer.getShort();
+        if (id <= 0) {
+            throw new IOException("Invalid schema id " + id + " at " + getPosition());
+        }
+        String name = readString();
+        require(Short.BYTES);
+        String[] fieldNames = new String[buffer.getShort()];
+        for (int i = 0; i < fieldNames.length; i++) {
+            fieldNames[i] = readString();
+        }
+
+        if (id >= schemas.length) {
+            int length = Math.max(id + 1, schemas.length * 2);
+            schemas = Arrays.copyOf(schemas, length);
+            values = Arrays.copyOf(values, length);
+        }
+        LogSchema schema = new LogSchema(name, fieldNames);
+        schemas[id] = schema;
+        values[id] = new double[fieldNames.length];
+        handler.onSchema(id, schema);
+    }
+
+    private @NotNull String readString() throws IOException {
+        require(Short.BYTES);
+        int length = buffer.getShort();
+        if (length < 0) {
+            throw new IOException("Invalid string length " + length + " at " + getPosition());
+        }
+        require(length);
+        buffer.get(stringBytes, 0, length);
+        return new String(stringBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private byte @NotNull [] readBlob() throws IOException {
+        require(Integer.BYTES);
+        int length = buffer.getInt();
+        if (length < 0) {
+            throw new IOException("Invalid blob length " + length + " at " + getPosition());
+        }
+        // Can be bigger than the buffer, so copy it one buffer at a time
+        byte[] data = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            require(Math.min(length - offset, BUFFER_SIZE));
+            int count = Math.min(length - offset, buffer.remaining());
+            buffer.get(data, offset, count);
+            offset += count;
+        }
+        return data;
+    }
+
+    /**
+     * Makes sure that the buffer has at least the number of bytes remaining, reading more of the file if needed.
+     *
+     * @throws EOFException If the file ends first
+     */
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (bytes > BUFFER_SIZE) {
+            throw new IOException("Record of " + bytes + " bytes at " + getPosition() + " is too large");
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return The position in the file of the next byte to be read
+     */
+    private long getPosition() throws IOException {
+        return channel.position() - buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,166 @@
+package frc.tools;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import frc.utility.SwerveOdometry;
+import frc.utility.logging.LogSchema;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The odometry inputs ({@link LogSchemas#INPUT_ODOMETRY}) from part of a log and where the robot really started and ended. The
+ * samples are kept in primitive arrays so that the odometry can be rerun over them many times quickly.
+ * <p>
+ * Immutable, so any number of threads can share it.
+ */
+final class OdometryRecording {
+    private static final int NUM_MODULES = 4;
+
+    private final @NotNull String name;
+    private final int sampleCount;
+
+    // NUM_MODULES values per sample
+    private final double[] positions;
+    private final double[] steerAngles;
+
+    private final double[] gyroHeadings; // One per sample (in radians, counterclockwise positive)
+
+    private final @NotNull Pose2d startPose;
+    private final @NotNull Pose2d endPose;
+
+    private OdometryRecording(@NotNull String name, int sampleCount, double[] positions, double[] steerAngles,
+                              double[] gyroHeadings, @NotNull Pose2d startPose, @NotNull Pose2d endPose) {
+        this.name = name;
+        this.sampleCount = sampleCount;
+        this.positions = positions;
+        this.steerAngles = steerAngles;
+        this.gyroHeadings = gyroHeadings;
+        this.startPose = startPose;
+        this.endPose = endPose;
+    }
+
+    /**
+     * Reads the odometry inputs from a log
+     *
+     * @param startTime Where the robot was at startPose (in seconds)
+     * @param endTime   Where the robot was at endPose (in seconds)
+     * @throws IOException If the log couldn't be read or doesn't have any odometry inputs in the time range
+     */
+    static @NotNull OdometryRecording load(@NotNull Path log, double startTime, double endTime, @NotNull Pose2d startPose,
+                                           @NotNull Pose2d endPose) throws IOException {
+        Samples samples = new Samples();
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                private int id = -1;
+                private final int[] positionFields = new int[NUM_MODULES];
+                private final int[] steerAngleFields = new int[NUM_MODULES];
+                private int gyroAngleField;
+
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) throws IOException {
+                    if (!schema.getName().equals(LogSchemas.INPUT_ODOMETRY.getName())) {
+                        return;
+                    }
+                    // Looked up by name so that logs from code with a different field order can still be read
+                    for (int i = 0; i < NUM_MODULES; i++) {
+                        positionFields[i] = findField(schema, LogSchemas.INPUT_ODOMETRY_POSITION + i);
+                        steerAngleFields[i] = findField(schema, LogSchemas.INPUT_ODOMETRY_STEER_ANGLE + i);
+                    }
+                    gyroAngleField = findField(schema, LogSchemas.INPUT_ODOMETRY_GYRO_ANGLE);
+                    this.id = id;
+                }
+
+                private int findField(@NotNull LogSchema schema, int field) throws IOException {
+                    String fieldName = LogSchemas.INPUT_ODOMETRY.getFieldName(field);
+                    int index = schema.indexOf(fieldName);
+                    if (index < 0) {
+                        throw new IOException(log + " doesn't have the " + fieldName + " odometry input");
+                    }
+                    return index;
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) {
+                    if (id == this.id && timestamp >= startTime && timestamp <= endTime) {
+                        samples.add(values, positionFields, steerAngleFields, gyroAngleField);
+                    }
+                }
+            });
+        }
+
+        if (samples.count == 0) {
+            throw new IOException(log + " has no odometry inputs from " + startTime + "s to " + endTime + "s");
+        }
+        return new OdometryRecording(log.getFileName().toString(), samples.count,
+                Arrays.copyOf(samples.positions, samples.count * NUM_MODULES),
+                Arrays.copyOf(samples.steerAngles, samples.count * NUM_MODULES),
+                Arrays.copyOf(samples.gyroHeadings, samples.count), startPose, endPose);
+    }
+
+    private static final class Samples {
+        int count = 0;
+        double[] positions = new double[1024 * NUM_MODULES];
+        double[] steerAngles = new double[1024 * NUM_MODULES];
+        double[] gyroHeadings = new double[1024];
+
+        void add(double @NotNull [] values, int @NotNull [] positionFields, int @NotNull [] steerAngleFields,
+                 int gyroAngleField) {
+            if (count == gyroHeadings.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+                steerAngles = Arrays.copyOf(steerAngles, steerAngles.length * 2);
+                gyroHeadings = Arrays.copyOf(gyroHeadings, gyroHeadings.length * 2);
+            }
+            for (int i = 0; i < NUM_MODULES; i++) {
+                positions[count * NUM_MODULES + i] = values[positionFields[i]];
+                steerAngles[count * NUM_MODULES + i] = values[steerAngleFields[i]];
+            }
+            gyroHeadings[count] = Math.toRadians(-values[gyroAngleField]); // The gyro is clockwise positive
+            count++;
+        }
+    }
+
+    /**
+     * Runs the odometry over the samples the same way that RobotTracker does, starting from the real start pose. Afterwards the
+     * odometry has the end pose that these parameters give.
+     *
+     * @param odometry        Reset here, so it can be reused between runs
+     * @param distanceScale   Multiplies the recorded distance of each wheel
+     * @param steerOffsets    Added to the recorded angle of each module (in degrees)
+     * @param modulePositions Scratch space with a value for each module
+     * @param moduleAngles    Scratch space with a value for each module
+     * @return How far the end pose is from the real end pose (in meters)
+     */
+    double run(@NotNull SwerveOdometry odometry, double distanceScale, double @NotNull [] steerOffsets,
+               double @NotNull [] modulePositions, double @NotNull [] moduleAngles) {
+        for (int i = 0; i < NUM_MODULES; i++) {
+            modulePositions[i] = positions[i] * distanceScale;
+        }
+        odometry.reset(startPose.getX(), startPose.getY(), startPose.getRotation().getRadians(), gyroHeadings[0],
+                modulePositions);
+
+        for (int sample = 1; sample < sampleCount; sample++) {
+            int index = sample * NUM_MODULES;
+            for (int i = 0; i < NUM_MODULES; i++) {
+                modulePositions[i] = positions[index + i] * distanceScale;
+                moduleAngles[i] = steerAngles[index + i] + steerOffsets[i];
+            }
+            odometry.update(gyroHeadings[sample], modulePositions, moduleAngles);
+        }
+        return Math.hypot(odometry.getX() - endPose.getX(), odometry.getY() - endPose.getY());
+    }
+
+    @NotNull String getName() {
+        return name;
+    }
+
+    int getSampleCount() {
+        return sampleCount;
+    }
+
+    @NotNull Pose2d getEndPose() {
+        return endPose;
+    }
+}
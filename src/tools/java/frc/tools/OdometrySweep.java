@@ -0,0 +1,368 @@
+package frc.tools;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.Constants;
+import frc.utility.SwerveOdometry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tunes the odometry parameters offline. Reruns the odometry over recorded logs (see {@link OdometryRecording}) for every
+ * combination of the wheel distance scales and steer offsets in a grid and scores each one by how close its end poses are to
+ * where the robot really ended up.
+ * <p>
+ * Every (log, candidate) pair is independent, so they are split across the cores with fork/join. The logs are only read once.
+ * <p>
+ * Run with {@code ./gradlew odometrySweep --args="<options> <poses file>"}. Each line of the poses file is a log and where the
+ * robot was measured to be at the start and end of it:
+ * <pre>
+ * log, start x, start y, start heading, end x, end y, end heading[, start time, end time]
+ * </pre>
+ * Positions are in meters and headings in degrees (counterclockwise positive). The times (in seconds) default to the start and
+ * end of the log. Log paths are relative to the poses file and lines starting with # are ignored.
+ */
+public final class OdometrySweep {
+    private static final int NUM_MODULES = 4;
+
+    /**
+     * (log, candidate) pairs that a fork/join task runs without splitting. Each pair reruns a whole log.
+     */
+    private static final int LEAF_SIZE = 4;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: OdometrySweep [options] <poses file>",
+            "  --scale <values>           Wheel distance scales to try (default 1)",
+            "  --offset <module> <values> Steer offsets to try for a module (in degrees, default 0)",
+            "  --top <count>              How many of the best candidates to print (default 10)",
+            "  --threads <count>          Threads to use (default one per core)",
+            "Values are a number, a list (0.98,1,1.02) or a range with a step (0.95:1.05:0.01)");
+
+    private static final double[] CURRENT_ENCODER_OFFSETS = {
+            Constants.DRIVE_LEFT_FRONT_ENCODER_OFFSET, Constants.DRIVE_LEFT_BACK_ENCODER_OFFSET,
+            Constants.DRIVE_RIGHT_FRONT_ENCODER_OFFSET, Constants.DRIVE_RIGHT_BACK_ENCODER_OFFSET};
+
+    /**
+     * A set of parameters and how well they did
+     */
+    public static final class Result {
+        private final double distanceScale;
+        private final double[] steerOffsets;
+        private final double score;
+
+        Result(double distanceScale, double @NotNull [] steerOffsets, double score) {
+            this.distanceScale = distanceScale;
+            this.steerOffsets = steerOffsets.clone();
+            this.score = score;
+        }
+
+        /**
+         * @return What the recorded wheel distances were multiplied by
+         */
+        public double getDistanceScale() {
+            return distanceScale;
+        }
+
+        /**
+         * @return What was added to the recorded angle of the module (in degrees)
+         */
+        public double getSteerOffset(int module) {
+            return steerOffsets[module];
+        }
+
+        /**
+         * @return The RMS distance between the end poses and the real end poses (in meters)
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private double[] distanceScales = {1};
+    private final double[][] steerOffsets = {{0}, {0}, {0}, {0}};
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public void setDistanceScales(double @NotNull ... distanceScales) {
+        this.distanceScales = requireValues(distanceScales);
+    }
+
+    /**
+     * @param offsets Added to the recorded angle of the module (in degrees)
+     */
+    public void setSteerOffsets(int module, double @NotNull ... offsets) {
+        steerOffsets[module] = requireValues(offsets);
+    }
+
+    private static double @NotNull [] requireValues(double @NotNull [] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("At least one value is needed");
+        }
+        return values.clone();
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getCandidateCount() {
+        long count = distanceScales.length;
+        for (double[] offsets : steerOffsets) {
+            count *= offsets.length;
+        }
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many candidates (" + count + ")");
+        }
+        return (int) count;
+    }
+
+    /**
+     * Candidates are numbered like a number with a digit for each parameter, the distance scale being the lowest digit.
+     *
+     * @return The distance scale of the candidate
+     */
+    private double getCandidate(int candidate, double @NotNull [] offsets) {
+        double distanceScale = distanceScales[candidate % distanceScales.length];
+        candidate /= distanceScales.length;
+        for (int i = 0; i < NUM_MODULES; i++) {
+            offsets[i] = steerOffsets[i][candidate % steerOffsets[i].length];
+            candidate /= steerOffsets[i].length;
+        }
+        return distanceScale;
+    }
+
+    /**
+     * Scores every candidate against every recording
+     *
+     * @param count How many results to return
+     * @return The best candidates (lowest score first)
+     */
+    public @NotNull List<Result> sweep(@NotNull List<OdometryRecording> recordings, int count) {
+        int candidateCount = getCandidateCount();
+        if ((long) candidateCount * recordings.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many candidates for " + recordings.size() + " logs");
+        }
+        // Indexed by recording * candidateCount + candidate, so that neighboring tasks share a log while it's in the cache
+        double[] errors = new double[candidateCount * recordings.size()];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(recordings.toArray(new OdometryRecording[0]), candidateCount, errors, 0, errors.length));
+        } finally {
+            pool.shutdown();
+        }
+
+        double[] scores = new double[candidateCount];
+        for (int recording = 0; recording < recordings.size(); recording++) {
+            for (int candidate = 0; candidate < candidateCount; candidate++) {
+                double error = errors[recording * candidateCount + candidate];
+                scores[candidate] += error * error;
+            }
+        }
+
+        double[] offsets = new double[NUM_MODULES];
+        return IntStream.range(0, candidateCount).boxed()
+                .sorted(Comparator.comparingDouble(candidate -> scores[candidate]))
+                .limit(count)
+                .map(candidate -> {
+                    double distanceScale = getCandidate(candidate, offsets);
+                    return new Result(distanceScale, offsets, Math.sqrt(scores[candidate] / recordings.size()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private final class SweepTask extends RecursiveAction {
+        private final OdometryRecording @NotNull [] recordings;
+        private final int candidateCount;
+        private final double @NotNull [] errors;
+        private final int start;
+        private final int end;
+
+        SweepTask(OdometryRecording @NotNull [] recordings, int candidateCount, double @NotNull [] errors, int start, int end) {
+            this.recordings = recordings;
+            this.candidateCount = candidateCount;
+            this.errors = errors;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new SweepTask(recordings, candidateCount, errors, start, middle),
+                        new SweepTask(recordings, candidateCount, errors, middle, end));
+                return;
+            }
+
+            SwerveOdometry odometry = createOdometry();
+            double[] offsets = new double[NUM_MODULES];
+            double[] modulePositions = new double[NUM_MODULES];
+            double[] moduleAngles = new double[NUM_MODULES];
+            for (int i = start; i < end; i++) {
+                double distanceScale = getCandidate(i % candidateCount, offsets);
+                errors[i] = recordings[i / candidateCount].run(odometry, distanceScale, offsets, modulePositions, moduleAngles);
+            }
+        }
+    }
+
+    private static @NotNull SwerveOdometry createOdometry() {
+        return new SwerveOdometry(Constants.SWERVE_LEFT_FRONT_LOCATION, Constants.SWERVE_LEFT_BACK_LOCATION,
+                Constants.SWERVE_RIGHT_FRONT_LOCATION, Constants.SWERVE_RIGHT_BACK_LOCATION);
+    }
+
+    /**
+     * Loads the logs in a poses file (see the class comment)
+     */
+    public static @NotNull List<OdometryRecording> loadRecordings(@NotNull Path posesFile) throws IOException {
+        Path directory = posesFile.toAbsolutePath().getParent();
+        List<OdometryRecording> recordings = new ArrayList<>();
+        List<String> lines = Files.readAllLines(posesFile, StandardCharsets.UTF_8);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] columns = line.split("\\s*,\\s*");
+            if (columns.length != 7 && columns.length != 9) {
+                throw new IOException(posesFile + ":" + (i + 1) + ": expected 7 or 9 columns but got " + columns.length);
+            }
+            try {
+                Pose2d startPose = new Pose2d(Double.parseDouble(columns[1]), Double.parseDouble(columns[2]),
+                        Rotation2d.fromDegrees(Double.parseDouble(columns[3])));
+                Pose2d endPose = new Pose2d(Double.parseDouble(columns[4]), Double.parseDouble(columns[5]),
+                        Rotation2d.fromDegrees(Double.parseDouble(columns[6])));
+                double startTime = columns.length == 9 ? Double.parseDouble(columns[7]) : Double.NEGATIVE_INFINITY;
+                double endTime = columns.length == 9 ? Double.parseDouble(columns[8]) : Double.POSITIVE_INFINITY;
+                recordings.add(OdometryRecording.load(directory.resolve(columns[0]), startTime, endTime, startPose, endPose));
+            } catch (NumberFormatException e) {
+                throw new IOException(posesFile + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return recordings;
+    }
+
+    /**
+     * Parses a number, a list of numbers (a,b,c) or a range (min:max:step, both ends included)
+     */
+    static double @NotNull [] parseValues(@NotNull String values) {
+        String[] range = values.split(":");
+        if (range.length == 3) {
+            double min = Double.parseDouble(range[0]);
+            double max = Double.parseDouble(range[1]);
+            double step = Double.parseDouble(range[2]);
+            if (step <= 0 || max < min) {
+                throw new IllegalArgumentException("Bad range " + values);
+            }
+            int count = (int) Math.floor((max - min) / step + 1e-9) + 1; // So that rounding doesn't drop the end of the range
+            double[] parsed = new double[count];
+            for (int i = 0; i < count; i++) {
+                parsed[i] = min + i * step;
+            }
+            return parsed;
+        } else if (range.length != 1) {
+            throw new IllegalArgumentException("Bad range " + values);
+        }
+        return Arrays.stream(values.split(",")).mapToDouble(value -> Double.parseDouble(value.trim())).toArray();
+    }
+
+    private static void printResult(@NotNull String label, @NotNull Result result) {
+        StringBuilder builder = new StringBuilder(String.format("%-9s %8.4f m  scale %.4f (SWERVE_INCHES_PER_ROTATION = %.5f)",
+                label, result.getScore(), result.getDistanceScale(),
+                Constants.SWERVE_INCHES_PER_ROTATION * result.getDistanceScale()));
+        builder.append("  offsets");
+        for (int i = 0; i < NUM_MODULES; i++) {
+            builder.append(String.format(" %+.2f (%.2f)", result.getSteerOffset(i),
+                    CURRENT_ENCODER_OFFSETS[i] + result.getSteerOffset(i)));
+        }
+        System.out.println(builder);
+    }
+
+    public static void main(String... args) throws IOException {
+        OdometrySweep sweep = new OdometrySweep();
+        int top = 10;
+        Path posesFile = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--scale":
+                        sweep.setDistanceScales(parseValues(args[++i]));
+                        break;
+                    case "--offset":
+                        int module = Integer.parseInt(args[++i]);
+                        if (module < 0 || module >= NUM_MODULES) {
+                            throw new IllegalArgumentException("There is no module " + module);
+                        }
+                        sweep.setSteerOffsets(module, parseValues(args[++i]));
+                        break;
+                    case "--top":
+                        top = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        sweep.setParallelism(Integer.parseInt(args[++i]));
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || posesFile != null) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        posesFile = Paths.get(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            posesFile = null;
+        }
+        if (posesFile == null) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        List<OdometryRecording> recordings = loadRecordings(posesFile);
+        long sampleCount = recordings.stream().mapToLong(OdometryRecording::getSampleCount).sum();
+        System.out.printf("Loaded %d logs (%d samples) in %.2fs%n", recordings.size(), sampleCount,
+                (System.nanoTime() - start) * 1e-9);
+
+        OdometrySweep baseline = new OdometrySweep();
+        Result current = baseline.sweep(recordings, 1).get(0);
+
+        start = System.nanoTime();
+        List<Result> results = sweep.sweep(recordings, top);
+        double seconds = (System.nanoTime() - start) * 1e-9;
+        System.out.printf("Swept %d candidates on %d threads in %.2fs (%.0f odometry updates/s)%n", sweep.getCandidateCount(),
+                sweep.parallelism, seconds, sweep.getCandidateCount() * sampleCount / seconds);
+
+        System.out.println("RMS end position error, wheel distance scale and steer offsets (new encoder offsets)");
+        printResult("Current", current);
+        for (int i = 0; i < results.size(); i++) {
+            printResult("#" + (i + 1), results.get(i));
+        }
+
+        if (!results.isEmpty()) {
+            System.out.println("End position error of each log with the best candidate");
+            Result best = results.get(0);
+            SwerveOdometry odometry = createOdometry();
+            double[] offsets = {best.getSteerOffset(0), best.getSteerOffset(1), best.getSteerOffset(2), best.getSteerOffset(3)};
+            for (OdometryRecording recording : recordings) {
+                double error = recording.run(odometry, best.getDistanceScale(), offsets, new double[NUM_MODULES],
+                        new double[NUM_MODULES]);
+                double headingError = new Rotation2d(odometry.getHeading()).minus(recording.getEndPose().getRotation())
+                        .getDegrees();
+                System.out.printf("  %-40s %8.4f m  heading %+.2f deg (from the gyro)%n", recording.getName(), error,
+                        headingError);
+            }
+        }
+    }
+}
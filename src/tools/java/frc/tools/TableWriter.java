@@ -0,0 +1,47 @@
+package frc.tools;
+
+import frc.utility.logging.LogSchema;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes the exported records of each schema as a table with a timestamp column and a column for each selected field
+ */
+abstract class TableWriter implements Closeable {
+    protected static final int MAX_SCHEMAS = Short.MAX_VALUE + 1;
+
+    private final Set<String> usedNames = new HashSet<>();
+
+    /**
+     * Starts a table for a schema. Called before any rows of the schema.
+     *
+     * @param fields The indices of the fields to write, in order
+     */
+    abstract void addTable(int id, @NotNull LogSchema schema, int @NotNull [] fields) throws IOException;
+
+    /**
+     * @param values All the values of the record. Only the selected fields are written.
+     */
+    abstract void writeRow(int id, double timestamp, double @NotNull [] values) throws IOException;
+
+    /**
+     * @return A file name for the table that isn't used by another table in the same directory
+     */
+    protected @NotNull String getTableName(@NotNull Path directory, int id, @NotNull LogSchema schema) {
+        String name = toFileName(schema.getName());
+        if (!usedNames.add(directory.resolve(name).toString())) {
+            name = name + "_" + id;
+            usedNames.add(directory.resolve(name).toString());
+        }
+        return name;
+    }
+
+    protected static @NotNull String toFileName(@NotNull String name) {
+        return name.replaceAll("[^A-Za-z0-9 ._-]", "_");
+    }
+}
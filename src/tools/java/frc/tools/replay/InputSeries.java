@@ -0,0 +1,83 @@
+package frc.tools.replay;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The records of one input schema from a log, in time order, so that a replay can look up the value of an input at any time.
+ * <p>
+ * The series is filled before the replay starts and is only read after that, so it can be read from any thread without locking.
+ */
+public final class InputSeries {
+    private final int width;
+    private double[] timestamps = new double[1024];
+    private double[] values;
+    private int size = 0;
+
+    /**
+     * @param width The number of fields in each record
+     */
+    public InputSeries(int width) {
+        this.width = width;
+        values = new double[timestamps.length * width];
+    }
+
+    /**
+     * Adds a record. Records must be added in time order.
+     */
+    public void add(double timestamp, double @NotNull [] record) {
+        if (size > 0 && timestamp < timestamps[size - 1]) {
+            throw new IllegalArgumentException("Records must be added in time order");
+        }
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2 * width);
+        }
+        timestamps[size] = timestamp;
+        System.arraycopy(record, 0, values, size * width, width);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double get(int index, int field) {
+        return values[index * width + field];
+    }
+
+    /**
+     * Finds the record that is closest in time. The replay doesn't run its loops at exactly the same times as the robot did, so
+     * the closest record is the one that the robot read in the same loop.
+     *
+     * @return The index of the record or -1 if the series is empty
+     */
+    public int indexNearest(double timestamp) {
+        if (size == 0) return -1;
+
+        int index = Arrays.binarySearch(timestamps, 0, size, timestamp);
+        if (index >= 0) return index;
+
+        int after = -index - 1; // First record after the timestamp
+        if (after == 0) return 0;
+        if (after == size) return size - 1;
+        return timestamp - timestamps[after - 1] <= timestamps[after] - timestamp ? after - 1 : after;
+    }
+
+    /**
+     * @return The value of a field in the closest record or 0 if the series is empty
+     */
+    public double getNearest(double timestamp, int field) {
+        int index = indexNearest(timestamp);
+        return index < 0 ? 0 : get(index, field);
+    }
+}
@@ -0,0 +1,332 @@
+package frc.tools.replay;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.Robot;
+import frc.subsystem.AbstractSubsystem;
+import frc.subsystem.Drive;
+import frc.subsystem.RobotTracker;
+import frc.subsystem.io.DriveIOFactory;
+import frc.subsystem.io.GyroIO;
+import frc.subsystem.io.SwerveModuleIO;
+import frc.tools.LogReader;
+import frc.utility.Clock;
+import frc.utility.Limelight;
+import frc.utility.LimelightFrame;
+import frc.utility.LoopTimeHistogram;
+import frc.utility.VirtualClock;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchema;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays a log from the robot through the robot code on a desktop, as fast as possible.
+ * <p>
+ * Every input that the robot code reads is recorded in the log (see the input schemas in {@link LogSchemas}). The replay gives
+ * them back to the same code that read them on the robot:
+ * <ul>
+ *     <li>The drive sensors and the gyro through {@link ReplaySwerveModuleIO} and {@link ReplayGyroIO}</li>
+ *     <li>The controllers and the mode of the robot through the simulated driver station</li>
+ *     <li>The Limelight frames through {@link Limelight#acceptFrame(LimelightFrame)}</li>
+ *     <li>The autos from the GUI through the autodata/autoPath NetworkTables entry</li>
+ * </ul>
+ * Time comes from a sequential {@link VirtualClock}. The robot loop runs at the times that it ran on the robot, the subsystems
+ * run on their periods in between and time skips ahead whenever every thread is waiting. The same log and the same code always
+ * give the same output log, which has everything that the robot code logs (ex. the poses from RobotTracker) and the commands
+ * sent to the modules ({@link LogSchemas#OUTPUT_MODULE_COMMAND}). Export the outputs of two versions of the code with the log
+ * exporter and diff them to see what a change did. The loop times of the subsystems are printed at the end to compare their CPU
+ * cost.
+ * <p>
+ * Run with {@code ./gradlew replay --args="<log> <output log>"}.
+ */
+public final class ReplayEngine {
+    private enum InputType {
+        DRIVE(LogSchemas.INPUT_DRIVE),
+        ODOMETRY(LogSchemas.INPUT_ODOMETRY),
+        CONTROLLER(LogSchemas.INPUT_CONTROLLER),
+        DRIVER_STATION(LogSchemas.INPUT_DRIVER_STATION),
+        LIMELIGHT(LogSchemas.INPUT_LIMELIGHT);
+
+        final @NotNull LogSchema schema;
+
+        InputType(@NotNull LogSchema schema) {
+            this.schema = schema;
+        }
+
+        /**
+         * @return The type of input that the schema is for or null if it isn't an input
+         */
+        static @Nullable InputType of(@NotNull LogSchema schema) throws IOException {
+            for (InputType type : values()) {
+                if (type.schema.getName().equals(schema.getName())) {
+                    if (type.schema.getFieldCount() != schema.getFieldCount()) {
+                        throw new IOException("The log's " + schema.getName() + " has " + schema.getFieldCount()
+                                + " fields but the code has " + type.schema.getFieldCount());
+                    }
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lets the replay run each loop of the robot instead of the robot's timer
+     */
+    private static final class ReplayRobot extends Robot {
+        void runLoop() {
+            loopFunc();
+        }
+    }
+
+    private static final int OUTPUT_LOG_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * How long to wait for an auto from the log to be parsed (in ms, real time)
+     */
+    private static final long AUTO_PARSE_TIMEOUT = 30_000;
+
+    private final @NotNull Path log;
+    private final @NotNull Path output;
+
+    private final InputSeries driveInputs = new InputSeries(LogSchemas.INPUT_DRIVE.getFieldCount());
+    private final InputSeries odometryInputs = new InputSeries(LogSchemas.INPUT_ODOMETRY.getFieldCount());
+    private double startTime = Double.NaN;
+    private double endTime = Double.NaN;
+
+    private VirtualClock clock;
+    private ReplayRobot robot;
+    private Limelight limelight;
+    private NetworkTableEntry autoPathEntry;
+    private NetworkTableEntry autoProcessingIdEntry;
+    private boolean autoUploaded = false;
+
+    public ReplayEngine(@NotNull Path log, @NotNull Path output) {
+        this.log = log;
+        this.output = output;
+    }
+
+    /**
+     * Reads the sensor inputs, which the subsystems look up by time, and finds when the log starts and ends
+     */
+    private void loadInputs() throws IOException {
+        InputType[] types = new InputType[Short.MAX_VALUE + 1];
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new LogReader.Handler() {
+                @Override
+                public void onSchema(int id, @NotNull LogSchema schema) throws IOException {
+                    types[id] = InputType.of(schema);
+                }
+
+                @Override
+                public void onData(int id, double timestamp, double @NotNull [] values) {
+                    InputType type = types[id];
+                    if (type == null) return;
+
+                    if (Double.isNaN(startTime)) {
+                        startTime = timestamp;
+                    }
+                    endTime = timestamp;
+                    if (type == InputType.DRIVE) {
+                        driveInputs.add(timestamp, values);
+                    } else if (type == InputType.ODOMETRY) {
+                        odometryInputs.add(timestamp, values);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Replays the log. Blocks until the end of the log.
+     */
+    public void run() throws IOException, InterruptedException {
+        if (Files.exists(output)) {
+            throw new IOException(output + " already exists");
+        }
+        loadInputs();
+        if (Double.isNaN(startTime)) {
+            throw new IOException(log + " doesn't have any inputs. It might be from before inputs were recorded.");
+        }
+
+        // Everything that the robot code gets from a singleton must be replaced before the first subsystem is created
+        clock = new VirtualClock(toNanos(startTime), true);
+        Clock.setInstance(clock);
+        DataLogger.setInstance(new DataLogger(output, OUTPUT_LOG_SIZE));
+        int outputLogId = DataLogger.getInstance().register(LogSchemas.OUTPUT_MODULE_COMMAND);
+        DriveIOFactory.setInstance(new DriveIOFactory() {
+            @Override
+            public SwerveModuleIO @NotNull [] createModules() {
+                SwerveModuleIO[] modules = new SwerveModuleIO[4];
+                for (int i = 0; i < modules.length; i++) {
+                    modules[i] = new ReplaySwerveModuleIO(i, driveInputs, odometryInputs, outputLogId);
+                }
+                return modules;
+            }
+
+            @Override
+            public @NotNull GyroIO createGyro(SwerveModuleIO @NotNull [] modules) {
+                return new ReplayGyroIO(driveInputs, odometryInputs);
+            }
+        });
+
+        HAL.initialize(500, 0);
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        // Registered first, so the robot loop runs before the subsystems when they're due at the same time
+        clock.registerCurrentThread();
+        robot = new ReplayRobot();
+        limelight = Limelight.getInstance();
+        NetworkTable autoDataTable = NetworkTableInstance.getDefault().getTable("autodata");
+        autoPathEntry = autoDataTable.getEntry("autoPath");
+        autoProcessingIdEntry = autoDataTable.getEntry("processingid");
+        robot.robotInit();
+
+        long realStartTime = System.nanoTime();
+        try (LogReader reader = new LogReader(log)) {
+            reader.read(new ReplayHandler());
+        }
+        double realTime = (System.nanoTime() - realStartTime) * 1.0e-9;
+
+        DataLogger.getInstance().flush();
+        System.out.printf("Replayed %.1fs of %s in %.2fs (%.0fx real time) to %s%n", endTime - startTime, log, realTime,
+                (endTime - startTime) / realTime, output);
+        printLoopTimes(Drive.getInstance());
+        printLoopTimes(RobotTracker.getInstance());
+    }
+
+    /**
+     * Gives the inputs that aren't looked up by time to the robot code in the order that they were recorded
+     */
+    private final class ReplayHandler implements LogReader.Handler {
+        private final InputType[] types = new InputType[Short.MAX_VALUE + 1];
+
+        @Override
+        public void onSchema(int id, @NotNull LogSchema schema) throws IOException {
+            types[id] = InputType.of(schema);
+        }
+
+        @Override
+        public void onData(int id, double timestamp, double @NotNull [] values) throws IOException {
+            InputType type = types[id];
+            if (type == null) return;
+
+            switch (type) {
+                case CONTROLLER:
+                    // Read by the next robot loop
+                    setController(values);
+                    break;
+                case LIMELIGHT:
+                    sleepUntil(timestamp);
+                    limelight.acceptFrame(new LimelightFrame(timestamp,
+                            values[LogSchemas.INPUT_LIMELIGHT_TARGET_VISIBLE] != 0,
+                            values[LogSchemas.INPUT_LIMELIGHT_HORIZONTAL_OFFSET],
+                            values[LogSchemas.INPUT_LIMELIGHT_VERTICAL_OFFSET],
+                            values[LogSchemas.INPUT_LIMELIGHT_TARGET_AREA],
+                            values[LogSchemas.INPUT_LIMELIGHT_TARGET_SKEW],
+                            values[LogSchemas.INPUT_LIMELIGHT_LATENCY]));
+                    break;
+                case DRIVER_STATION:
+                    sleepUntil(timestamp);
+                    runRobotLoop(values);
+                    break;
+                default:
+                    // The sensors were loaded before the replay started
+                    break;
+            }
+        }
+
+        @Override
+        public void onBlob(double timestamp, @NotNull String channel, byte @NotNull [] data) throws IOException {
+            if (LogSchemas.INPUT_AUTO_PATH_CHANNEL.equals(channel)) {
+                sleepUntil(timestamp);
+                autoPathEntry.setString(new String(data, StandardCharsets.UTF_8));
+                autoUploaded = true;
+            }
+        }
+    }
+
+    private void setController(double @NotNull [] values) {
+        int port = (int) values[LogSchemas.INPUT_CONTROLLER_PORT];
+        int axisCount = (int) values[LogSchemas.INPUT_CONTROLLER_AXIS_COUNT];
+        int povCount = (int) values[LogSchemas.INPUT_CONTROLLER_POV_COUNT];
+
+        DriverStationSim.setJoystickButtons(port, (int) values[LogSchemas.INPUT_CONTROLLER_BUTTONS]);
+        DriverStationSim.setJoystickAxisCount(port, axisCount);
+        for (int i = 0; i < Math.min(axisCount, LogSchemas.CONTROLLER_MAX_AXES); i++) {
+            DriverStationSim.setJoystickAxis(port, i, values[LogSchemas.INPUT_CONTROLLER_AXES + i]);
+        }
+        DriverStationSim.setJoystickPOVCount(port, povCount);
+        for (int i = 0; i < Math.min(povCount, LogSchemas.CONTROLLER_MAX_POVS); i++) {
+            DriverStationSim.setJoystickPOV(port, i, (int) values[LogSchemas.INPUT_CONTROLLER_POVS + i]);
+        }
+    }
+
+    private void runRobotLoop(double @NotNull [] values) throws IOException {
+        DriverStationSim.setEnabled(values[LogSchemas.INPUT_DS_ENABLED] != 0);
+        DriverStationSim.setAutonomous(values[LogSchemas.INPUT_DS_AUTONOMOUS] != 0);
+        DriverStationSim.setTest(values[LogSchemas.INPUT_DS_TEST] != 0);
+        DriverStationSim.notifyNewData();
+
+        double autoProcessingId = autoProcessingIdEntry.getDouble(0);
+        robot.runLoop();
+
+        if (autoUploaded) {
+            // The robot parses autos on another thread. Wait for it, since the robot had the time to parse it before the auto
+            // started. Time doesn't move while we wait.
+            autoUploaded = false;
+            long timeout = System.currentTimeMillis() + AUTO_PARSE_TIMEOUT;
+            while (autoProcessingIdEntry.getDouble(0) < autoProcessingId + 2) { // The robot adds 1 at the start and the end
+                if (System.currentTimeMillis() > timeout) {
+                    throw new IOException("The auto from the log wasn't parsed in " + AUTO_PARSE_TIMEOUT + "ms");
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
+    private void sleepUntil(double timestamp) throws InterruptedIOException {
+        try {
+            clock.sleepUntil(toNanos(timestamp));
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static long toNanos(double timestamp) {
+        return Math.round(timestamp * 1.0e9);
+    }
+
+    private static void printLoopTimes(@NotNull AbstractSubsystem subsystem) {
+        LoopTimeHistogram histogram = subsystem.getUpdateTimeHistogram();
+        System.out.printf("  %s update: %d cycles, p50 %.3fms, p99 %.3fms, max %.3fms%n", subsystem.subsystemName,
+                histogram.getCount(), histogram.getPercentileMs(0.5), histogram.getPercentileMs(0.99), histogram.getMaxMs());
+    }
+
+    public static void main(String... args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            System.err.println("Usage: ReplayEngine <log> <output log>");
+            System.exit(1);
+        }
+        new ReplayEngine(Paths.get(args[0]), Paths.get(args[1])).run();
+        System.exit(0); // The robot code has threads that never finish
+    }
+}
@@ -0,0 +1,57 @@
+package frc.tools.replay;
+
+import frc.subsystem.io.GyroIO;
+import frc.utility.Clock;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A gyro that plays back the angles from a log. See {@link ReplaySwerveModuleIO}.
+ */
+public class ReplayGyroIO implements GyroIO {
+    private final @NotNull InputSeries driveInputs;
+    private final @NotNull InputSeries odometryInputs;
+    private final Clock clock = Clock.getInstance();
+
+    /**
+     * The thread that calls {@link #periodic(double)} (the drive loop)
+     */
+    private volatile Thread driveThread;
+    /**
+     * Only accessed by the drive loop
+     */
+    private int driveIndex = -1;
+
+    public ReplayGyroIO(@NotNull InputSeries driveInputs, @NotNull InputSeries odometryInputs) {
+        this.driveInputs = driveInputs;
+        this.odometryInputs = odometryInputs;
+    }
+
+    @Override
+    public void periodic(double timestamp) {
+        driveThread = Thread.currentThread();
+        driveIndex = driveInputs.indexNearest(timestamp);
+    }
+
+    @Override
+    public double getAngle() {
+        if (Thread.currentThread() == driveThread) {
+            return driveIndex < 0 ? 0 : driveInputs.get(driveIndex, LogSchemas.INPUT_DRIVE_GYRO_ANGLE);
+        } else if (odometryInputs.isEmpty()) {
+            return driveInputs.getNearest(clock.getTimestamp(), LogSchemas.INPUT_DRIVE_GYRO_ANGLE);
+        } else {
+            return odometryInputs.getNearest(clock.getTimestamp(), LogSchemas.INPUT_ODOMETRY_GYRO_ANGLE);
+        }
+    }
+
+    /**
+     * Does nothing. The recorded angles already include the resets that happened on the robot.
+     */
+    @Override
+    public void zeroYaw() {
+    }
+
+    @Override
+    public void calibrate() {
+    }
+}
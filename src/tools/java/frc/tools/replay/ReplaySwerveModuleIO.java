@@ -0,0 +1,123 @@
+package frc.tools.replay;
+
+import frc.subsystem.io.SwerveModuleIO;
+import frc.utility.Clock;
+import frc.utility.logging.DataLogger;
+import frc.utility.logging.LogSchemas;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A swerve module that plays back the sensor values from a log and records the commands that it gets (see
+ * {@link ReplayEngine}).
+ * <p>
+ * The drive loop gets the values that the robot read in the same drive cycle. Other threads (the high rate odometry) get the
+ * odometry sample that is closest to the current time, or the closest drive cycle if the log doesn't have odometry samples.
+ */
+public class ReplaySwerveModuleIO implements SwerveModuleIO {
+    private final int module;
+    private final @NotNull InputSeries driveInputs;
+    private final @NotNull InputSeries odometryInputs;
+    private final Clock clock = Clock.getInstance();
+
+    private final DataLogger dataLogger = DataLogger.getInstance();
+    private final int outputLogId;
+    private final double[] outputLogValues = new double[LogSchemas.OUTPUT_MODULE_COMMAND.getFieldCount()];
+
+    /**
+     * The thread that calls {@link #periodic(double)} (the drive loop)
+     */
+    private volatile Thread driveThread;
+    /**
+     * Only accessed by the drive loop
+     */
+    private int driveIndex = -1;
+    private double driveVoltage = 0;
+    private double steerPosition = Double.NaN;
+
+    /**
+     * @param module         The number of the module (0 -> Left Front, 1 -> Left Back, 2 -> Right Front, 3 -> Right Back)
+     * @param driveInputs    The {@link LogSchemas#INPUT_DRIVE} records from the log
+     * @param odometryInputs The {@link LogSchemas#INPUT_ODOMETRY} records from the log
+     * @param outputLogId    The id that {@link LogSchemas#OUTPUT_MODULE_COMMAND} was registered with
+     */
+    public ReplaySwerveModuleIO(int module, @NotNull InputSeries driveInputs, @NotNull InputSeries odometryInputs,
+                                int outputLogId) {
+        this.module = module;
+        this.driveInputs = driveInputs;
+        this.odometryInputs = odometryInputs;
+        this.outputLogId = outputLogId;
+    }
+
+    @Override
+    public void periodic(double timestamp) {
+        driveThread = Thread.currentThread();
+        driveIndex = driveInputs.indexNearest(timestamp);
+    }
+
+    private double readDriveInput(int field) {
+        return driveIndex < 0 ? 0 : driveInputs.get(driveIndex, field + module);
+    }
+
+    private double readSensor(int driveField, int odometryField) {
+        if (Thread.currentThread() == driveThread) {
+            return readDriveInput(driveField);
+        } else if (odometryInputs.isEmpty()) {
+            return driveInputs.getNearest(clock.getTimestamp(), driveField + module);
+        } else {
+            return odometryInputs.getNearest(clock.getTimestamp(), odometryField + module);
+        }
+    }
+
+    @Override
+    public double getDriveVelocity() {
+        return readSensor(LogSchemas.INPUT_DRIVE_VELOCITY, LogSchemas.INPUT_ODOMETRY_VELOCITY);
+    }
+
+    @Override
+    public double getDrivePosition() {
+        return readSensor(LogSchemas.INPUT_DRIVE_POSITION, LogSchemas.INPUT_ODOMETRY_POSITION);
+    }
+
+    @Override
+    public double getDriveCurrent() {
+        return readDriveInput(LogSchemas.INPUT_DRIVE_CURRENT);
+    }
+
+    @Override
+    public double getSteerAngle() {
+        return readSensor(LogSchemas.INPUT_STEER_ANGLE, LogSchemas.INPUT_ODOMETRY_STEER_ANGLE);
+    }
+
+    @Override
+    public double getSteerRelativePosition() {
+        return readDriveInput(LogSchemas.INPUT_STEER_RELATIVE_POSITION);
+    }
+
+    @Override
+    public double getSteerCurrent() {
+        return readDriveInput(LogSchemas.INPUT_STEER_CURRENT);
+    }
+
+    @Override
+    public void setDriveVoltage(double volts) {
+        driveVoltage = volts;
+    }
+
+    @Override
+    public void setSteerPosition(double relativePosition) {
+        steerPosition = relativePosition;
+    }
+
+    @Override
+    public void stopSteer() {
+        steerPosition = Double.NaN;
+    }
+
+    @Override
+    public void flush() {
+        outputLogValues[LogSchemas.OUTPUT_MODULE] = module;
+        outputLogValues[LogSchemas.OUTPUT_MODULE_DRIVE_VOLTAGE] = driveVoltage;
+        outputLogValues[LogSchemas.OUTPUT_MODULE_STEER_POSITION] = steerPosition;
+        dataLogger.write(outputLogId, clock.getTimestamp(), outputLogValues);
+    }
+}